@@ -29,6 +29,9 @@ dependencies {
     implementation("com.google.guava:guava:32.1.1-jre")
 
     implementation("org.apache.commons:commons-lang3:3.17.0")
+
+    // Generates the classes of the JVM backend.
+    implementation("org.ow2.asm:asm:9.8")
 }
 
 // Apply a specific Java toolchain to ease working on different environments.
@@ -38,6 +41,34 @@ java {
     }
 }
 
+// The lexer's vector run scanner uses the incubating Vector API. It lives in a source set of its
+// own, so only its compilation sees the module, and javac's warning about using an incubating
+// module is silenced there alone. At run time the module is optional: without it the lexer never
+// loads the scanner and uses its scalar loops.
+val vectorModule = listOf("--add-modules", "jdk.incubator.vector")
+
+val vector by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+}
+
+sourceSets {
+    main {
+        runtimeClasspath += vector.output
+    }
+    test {
+        compileClasspath += vector.output
+        runtimeClasspath += vector.output
+    }
+}
+
+tasks.named<JavaCompile>(vector.compileJavaTaskName) {
+    options.compilerArgs.addAll(vectorModule + "-Xlint:none")
+}
+
+tasks.jar {
+    from(vector.output)
+}
+
 spotless {
 
 
@@ -59,7 +90,17 @@ application {
     mainClass.set("interpreter.App")
 }
 
+// The Vector API is opt-in, since the JVM warns about incubator modules on every launch:
+//   ./gradlew run -Pvector
+// or, for the installed distribution, JAVA_OPTS="--add-modules jdk.incubator.vector".
+tasks.named<JavaExec>("run") {
+    if (project.hasProperty("vector")) {
+        jvmArgs(vectorModule)
+    }
+}
+
 tasks.named<Test>("test") {
     // Use JUnit Platform for unit tests.
     useJUnitPlatform()
+    jvmArgs(vectorModule)
 }
@@ -1,11 +1,23 @@
 package interpreter;
 
+import interpreter.repl.EngineType;
 import interpreter.repl.Repl;
 
 public class App {
+    private static final String ENGINE_OPTION = "--engine=";
 
     public static void main(String[] args) {
+        EngineType engine = EngineType.EVAL;
+        for (String arg : args) {
+            if (arg.startsWith(ENGINE_OPTION)) {
+                engine = EngineType.fromName(arg.substring(ENGINE_OPTION.length()));
+            } else {
+                throw new IllegalArgumentException(
+                        "unknown option %s, usage: [%s<%s>]"
+                                .formatted(arg, ENGINE_OPTION, "eval|vm|node|jvm|closure"));
+            }
+        }
         System.out.println("Hey there! This is my programming language! Type some commands next!");
-        new Repl().start();
+        new Repl(engine.create()).start();
     }
 }
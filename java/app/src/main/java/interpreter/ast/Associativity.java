@@ -0,0 +1,9 @@
+package interpreter.ast;
+
+/** How an infix operator groups with another operator of the same precedence. */
+public enum Associativity {
+    /** {@code a - b - c} parses as {@code (a - b) - c}. */
+    LEFT,
+    /** {@code a || b || c} parses as {@code a || (b || c)}. */
+    RIGHT
+}
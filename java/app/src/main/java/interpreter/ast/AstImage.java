@@ -0,0 +1,661 @@
+package interpreter.ast;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import interpreter.lexer.SymbolTable;
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import interpreter.utils.TokenUtil;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A compact binary image of a parsed {@link Program}, kept next to a script so that later runs can
+ * load the tree instead of lexing and parsing the source again.
+ *
+ * <p>An image starts with a header: a magic number, the format version, a fingerprint of the
+ * {@link NodeKind} and {@link TokenType} constants whose ordinals the body is written in, and a
+ * 128-bit hash of the source text the program was parsed from. A pool of the distinct token
+ * literals in UTF-8 follows, then a table of the distinct tokens, then the nodes in preorder, each
+ * a kind and a token index followed by its operands. Every number is an unsigned LEB128 varint,
+ * integer literals zigzag encoded first, so most nodes take two bytes. Both directions walk the
+ * tree with a stack of their own, as the iterative parser does, so any tree the parser builds, such
+ * as a long chain of operators, is written and read back without overflowing the Java stack.
+ *
+ * <p>{@link #load(Path, String)} maps the image read-only and decodes the tree straight from the
+ * mapping. Identifier names are interned from the mapped bytes into a fresh {@link SymbolTable},
+ * so each name allocates once and every occurrence shares its token, as after lexing. An image
+ * whose header does not match the current format or the given source is stale, and one that is
+ * truncated or malformed is treated the same way: it loads as empty and the caller parses instead.
+ * The image does not keep the source, so a matching hash is taken as a matching source.
+ *
+ * <p>Loading is not zero-copy. It skips lexing and parsing, but still allocates a string for each
+ * distinct literal and a record for each node, so it takes about half as long as parsing the
+ * source, not an order of magnitude less.
+ */
+public final class AstImage {
+    /** {@code "MAST"} in ASCII. */
+    private static final int MAGIC = 0x4d415354;
+
+    /** Bumped whenever the layout of an image changes. */
+    static final int VERSION = 1;
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+    private static final NodeKind[] KINDS = NodeKind.values();
+    private static final TokenType[] TYPES = TokenType.values();
+
+    /** Changes whenever a constant is added, removed or reordered, which shifts the ordinals. */
+    private static final int SCHEMA =
+            HASH.hashUnencodedChars(Arrays.toString(KINDS) + Arrays.toString(TYPES)).asInt();
+
+    private AstImage() {}
+
+    /**
+     * Hashes the UTF-8 encoding in bulk; feeding the hasher one char at a time, as {@link
+     * ParseCache} does, would cost more than decoding the image.
+     */
+    private static HashCode hash(String source) {
+        return HASH.hashBytes(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Encodes {@code program}, parsed from {@code source}, as an image. */
+    public static byte[] encode(Program program, String source) {
+        Validate.notNull(program, "program should not be null");
+        Validate.notNull(source, "source should not be null");
+        var writer = new Writer();
+        writer.write(program);
+        return writer.image(hash(source));
+    }
+
+    /**
+     * Writes the image of {@code program} to {@code image}. The bytes go to a temporary file in the
+     * same directory first, which is then moved into place atomically, so a concurrent reader sees
+     * either the old image or the new one.
+     */
+    public static void write(Path image, Program program, String source) throws IOException {
+        Validate.notNull(image, "image should not be null");
+        byte[] bytes = encode(program, source);
+        Path directory = image.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, image.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, bytes);
+            Files.move(
+                    temporary,
+                    image,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Maps {@code image} read-only and decodes the program in it, or returns empty when there is
+     * no such file or it is not an image of {@code source}. The mapping outlives the file channel;
+     * an image over 2 GiB cannot be mapped into one buffer and is rejected.
+     */
+    public static Optional<Program> load(Path image, String source) throws IOException {
+        Validate.notNull(image, "image should not be null");
+        Validate.notNull(source, "source should not be null");
+        ByteBuffer mapped;
+        try (var channel = FileChannel.open(image, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        return decode(mapped, source);
+    }
+
+    /**
+     * Decodes the program in the remaining bytes of {@code image}, or returns empty when they are
+     * not an image of {@code source}. The buffer's position is left alone.
+     */
+    public static Optional<Program> decode(ByteBuffer image, String source) {
+        Validate.notNull(image, "image should not be null");
+        Validate.notNull(source, "source should not be null");
+        ByteBuffer buffer = image.slice();
+        try {
+            if (buffer.getInt() != MAGIC
+                    || buffer.getInt() != VERSION
+                    || buffer.getInt() != SCHEMA) {
+                return Optional.empty();
+            }
+            byte[] hash = new byte[HASH.bits() / Byte.SIZE];
+            buffer.get(hash);
+            if (!HashCode.fromBytes(hash).equals(hash(source))) {
+                return Optional.empty();
+            }
+            var reader = new Reader(buffer);
+            Object program = reader.read();
+            if (!(program instanceof Program) || buffer.hasRemaining()) {
+                return Optional.empty();
+            }
+            return Optional.of((Program) program);
+        } catch (BufferUnderflowException
+                | IndexOutOfBoundsException
+                | CorruptImageException e) {
+            // A corrupt image is as good as a stale one: the caller parses the source instead.
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads {@code source} as UTF-8 and loads its program from {@code image}, or, when the image
+     * is missing or stale, parses the source with the standard operators and writes a fresh image.
+     * Only programs that parse without errors are written, so a loaded program has no diagnostics.
+     */
+    public static ParseResult loadOrParse(Path source, Path image) throws IOException {
+        Validate.notNull(source, "source should not be null");
+        String text = Files.readString(source);
+        Optional<Program> loaded = load(image, text);
+        if (loaded.isPresent()) {
+            return new ParseResult(loaded.get(), List.of());
+        }
+        ParseResult result = Parser.parse(text);
+        if (!result.hasErrors()) {
+            write(image, result.program(), text);
+        }
+        return result;
+    }
+
+    /** Encodes nodes as it walks them, collecting the literals and tokens they refer to. */
+    private static final class Writer {
+        /** Stands for an absent node among the pending work, which cannot hold null. */
+        private static final Object ABSENT = new Object();
+
+        private final Map<String, Integer> literals = new HashMap<>();
+        private final Map<Token, Integer> tokens = new HashMap<>();
+        private final Output pool = new Output();
+        private final Output table = new Output();
+        private final Output nodes = new Output();
+
+        /**
+         * What is left to write, next on top: nodes, the tokens and counts that follow a child of
+         * theirs, and {@link #ABSENT}.
+         */
+        private final Deque<Object> pending = new ArrayDeque<>();
+
+        void write(Statement program) {
+            push(program);
+            while (!pending.isEmpty()) {
+                switch (pending.pop()) {
+                    case Statement statement -> statement(statement);
+                    case Expression expression -> expression(expression);
+                    case Token token -> nodes.varint(tokenIndex(token));
+                    case Integer count -> nodes.varint(count);
+                    default -> nodes.varint(0);
+                }
+            }
+        }
+
+        /** Writes the start of {@code statement} and schedules the rest of it. */
+        private void statement(Statement statement) {
+            switch (statement) {
+                case Program program -> {
+                    nodes.varint(NodeKind.PROGRAM.ordinal() + 1);
+                    statements(program.statements());
+                }
+                case LetStatement let -> {
+                    node(NodeKind.LET, let.token());
+                    push(let.value());
+                    push(let.identifier());
+                }
+                case ReturnStatement ret -> {
+                    node(NodeKind.RETURN, ret.token());
+                    push(ret.expression());
+                }
+                case ExpressionStatement expression -> {
+                    // The token is the expression's last, so it follows it as in the source.
+                    nodes.varint(NodeKind.EXPRESSION_STATEMENT.ordinal() + 1);
+                    pending.push(expression.token());
+                    push(expression.expression());
+                }
+                case BlockStatement block -> {
+                    node(NodeKind.BLOCK, block.token());
+                    statements(block.statements());
+                }
+                default ->
+                        throw new IllegalArgumentException(
+                                "unsupported statement: " + statement.getClass().getSimpleName());
+            }
+        }
+
+        /** Writes the start of {@code expression} and schedules the rest of it. */
+        private void expression(Expression expression) {
+            switch (expression) {
+                case Identifier identifier -> node(NodeKind.IDENTIFIER, identifier.token());
+                case IntegerLiteralExpression integer -> {
+                    node(NodeKind.INTEGER, integer.token());
+                    int value = integer.value();
+                    nodes.varint((value << 1) ^ (value >> 31));
+                }
+                case BooleanLiteralExpression bool -> {
+                    node(NodeKind.BOOLEAN, bool.token());
+                    nodes.varint(bool.value() ? 1 : 0);
+                }
+                case PrefixExpression prefix -> {
+                    node(NodeKind.PREFIX, prefix.token());
+                    push(prefix.right());
+                }
+                case InfixExpression infix -> {
+                    node(NodeKind.INFIX, infix.operator());
+                    push(infix.right());
+                    push(infix.left());
+                }
+                case IfExpression ifExpression -> {
+                    node(NodeKind.IF, ifExpression.token());
+                    push(ifExpression.alternative());
+                    push(ifExpression.consequence());
+                    push(ifExpression.condition());
+                }
+                case FunctionLiteral function -> {
+                    node(NodeKind.FUNCTION, function.token());
+                    nodes.varint(function.parameters().size());
+                    push(function.body());
+                    pushAll(function.parameters());
+                }
+                case CallExpression call -> {
+                    node(NodeKind.CALL, call.token());
+                    pushAll(call.arguments());
+                    pending.push(call.arguments().size());
+                    push(call.function());
+                }
+                default ->
+                        throw new IllegalArgumentException(
+                                "unsupported expression: "
+                                        + expression.getClass().getSimpleName());
+            }
+        }
+
+        private void statements(List<Statement> statements) {
+            nodes.varint(statements.size());
+            pushAll(statements);
+        }
+
+        /** Schedules {@code nodes} so that they are written in order. */
+        private void pushAll(List<?> nodes) {
+            for (int i = nodes.size() - 1; i >= 0; i--) {
+                push(nodes.get(i));
+            }
+        }
+
+        private void push(Object node) {
+            pending.push(node != null ? node : ABSENT);
+        }
+
+        private void node(NodeKind kind, Token token) {
+            nodes.varint(kind.ordinal() + 1);
+            nodes.varint(tokenIndex(token));
+        }
+
+        private int tokenIndex(Token token) {
+            return tokens.computeIfAbsent(token, this::addToken);
+        }
+
+        /**
+         * Adds {@code token} to the table as its type followed by its literal's index in the pool
+         * plus one, or by zero when the literal is the type's fixed one.
+         */
+        private int addToken(Token token) {
+            table.varint(token.type().ordinal());
+            Token fixed = TokenUtil.fixedToken(token.type());
+            if (fixed != null && fixed.literal().equals(token.literal())) {
+                table.varint(0);
+            } else {
+                table.varint(literals.computeIfAbsent(token.literal(), this::addLiteral) + 1);
+            }
+            return tokens.size();
+        }
+
+        private int addLiteral(String literal) {
+            byte[] bytes = literal.getBytes(StandardCharsets.UTF_8);
+            pool.varint(bytes.length);
+            pool.bytes(bytes, bytes.length);
+            return literals.size();
+        }
+
+        byte[] image(HashCode hash) {
+            var image = new Output();
+            image.int32(MAGIC);
+            image.int32(VERSION);
+            image.int32(SCHEMA);
+            image.bytes(hash.asBytes(), hash.bits() / Byte.SIZE);
+            image.varint(literals.size());
+            image.bytes(pool.bytes, pool.size);
+            image.varint(tokens.size());
+            image.bytes(table.bytes, table.size);
+            image.bytes(nodes.bytes, nodes.size);
+            return Arrays.copyOf(image.bytes, image.size);
+        }
+    }
+
+    private static final class Output {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        void varint(int value) {
+            while ((value & ~0x7f) != 0) {
+                write((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        void int32(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        void bytes(byte[] source, int length) {
+            ensure(length);
+            System.arraycopy(source, 0, bytes, size, length);
+            size += length;
+        }
+
+        private void write(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        private void ensure(int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+        }
+    }
+
+    /**
+     * Decodes the body of an image. Literals are only located in the pool; each is decoded or
+     * interned once, when the token table is read.
+     */
+    private static final class Reader {
+        private final ByteBuffer image;
+        private final Token[] tokens;
+        private final int[] symbols;
+
+        Reader(ByteBuffer image) {
+            this.image = image;
+            int[] literalStarts = new int[count()];
+            int[] literalEnds = new int[literalStarts.length];
+            for (int i = 0; i < literalStarts.length; i++) {
+                int length = varint();
+                int start = Objects.checkFromIndexSize(image.position(), length, image.limit());
+                literalStarts[i] = start;
+                literalEnds[i] = start + length;
+                image.position(literalEnds[i]);
+            }
+            this.tokens = new Token[count()];
+            this.symbols = new int[tokens.length];
+            var symbolTable = new SymbolTable();
+            for (int i = 0; i < tokens.length; i++) {
+                TokenType type = TYPES[Objects.checkIndex(varint(), TYPES.length)];
+                int literal = varint() - 1;
+                symbols[i] = SymbolTable.NONE;
+                if (literal == -1) {
+                    tokens[i] = TokenUtil.fixedToken(type);
+                    check(tokens[i] != null, "%s has no fixed literal", type);
+                } else if (type == TokenType.IDENT) {
+                    Objects.checkIndex(literal, literalStarts.length);
+                    symbols[i] =
+                            symbolTable.intern(image, literalStarts[literal], literalEnds[literal]);
+                    tokens[i] = symbolTable.token(symbols[i]);
+                } else {
+                    Objects.checkIndex(literal, literalStarts.length);
+                    tokens[i] = new Token(type, utf8(literalStarts[literal], literalEnds[literal]));
+                }
+            }
+        }
+
+        /**
+         * Reads the tree in preorder, keeping the nodes whose children are still being read on a
+         * stack. Each node is built once its last child is, in a {@link Frame} for all but leaves.
+         */
+        Object read() {
+            Deque<Frame> open = new ArrayDeque<>();
+            while (true) {
+                NodeKind kind = kind();
+                Object node;
+                if (kind == null) {
+                    node = null;
+                } else if (kind == NodeKind.IDENTIFIER
+                        || kind == NodeKind.INTEGER
+                        || kind == NodeKind.BOOLEAN) {
+                    node = leaf(kind);
+                } else {
+                    Frame frame = open(kind);
+                    if (frame.remaining > 0) {
+                        open.push(frame);
+                        continue;
+                    }
+                    node = build(frame);
+                }
+                // Hand the node to its parent, and each parent that is now complete to its own.
+                while (true) {
+                    Frame parent = open.peek();
+                    if (parent == null) {
+                        return node;
+                    }
+                    parent.children.add(node);
+                    if (parent.kind == NodeKind.CALL && parent.children.size() == 1) {
+                        parent.remaining += count();
+                    }
+                    if (--parent.remaining > 0) {
+                        break;
+                    }
+                    open.pop();
+                    node = build(parent);
+                }
+            }
+        }
+
+        private Expression leaf(NodeKind kind) {
+            return switch (kind) {
+                case IDENTIFIER -> {
+                    int token = tokenIndex();
+                    checkToken(kind, tokens[token]);
+                    yield new Identifier(tokens[token], symbols[token]);
+                }
+                case INTEGER -> {
+                    Token token = token(kind);
+                    int zigzag = varint();
+                    yield new IntegerLiteralExpression(token, (zigzag >>> 1) ^ -(zigzag & 1));
+                }
+                case BOOLEAN -> new BooleanLiteralExpression(token(kind), varint() != 0);
+                default -> throw new CorruptImageException(kind + " is not a leaf");
+            };
+        }
+
+        /** Reads what precedes the children of a {@code kind} node. */
+        private Frame open(NodeKind kind) {
+            return switch (kind) {
+                case PROGRAM -> new Frame(kind, null, count());
+                case EXPRESSION_STATEMENT -> new Frame(kind, null, 1);
+                case BLOCK -> new Frame(kind, token(kind), count());
+                case FUNCTION -> new Frame(kind, token(kind), count() + 1);
+                case LET, INFIX -> new Frame(kind, token(kind), 2);
+                case IF -> new Frame(kind, token(kind), 3);
+                // A call's argument count follows its function; see read().
+                default -> new Frame(kind, token(kind), 1);
+            };
+        }
+
+        /** Builds the node {@code frame} has read, once its children are checked to fit it. */
+        private Object build(Frame frame) {
+            Token token = frame.token;
+            List<Object> children = frame.children;
+            return switch (frame.kind) {
+                case PROGRAM -> new Program(children(children, 0, Statement.class));
+                case LET ->
+                        new LetStatement(
+                                token,
+                                child(children, 0, Identifier.class, false),
+                                child(children, 1, Expression.class, false));
+                case RETURN ->
+                        new ReturnStatement(token, child(children, 0, Expression.class, false));
+                case EXPRESSION_STATEMENT ->
+                        new ExpressionStatement(
+                                token(NodeKind.EXPRESSION_STATEMENT),
+                                child(children, 0, Expression.class, true));
+                case BLOCK -> new BlockStatement(token, children(children, 0, Statement.class));
+                case PREFIX ->
+                        new PrefixExpression(token, child(children, 0, Expression.class, false));
+                case INFIX ->
+                        new InfixExpression(
+                                child(children, 0, Expression.class, false),
+                                token,
+                                child(children, 1, Expression.class, false));
+                case IF ->
+                        new IfExpression(
+                                token,
+                                child(children, 0, Expression.class, false),
+                                child(children, 1, BlockStatement.class, false),
+                                child(children, 2, BlockStatement.class, true));
+                case FUNCTION -> {
+                    int body = children.size() - 1;
+                    yield new FunctionLiteral(
+                            token,
+                            children(children.subList(0, body), 0, Identifier.class),
+                            child(children, body, BlockStatement.class, false));
+                }
+                case CALL ->
+                        new CallExpression(
+                                child(children, 0, Expression.class, false),
+                                token,
+                                children(children, 1, Expression.class));
+                default -> throw new CorruptImageException(frame.kind + " has no children");
+            };
+        }
+
+        /** Returns child {@code index}, a {@code type}, or absent only if {@code optional}. */
+        private static <T> T child(
+                List<Object> children, int index, Class<T> type, boolean optional) {
+            Object child = children.get(index);
+            check(
+                    type.isInstance(child) || optional && child == null,
+                    "child %d should be a %s",
+                    index,
+                    type.getSimpleName());
+            return type.cast(child);
+        }
+
+        /** Returns the children from {@code from} on, each of which must be a {@code type}. */
+        private static <T> List<T> children(List<Object> children, int from, Class<T> type) {
+            List<T> typed = new ArrayList<>(children.size() - from);
+            for (int i = from; i < children.size(); i++) {
+                typed.add(child(children, i, type, false));
+            }
+            return typed;
+        }
+
+        /** Returns the next node's kind, or null for an absent node. */
+        private NodeKind kind() {
+            int kind = varint();
+            return kind == 0 ? null : KINDS[Objects.checkIndex(kind - 1, KINDS.length)];
+        }
+
+        private Token token(NodeKind kind) {
+            Token token = tokens[tokenIndex()];
+            checkToken(kind, token);
+            return token;
+        }
+
+        /** Rejects a token the record of a {@code kind} node would not accept. */
+        private static void checkToken(NodeKind kind, Token token) {
+            TokenType type = token.type();
+            boolean fits =
+                    switch (kind) {
+                        case LET -> type == TokenType.LET;
+                        case RETURN -> type == TokenType.RETURN;
+                        case BLOCK -> type == TokenType.LBRACE;
+                        case IDENTIFIER -> type == TokenType.IDENT;
+                        case INTEGER -> type == TokenType.INT;
+                        case BOOLEAN -> type == TokenType.TRUE || type == TokenType.FALSE;
+                        case PREFIX -> type == TokenType.BANG || type == TokenType.MINUS;
+                        case IF -> type == TokenType.IF;
+                        case FUNCTION -> type == TokenType.FUNCTION;
+                        case CALL -> type == TokenType.LPAREN;
+                        default -> true;
+                    };
+            check(fits, "%s cannot have a %s token", kind, type);
+        }
+
+        private static void check(boolean condition, String format, Object... arguments) {
+            if (!condition) {
+                throw new CorruptImageException(format.formatted(arguments));
+            }
+        }
+
+        private int tokenIndex() {
+            return Objects.checkIndex(varint(), tokens.length);
+        }
+
+        /**
+         * Reads a length. Each element takes at least one byte, so a count larger than what is
+         * left is corrupt, and rejecting it keeps a bad image from sizing a huge array.
+         */
+        private int count() {
+            return Objects.checkIndex(varint(), image.remaining() + 1);
+        }
+
+        private int varint() {
+            int value = 0;
+            for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+                byte b = image.get();
+                value |= (b & 0x7f) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new CorruptImageException("varint is too long");
+        }
+
+        private String utf8(int start, int end) {
+            byte[] bytes = new byte[end - start];
+            image.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /** A node whose start has been read, and which waits for {@code remaining} children. */
+        private static final class Frame {
+            private final NodeKind kind;
+            private final Token token;
+            private final List<Object> children;
+            private int remaining;
+
+            Frame(NodeKind kind, Token token, int remaining) {
+                this.kind = kind;
+                this.token = token;
+                this.children = new ArrayList<>(remaining);
+                this.remaining = remaining;
+            }
+        }
+    }
+
+    /** Thrown while decoding an image that is well formed but does not describe a valid tree. */
+    private static final class CorruptImageException extends RuntimeException {
+        CorruptImageException(String message) {
+            super(message);
+        }
+    }
+}
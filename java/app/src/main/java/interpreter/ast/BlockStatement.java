@@ -0,0 +1,16 @@
+package interpreter.ast;
+
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import java.util.List;
+import org.apache.commons.lang3.Validate;
+
+/** The statements between a pair of braces. A block shares the frame of the code around it. */
+public record BlockStatement(Token token, List<Statement> statements) implements Statement {
+    public BlockStatement {
+        Validate.notNull(token, "token should not be null");
+        Validate.notNull(statements, "statements should not be null");
+        Validate.isTrue(TokenType.LBRACE.equals(token.type()), "should be TokenType#LBRACE");
+        statements = List.copyOf(statements);
+    }
+}
@@ -0,0 +1,18 @@
+package interpreter.ast;
+
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import java.util.List;
+import org.apache.commons.lang3.Validate;
+
+/** A call of {@code function}; {@code token} is the opening parenthesis of the arguments. */
+public record CallExpression(Expression function, Token token, List<Expression> arguments)
+        implements Expression {
+    public CallExpression {
+        Validate.notNull(function, "function should not be null");
+        Validate.notNull(token, "token should not be null");
+        Validate.noNullElements(arguments, "arguments should not contain null");
+        Validate.isTrue(TokenType.LPAREN.equals(token.type()), "should be TokenType#LPAREN");
+        arguments = List.copyOf(arguments);
+    }
+}
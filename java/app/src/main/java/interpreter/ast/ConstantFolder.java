@@ -0,0 +1,279 @@
+package interpreter.ast;
+
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import interpreter.utils.TokenUtil;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Rewrites a program into a smaller one that evaluates to the same values and the same errors.
+ * Constant prefix and infix expressions are folded into literals, double negations are dropped,
+ * and {@code x + 0}, {@code 0 + x}, {@code x - 0}, {@code x * 1}, {@code 1 * x} and {@code x / 1}
+ * become {@code x}. Arithmetic wraps around as it does at run time.
+ *
+ * <p>Only what the evaluator always computes the same way is folded: an expression that fails,
+ * like {@code 1 / 0} or {@code -true}, and any operator the evaluator does not know are left for
+ * run time to report. The identities and {@code -(-x)} only apply when {@code x} evaluates to an
+ * integer or to an error, and {@code !(!x)} only when it evaluates to a boolean or to an error;
+ * for any other {@code x}, such as a variable, they would turn an error or a truthiness test into
+ * a value. Conditions, branches, function bodies and call arguments are folded in place; calls
+ * themselves are left alone. Unchanged subtrees are returned as the same instances.
+ */
+public final class ConstantFolder {
+    private int eliminated;
+
+    private ConstantFolder() {}
+
+    public static FoldResult fold(Program program) {
+        Validate.notNull(program, "program should not be null");
+        var folder = new ConstantFolder();
+        Program folded = folder.program(program);
+        return new FoldResult(folded, folder.eliminated);
+    }
+
+    private Program program(Program program) {
+        List<Statement> statements = statements(program.statements());
+        return statements == program.statements() ? program : new Program(statements);
+    }
+
+    private BlockStatement block(BlockStatement block) {
+        if (block == null) {
+            return null;
+        }
+        List<Statement> statements = statements(block.statements());
+        return statements == block.statements()
+                ? block
+                : new BlockStatement(block.token(), statements);
+    }
+
+    /** Folds every statement, returning {@code statements} itself when none changed. */
+    private List<Statement> statements(List<Statement> statements) {
+        List<Statement> folded = null;
+        for (int i = 0; i < statements.size(); i++) {
+            Statement statement = statements.get(i);
+            Statement result = statement(statement);
+            if (result != statement && folded == null) {
+                folded = new ArrayList<>(statements.subList(0, i));
+            }
+            if (folded != null) {
+                folded.add(result);
+            }
+        }
+        return folded == null ? statements : folded;
+    }
+
+    /** Folds every expression, returning {@code expressions} itself when none changed. */
+    private List<Expression> expressions(List<Expression> expressions) {
+        List<Expression> folded = null;
+        for (int i = 0; i < expressions.size(); i++) {
+            Expression expression = expressions.get(i);
+            Expression result = expression(expression);
+            if (result != expression && folded == null) {
+                folded = new ArrayList<>(expressions.subList(0, i));
+            }
+            if (folded != null) {
+                folded.add(result);
+            }
+        }
+        return folded == null ? expressions : folded;
+    }
+
+    private Statement statement(Statement statement) {
+        return switch (statement) {
+            case LetStatement let -> {
+                Expression value = expression(let.value());
+                yield value == let.value()
+                        ? let
+                        : new LetStatement(let.token(), let.identifier(), value);
+            }
+            case ReturnStatement ret -> {
+                Expression expression = expression(ret.expression());
+                yield expression == ret.expression()
+                        ? ret
+                        : new ReturnStatement(ret.token(), expression);
+            }
+            case ExpressionStatement statementExpression -> {
+                Expression expression = expression(statementExpression.expression());
+                yield expression == statementExpression.expression()
+                        ? statementExpression
+                        : new ExpressionStatement(statementExpression.token(), expression);
+            }
+            case Program program -> program(program);
+            case BlockStatement block -> block(block);
+            default -> statement;
+        };
+    }
+
+    private Expression expression(Expression expression) {
+        return switch (expression) {
+            case PrefixExpression prefix -> prefix(prefix);
+            case InfixExpression infix -> infix(infix);
+            case IfExpression ifExpression -> {
+                Expression condition = expression(ifExpression.condition());
+                BlockStatement consequence = block(ifExpression.consequence());
+                BlockStatement alternative = block(ifExpression.alternative());
+                yield condition == ifExpression.condition()
+                                && consequence == ifExpression.consequence()
+                                && alternative == ifExpression.alternative()
+                        ? ifExpression
+                        : new IfExpression(
+                                ifExpression.token(), condition, consequence, alternative);
+            }
+            case FunctionLiteral function -> {
+                BlockStatement body = block(function.body());
+                yield body == function.body()
+                        ? function
+                        : new FunctionLiteral(function.token(), function.parameters(), body);
+            }
+            case CallExpression call -> {
+                Expression function = expression(call.function());
+                List<Expression> arguments = expressions(call.arguments());
+                yield function == call.function() && arguments == call.arguments()
+                        ? call
+                        : new CallExpression(function, call.token(), arguments);
+            }
+            case null, default -> expression;
+        };
+    }
+
+    private Expression prefix(PrefixExpression prefix) {
+        Expression right = expression(prefix.right());
+        TokenType operator = prefix.token().type();
+        if (right instanceof PrefixExpression inner
+                && inner.token().type() == operator
+                && (operator == TokenType.MINUS
+                        ? yieldsIntegerOrError(inner.right())
+                        : yieldsBooleanOrError(inner.right()))) {
+            eliminated += 2;
+            return inner.right();
+        }
+        Expression folded =
+                switch (right) {
+                    case IntegerLiteralExpression integer ->
+                            operator == TokenType.MINUS
+                                    ? integer(-integer.value())
+                                    : bool(false);
+                    case BooleanLiteralExpression bool ->
+                            operator == TokenType.BANG ? bool(!bool.value()) : null;
+                    default -> null;
+                };
+        if (folded != null) {
+            eliminated += 1;
+            return folded;
+        }
+        return right == prefix.right() ? prefix : new PrefixExpression(prefix.token(), right);
+    }
+
+    private Expression infix(InfixExpression infix) {
+        Expression left = expression(infix.left());
+        Expression right = expression(infix.right());
+        TokenType operator = infix.operator().type();
+        Expression folded = constant(left, operator, right);
+        if (folded != null) {
+            eliminated += 2;
+            return folded;
+        }
+        Expression simplified = identity(left, operator, right);
+        if (simplified != null) {
+            eliminated += 2;
+            return simplified;
+        }
+        return left == infix.left() && right == infix.right()
+                ? infix
+                : new InfixExpression(left, infix.operator(), right);
+    }
+
+    /** Evaluates {@code left operator right} if both are literals and it cannot fail. */
+    private static Expression constant(Expression left, TokenType operator, Expression right) {
+        if (left instanceof IntegerLiteralExpression l
+                && right instanceof IntegerLiteralExpression r) {
+            int a = l.value();
+            int b = r.value();
+            return switch (operator) {
+                case PLUS -> integer(a + b);
+                case MINUS -> integer(a - b);
+                case ASTERISK -> integer(a * b);
+                case SLASH -> b == 0 ? null : integer(a / b);
+                case LT -> bool(a < b);
+                case GT -> bool(a > b);
+                case EQ -> bool(a == b);
+                case NOT_EQ -> bool(a != b);
+                default -> null;
+            };
+        }
+        if (left instanceof BooleanLiteralExpression l
+                && right instanceof BooleanLiteralExpression r) {
+            return switch (operator) {
+                case EQ -> bool(l.value().equals(r.value()));
+                case NOT_EQ -> bool(!l.value().equals(r.value()));
+                default -> null;
+            };
+        }
+        return null;
+    }
+
+    /** Drops an operand that leaves the other one unchanged, if the other is an integer. */
+    private static Expression identity(Expression left, TokenType operator, Expression right) {
+        return switch (operator) {
+            case PLUS -> {
+                if (isInteger(right, 0) && yieldsIntegerOrError(left)) {
+                    yield left;
+                }
+                yield isInteger(left, 0) && yieldsIntegerOrError(right) ? right : null;
+            }
+            case ASTERISK -> {
+                if (isInteger(right, 1) && yieldsIntegerOrError(left)) {
+                    yield left;
+                }
+                yield isInteger(left, 1) && yieldsIntegerOrError(right) ? right : null;
+            }
+            case MINUS -> isInteger(right, 0) && yieldsIntegerOrError(left) ? left : null;
+            case SLASH -> isInteger(right, 1) && yieldsIntegerOrError(left) ? left : null;
+            default -> null;
+        };
+    }
+
+    private static boolean isInteger(Expression expression, int value) {
+        return expression instanceof IntegerLiteralExpression integer && integer.value() == value;
+    }
+
+    /** Returns whether {@code expression} evaluates to an integer whenever it does not fail. */
+    private static boolean yieldsIntegerOrError(Expression expression) {
+        return switch (expression) {
+            case IntegerLiteralExpression ignored -> true;
+            case PrefixExpression prefix -> prefix.token().type() == TokenType.MINUS;
+            case InfixExpression infix ->
+                    switch (infix.operator().type()) {
+                        case PLUS, MINUS, ASTERISK, SLASH -> true;
+                        default -> false;
+                    };
+            case null, default -> false;
+        };
+    }
+
+    /** Returns whether {@code expression} evaluates to a boolean whenever it does not fail. */
+    private static boolean yieldsBooleanOrError(Expression expression) {
+        return switch (expression) {
+            case BooleanLiteralExpression ignored -> true;
+            case PrefixExpression prefix -> prefix.token().type() == TokenType.BANG;
+            case InfixExpression infix ->
+                    switch (infix.operator().type()) {
+                        case LT, GT, EQ, NOT_EQ -> true;
+                        default -> false;
+                    };
+            case null, default -> false;
+        };
+    }
+
+    private static IntegerLiteralExpression integer(int value) {
+        return new IntegerLiteralExpression(
+                new Token(TokenType.INT, Integer.toString(value)), value);
+    }
+
+    private static BooleanLiteralExpression bool(boolean value) {
+        return new BooleanLiteralExpression(
+                TokenUtil.fixedToken(value ? TokenType.TRUE : TokenType.FALSE), value);
+    }
+}
@@ -0,0 +1,71 @@
+package interpreter.ast;
+
+import interpreter.token.TokenType;
+import lombok.With;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A problem the parser found, recorded as data and only turned into text when {@link #message()}
+ * is called. {@code tokenIndex} is the position of the offending token in the token stream and
+ * {@code offset} where it starts in the source, or -1 when the lexer did not say; a {@link
+ * interpreter.lexer.LineIndex} turns it into a line and column on demand. {@code expected} is
+ * only set for {@link DiagnosticCode#UNEXPECTED_TOKEN} and {@code literal} only for {@link
+ * DiagnosticCode#INTEGER_OUT_OF_RANGE} and {@link DiagnosticCode#UNRESOLVED_IDENTIFIER}, which
+ * {@link Resolver} reports over a tree rather than a token stream, so its positions are -1.
+ */
+public record Diagnostic(
+        DiagnosticCode code,
+        @With int tokenIndex,
+        @With int offset,
+        TokenType expected,
+        TokenType actual,
+        String literal) {
+
+    public Diagnostic {
+        Validate.notNull(code, "code should not be null");
+        Validate.notNull(actual, "actual should not be null");
+    }
+
+    public static Diagnostic unexpectedToken(
+            int tokenIndex, int offset, TokenType expected, TokenType actual) {
+        return new Diagnostic(
+                DiagnosticCode.UNEXPECTED_TOKEN, tokenIndex, offset, expected, actual, null);
+    }
+
+    public static Diagnostic noPrefixParseFn(int tokenIndex, int offset, TokenType actual) {
+        return new Diagnostic(
+                DiagnosticCode.NO_PREFIX_PARSE_FN, tokenIndex, offset, null, actual, null);
+    }
+
+    public static Diagnostic integerOutOfRange(int tokenIndex, int offset, String literal) {
+        return new Diagnostic(
+                DiagnosticCode.INTEGER_OUT_OF_RANGE,
+                tokenIndex,
+                offset,
+                null,
+                TokenType.INT,
+                literal);
+    }
+
+    public static Diagnostic nestingTooDeep(int tokenIndex, int offset, TokenType actual) {
+        return new Diagnostic(
+                DiagnosticCode.NESTING_TOO_DEEP, tokenIndex, offset, null, actual, null);
+    }
+
+    public static Diagnostic unresolvedIdentifier(String name) {
+        return new Diagnostic(
+                DiagnosticCode.UNRESOLVED_IDENTIFIER, -1, -1, null, TokenType.IDENT, name);
+    }
+
+    public String message() {
+        return switch (code) {
+            case UNEXPECTED_TOKEN ->
+                    "expecting next token to be %s, got %s instead".formatted(expected, actual);
+            case NO_PREFIX_PARSE_FN ->
+                    "no prefix parse function found for type: %s".formatted(actual);
+            case INTEGER_OUT_OF_RANGE -> "could not parse %s as integer".formatted(literal);
+            case NESTING_TOO_DEEP -> "expression is nested too deeply at %s".formatted(actual);
+            case UNRESOLVED_IDENTIFIER -> "identifier not found: %s".formatted(literal);
+        };
+    }
+}
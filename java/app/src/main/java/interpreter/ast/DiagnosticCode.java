@@ -0,0 +1,15 @@
+package interpreter.ast;
+
+/** What went wrong in a {@link Diagnostic}. */
+public enum DiagnosticCode {
+    /** The next token was not the one the grammar requires. */
+    UNEXPECTED_TOKEN,
+    /** No expression can start with the current token. */
+    NO_PREFIX_PARSE_FN,
+    /** An integer literal does not fit in an {@code int}. */
+    INTEGER_OUT_OF_RANGE,
+    /** Expressions are nested deeper than {@link ParserOptions#maxDepth()} allows. */
+    NESTING_TOO_DEEP,
+    /** A name is used where no binding of it is in scope; reported by {@link Resolver}. */
+    UNRESOLVED_IDENTIFIER
+}
@@ -0,0 +1,13 @@
+package interpreter.ast;
+
+/** How {@link Parser#parseExpression(Precedence)} keeps track of nested expressions. */
+public enum ExpressionMode {
+    /** One Java call per nesting level; deep input is bounded by the thread stack. */
+    RECURSIVE,
+    /**
+     * Built-in operators and grouping are parsed on an explicit heap stack, so nesting depth is
+     * bounded only by {@link ParserOptions#maxDepth()}. Custom parse functions are still called,
+     * and whatever they parse through the parser is handled iteratively in turn.
+     */
+    ITERATIVE
+}
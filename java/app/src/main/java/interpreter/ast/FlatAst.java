@@ -0,0 +1,423 @@
+package interpreter.ast;
+
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import interpreter.utils.TokenUtil;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A {@link Program} stored in flat primitive arenas instead of a graph of records. A node is an
+ * {@code int} index; its kind, token and two operands live in parallel arrays, so a node costs 13
+ * bytes plus its share of the child lists, and the whole tree is a handful of objects no matter
+ * how many nodes it has. Tokens are deduplicated into a table of distinct type and literal pairs,
+ * and literals whose text is fixed by their type are not stored at all.
+ *
+ * <p>What the two operands of a node mean depends on its {@link NodeKind}:
+ *
+ * <ul>
+ *   <li>{@code PROGRAM}: its statements are {@link #child(int, int)} {@code 0} to {@link
+ *       #childCount(int)}; it has no token.
+ *   <li>{@code BLOCK}: its statements are the children, as for a {@code PROGRAM}.
+ *   <li>{@code IF}: {@link #left(int)} is the condition, children {@code 0} and {@code 1} the
+ *       consequence and the alternative, which is {@link #NONE} without an {@code else}.
+ *   <li>{@code FUNCTION}: {@link #left(int)} is the body, the children are the parameters.
+ *   <li>{@code CALL}: {@link #left(int)} is the function, the children are the arguments, the
+ *       token is the opening parenthesis.
+ *   <li>{@code LET}: {@link #left(int)} is the identifier, {@link #right(int)} the value.
+ *   <li>{@code RETURN}, {@code EXPRESSION_STATEMENT}, {@code PREFIX}: {@link #left(int)} is the
+ *       operand, which is {@link #NONE} for an expression statement without an expression.
+ *   <li>{@code INFIX}: {@link #left(int)} and {@link #right(int)} are the operands, the token is
+ *       the operator.
+ *   <li>{@code INTEGER}, {@code BOOLEAN}: the value is in {@link #intValue(int)} and {@link
+ *       #booleanValue(int)}.
+ *   <li>{@code IDENTIFIER}: the name is the {@link #literal(int)}, {@link #right(int)} its symbol
+ *       id.
+ * </ul>
+ *
+ * <p>The {@link #right(int)} of a node with children locates them in a shared list and means
+ * nothing on its own.
+ *
+ * <p>Instances are immutable. {@link #toProgram()} converts back to records that are equal to the
+ * ones the tree was built from.
+ */
+public final class FlatAst {
+    /** The index standing in for an absent node or token. */
+    public static final int NONE = -1;
+
+    private static final NodeKind[] KINDS = NodeKind.values();
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private final byte[] kinds;
+    private final int[] tokens;
+    private final int[] lhs;
+    private final int[] rhs;
+    private final int[] extra;
+    private final byte[] tokenTypes;
+    private final String[] tokenLiterals;
+    private final int root;
+
+    private FlatAst(Builder builder, int root) {
+        int size = builder.size;
+        this.kinds = Arrays.copyOf(builder.kinds, size);
+        this.tokens = Arrays.copyOf(builder.tokens, size);
+        this.lhs = Arrays.copyOf(builder.lhs, size);
+        this.rhs = Arrays.copyOf(builder.rhs, size);
+        this.extra = Arrays.copyOf(builder.extra, builder.extraSize);
+        this.tokenTypes = new byte[builder.tokenTable.size()];
+        this.tokenLiterals = new String[builder.tokenTable.size()];
+        builder.tokenTable.forEach(
+                (token, index) -> {
+                    tokenTypes[index] = (byte) token.type().ordinal();
+                    Token fixed = TokenUtil.fixedToken(token.type());
+                    tokenLiterals[index] =
+                            fixed != null && fixed.literal().equals(token.literal())
+                                    ? null
+                                    : token.literal();
+                });
+        this.root = root;
+    }
+
+    public static FlatAst of(Program program) {
+        Validate.notNull(program, "program should not be null");
+        var builder = new Builder();
+        int root = builder.program(program);
+        return new FlatAst(builder, root);
+    }
+
+    /** Returns the {@code PROGRAM} node the tree was built from. */
+    public int root() {
+        return root;
+    }
+
+    public int nodeCount() {
+        return kinds.length;
+    }
+
+    public NodeKind kind(int node) {
+        return KINDS[kinds[checkNode(node)]];
+    }
+
+    /** Returns the type of the node's token, or null for a {@code PROGRAM}. */
+    public TokenType tokenType(int node) {
+        int token = tokens[checkNode(node)];
+        return token == NONE ? null : TYPES[tokenTypes[token]];
+    }
+
+    /** Returns the literal of the node's token, or null for a {@code PROGRAM}. */
+    public String literal(int node) {
+        int token = tokens[checkNode(node)];
+        if (token == NONE) {
+            return null;
+        }
+        String literal = tokenLiterals[token];
+        return literal != null ? literal : TokenUtil.fixedToken(TYPES[tokenTypes[token]]).literal();
+    }
+
+    /** Materializes the node's token, or returns null for a {@code PROGRAM}. */
+    public Token token(int node) {
+        int token = tokens[checkNode(node)];
+        return token == NONE ? null : tokenAt(token);
+    }
+
+    public int left(int node) {
+        return lhs[checkNode(node)];
+    }
+
+    public int right(int node) {
+        return rhs[checkNode(node)];
+    }
+
+    public int intValue(int node) {
+        return lhs[checkNode(node)];
+    }
+
+    public boolean booleanValue(int node) {
+        return lhs[checkNode(node)] != 0;
+    }
+
+    /** Returns the number of children of a node, which is zero for the kinds that have none. */
+    public int childCount(int node) {
+        return switch (kind(node)) {
+            case PROGRAM, BLOCK -> rhs[node];
+            case IF -> 2;
+            case FUNCTION, CALL -> extra[rhs[node]];
+            default -> 0;
+        };
+    }
+
+    /** Returns the {@code index}-th child of a node. */
+    public int child(int node, int index) {
+        return extra[childStart(node) + Objects.checkIndex(index, childCount(node))];
+    }
+
+    private int childStart(int node) {
+        return switch (kind(node)) {
+            case PROGRAM, BLOCK -> lhs[node];
+            case FUNCTION, CALL -> rhs[node] + 1;
+            default -> rhs[node];
+        };
+    }
+
+    /** Rebuilds the record tree. Tokens with the same type and literal come back shared. */
+    public Program toProgram() {
+        return (Program) toStatement(root, new Token[tokenTypes.length]);
+    }
+
+    /** Rebuilds the statement at {@code node} as a record. */
+    public Statement toStatement(int node) {
+        return toStatement(node, new Token[tokenTypes.length]);
+    }
+
+    /** Rebuilds the expression at {@code node} as a record. */
+    public Expression toExpression(int node) {
+        return toExpression(node, new Token[tokenTypes.length]);
+    }
+
+    private Statement toStatement(int node, Token[] cache) {
+        if (node == NONE) {
+            return null;
+        }
+        return switch (kind(node)) {
+            case PROGRAM -> {
+                List<Statement> statements = new ArrayList<>(rhs[node]);
+                for (int i = 0; i < rhs[node]; i++) {
+                    statements.add(toStatement(extra[lhs[node] + i], cache));
+                }
+                yield new Program(statements);
+            }
+            case LET ->
+                    new LetStatement(
+                            token(node, cache),
+                            (Identifier) toExpression(lhs[node], cache),
+                            toExpression(rhs[node], cache));
+            case RETURN -> new ReturnStatement(token(node, cache), toExpression(lhs[node], cache));
+            case EXPRESSION_STATEMENT ->
+                    new ExpressionStatement(token(node, cache), toExpression(lhs[node], cache));
+            case BLOCK -> {
+                List<Statement> statements = new ArrayList<>(rhs[node]);
+                for (int i = 0; i < rhs[node]; i++) {
+                    statements.add(toStatement(extra[lhs[node] + i], cache));
+                }
+                yield new BlockStatement(token(node, cache), statements);
+            }
+            default -> throw new IllegalArgumentException(kind(node) + " is not a statement");
+        };
+    }
+
+    private Expression toExpression(int node, Token[] cache) {
+        if (node == NONE) {
+            return null;
+        }
+        return switch (kind(node)) {
+            case IDENTIFIER -> new Identifier(token(node, cache), rhs[node]);
+            case INTEGER -> new IntegerLiteralExpression(token(node, cache), lhs[node]);
+            case BOOLEAN -> new BooleanLiteralExpression(token(node, cache), lhs[node] != 0);
+            case PREFIX -> new PrefixExpression(token(node, cache), toExpression(lhs[node], cache));
+            case INFIX ->
+                    new InfixExpression(
+                            toExpression(lhs[node], cache),
+                            token(node, cache),
+                            toExpression(rhs[node], cache));
+            case IF ->
+                    new IfExpression(
+                            token(node, cache),
+                            toExpression(lhs[node], cache),
+                            (BlockStatement) toStatement(child(node, 0), cache),
+                            (BlockStatement) toStatement(child(node, 1), cache));
+            case FUNCTION -> {
+                List<Identifier> parameters = new ArrayList<>(childCount(node));
+                for (int i = 0; i < childCount(node); i++) {
+                    parameters.add((Identifier) toExpression(child(node, i), cache));
+                }
+                yield new FunctionLiteral(
+                        token(node, cache),
+                        parameters,
+                        (BlockStatement) toStatement(lhs[node], cache));
+            }
+            case CALL -> {
+                List<Expression> arguments = new ArrayList<>(childCount(node));
+                for (int i = 0; i < childCount(node); i++) {
+                    arguments.add(toExpression(child(node, i), cache));
+                }
+                yield new CallExpression(
+                        toExpression(lhs[node], cache), token(node, cache), arguments);
+            }
+            default -> throw new IllegalArgumentException(kind(node) + " is not an expression");
+        };
+    }
+
+    private Token token(int node, Token[] cache) {
+        int token = tokens[node];
+        if (cache[token] == null) {
+            cache[token] = tokenAt(token);
+        }
+        return cache[token];
+    }
+
+    private Token tokenAt(int token) {
+        TokenType type = TYPES[tokenTypes[token]];
+        String literal = tokenLiterals[token];
+        return literal == null ? TokenUtil.fixedToken(type) : new Token(type, literal);
+    }
+
+    private int checkNode(int node) {
+        return Objects.checkIndex(node, kinds.length);
+    }
+
+    /** Appends nodes children first, so every operand index is smaller than its parent's. */
+    private static final class Builder {
+        private final Map<Token, Integer> tokenTable = new HashMap<>();
+        private byte[] kinds = new byte[64];
+        private int[] tokens = new int[64];
+        private int[] lhs = new int[64];
+        private int[] rhs = new int[64];
+        private int size;
+        private int[] extra = new int[16];
+        private int extraSize;
+
+        int program(Program program) {
+            int[] statements = statements(program.statements());
+            return add(NodeKind.PROGRAM, null, list(statements), statements.length);
+        }
+
+        private int[] statements(List<Statement> statements) {
+            int[] nodes = new int[statements.size()];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = statement(statements.get(i));
+            }
+            return nodes;
+        }
+
+        private int[] expressions(List<? extends Expression> expressions) {
+            int[] nodes = new int[expressions.size()];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = expression(expressions.get(i));
+            }
+            return nodes;
+        }
+
+        /** Appends {@code nodes} to the shared child list and returns where they start. */
+        private int list(int... nodes) {
+            int start = extraSize;
+            if (extraSize + nodes.length > extra.length) {
+                extra = Arrays.copyOf(extra, Math.max(extra.length * 2, start + nodes.length));
+            }
+            System.arraycopy(nodes, 0, extra, start, nodes.length);
+            extraSize += nodes.length;
+            return start;
+        }
+
+        /** Appends the length of {@code nodes} and then {@code nodes}, and returns where it is. */
+        private int countedList(int[] nodes) {
+            int start = list(nodes.length);
+            list(nodes);
+            return start;
+        }
+
+        private int block(BlockStatement block) {
+            if (block == null) {
+                return NONE;
+            }
+            int[] statements = statements(block.statements());
+            return add(NodeKind.BLOCK, block.token(), list(statements), statements.length);
+        }
+
+        private int statement(Statement statement) {
+            return switch (statement) {
+                case null -> NONE;
+                case Program program -> program(program);
+                case LetStatement let ->
+                        add(
+                                NodeKind.LET,
+                                let.token(),
+                                expression(let.identifier()),
+                                expression(let.value()));
+                case ReturnStatement ret ->
+                        add(NodeKind.RETURN, ret.token(), expression(ret.expression()), NONE);
+                case ExpressionStatement expression ->
+                        add(
+                                NodeKind.EXPRESSION_STATEMENT,
+                                expression.token(),
+                                expression(expression.expression()),
+                                NONE);
+                case BlockStatement block -> block(block);
+                default ->
+                        throw new IllegalArgumentException(
+                                "unsupported statement: " + statement.getClass().getSimpleName());
+            };
+        }
+
+        private int expression(Expression expression) {
+            return switch (expression) {
+                case null -> NONE;
+                case Identifier identifier ->
+                        add(NodeKind.IDENTIFIER, identifier.token(), NONE, identifier.symbol());
+                case IntegerLiteralExpression literal ->
+                        add(NodeKind.INTEGER, literal.token(), literal.value(), NONE);
+                case BooleanLiteralExpression literal ->
+                        add(NodeKind.BOOLEAN, literal.token(), literal.value() ? 1 : 0, NONE);
+                case PrefixExpression prefix ->
+                        add(NodeKind.PREFIX, prefix.token(), expression(prefix.right()), NONE);
+                case InfixExpression infix ->
+                        add(
+                                NodeKind.INFIX,
+                                infix.operator(),
+                                expression(infix.left()),
+                                expression(infix.right()));
+                case IfExpression ifExpression -> {
+                    int condition = expression(ifExpression.condition());
+                    int branches =
+                            list(
+                                    block(ifExpression.consequence()),
+                                    block(ifExpression.alternative()));
+                    yield add(NodeKind.IF, ifExpression.token(), condition, branches);
+                }
+                case FunctionLiteral function -> {
+                    int[] parameters = expressions(function.parameters());
+                    int body = block(function.body());
+                    yield add(
+                            NodeKind.FUNCTION, function.token(), body, countedList(parameters));
+                }
+                case CallExpression call -> {
+                    int function = expression(call.function());
+                    int[] arguments = expressions(call.arguments());
+                    yield add(NodeKind.CALL, call.token(), function, countedList(arguments));
+                }
+                default ->
+                        throw new IllegalArgumentException(
+                                "unsupported expression: "
+                                        + expression.getClass().getSimpleName());
+            };
+        }
+
+        private int add(NodeKind kind, Token token, int left, int right) {
+            if (size == kinds.length) {
+                int capacity = kinds.length * 2;
+                kinds = Arrays.copyOf(kinds, capacity);
+                tokens = Arrays.copyOf(tokens, capacity);
+                lhs = Arrays.copyOf(lhs, capacity);
+                rhs = Arrays.copyOf(rhs, capacity);
+            }
+            kinds[size] = (byte) kind.ordinal();
+            tokens[size] = token == null ? NONE : intern(token);
+            lhs[size] = left;
+            rhs[size] = right;
+            return size++;
+        }
+
+        private int intern(Token token) {
+            Integer index = tokenTable.get(token);
+            if (index == null) {
+                index = tokenTable.size();
+                tokenTable.put(token, index);
+            }
+            return index;
+        }
+    }
+}
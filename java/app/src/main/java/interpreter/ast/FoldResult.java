@@ -0,0 +1,11 @@
+package interpreter.ast;
+
+import org.apache.commons.lang3.Validate;
+
+/** A program after {@link ConstantFolder} ran over it, and how many nodes that removed. */
+public record FoldResult(Program program, int eliminatedNodes) {
+    public FoldResult {
+        Validate.notNull(program, "program should not be null");
+        Validate.isTrue(eliminatedNodes >= 0, "eliminatedNodes should not be negative");
+    }
+}
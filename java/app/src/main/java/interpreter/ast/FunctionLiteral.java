@@ -0,0 +1,17 @@
+package interpreter.ast;
+
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import java.util.List;
+import org.apache.commons.lang3.Validate;
+
+public record FunctionLiteral(Token token, List<Identifier> parameters, BlockStatement body)
+        implements Expression {
+    public FunctionLiteral {
+        Validate.notNull(token, "token should not be null");
+        Validate.noNullElements(parameters, "parameters should not contain null");
+        Validate.notNull(body, "body should not be null");
+        Validate.isTrue(TokenType.FUNCTION.equals(token.type()), "should be TokenType#FUNCTION");
+        parameters = List.copyOf(parameters);
+    }
+}
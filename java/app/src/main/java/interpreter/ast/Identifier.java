@@ -1,13 +1,53 @@
 package interpreter.ast;
 
+import interpreter.lexer.SymbolTable;
 import interpreter.token.Token;
 import interpreter.token.TokenType;
 import org.apache.commons.lang3.Validate;
 
-public record Identifier(Token token) implements Expression {
+/**
+ * A name. {@code symbol} is its id in the {@link SymbolTable} of the lexer that read it, or {@link
+ * SymbolTable#NONE} for an identifier built by hand. {@link Resolver} fills in {@code depth} and
+ * {@code slot}: how many frames out from the current one the binding lives, and its index there;
+ * both are {@link #UNRESOLVED} until then. Symbol ids from different tables say nothing about each
+ * other, and slots only mean something to the resolver that assigned them, so equality only looks
+ * at the token.
+ */
+public record Identifier(Token token, int symbol, int depth, int slot) implements Expression {
+    public static final int UNRESOLVED = -1;
+
     public Identifier {
         Validate.notNull(token, "token should not be null");
         Validate.isTrue(
                 TokenType.IDENT.equals(token.type()), "token type should be TokenType#IDENT");
+        Validate.isTrue(
+                depth == UNRESOLVED && slot == UNRESOLVED || depth >= 0 && slot >= 0,
+                "depth and slot should both be set or both be UNRESOLVED");
+    }
+
+    public Identifier(Token token) {
+        this(token, SymbolTable.NONE);
+    }
+
+    public Identifier(Token token, int symbol) {
+        this(token, symbol, UNRESOLVED, UNRESOLVED);
+    }
+
+    public Identifier resolvedTo(int depth, int slot) {
+        return new Identifier(token, symbol, depth, slot);
+    }
+
+    public boolean isResolved() {
+        return slot != UNRESOLVED;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Identifier identifier && token.equals(identifier.token);
+    }
+
+    @Override
+    public int hashCode() {
+        return token.hashCode();
     }
 }
@@ -0,0 +1,20 @@
+package interpreter.ast;
+
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import org.apache.commons.lang3.Validate;
+
+/** An {@code if}, whose {@code alternative} is null when it has no {@code else}. */
+public record IfExpression(
+        Token token,
+        Expression condition,
+        BlockStatement consequence,
+        BlockStatement alternative)
+        implements Expression {
+    public IfExpression {
+        Validate.notNull(token, "token should not be null");
+        Validate.notNull(condition, "condition should not be null");
+        Validate.notNull(consequence, "consequence should not be null");
+        Validate.isTrue(TokenType.IF.equals(token.type()), "should be TokenType#IF");
+    }
+}
@@ -0,0 +1,11 @@
+package interpreter.ast;
+
+/**
+ * Parses the rest of an expression whose operator is the parser's current token and whose left
+ * operand has already been parsed. On return the current token is the last token of the
+ * expression.
+ */
+@FunctionalInterface
+public interface InfixParseFn {
+    Expression parse(Parser parser, Expression left);
+}
@@ -0,0 +1,18 @@
+package interpreter.ast;
+
+/** The node types a {@link FlatAst} can hold, one per AST record. */
+public enum NodeKind {
+    PROGRAM,
+    LET,
+    RETURN,
+    EXPRESSION_STATEMENT,
+    IDENTIFIER,
+    INTEGER,
+    BOOLEAN,
+    PREFIX,
+    INFIX,
+    BLOCK,
+    IF,
+    FUNCTION,
+    CALL
+}
@@ -0,0 +1,131 @@
+package interpreter.ast;
+
+import interpreter.token.TokenType;
+import java.util.Arrays;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * The parse functions, precedences and associativities the {@link Parser} dispatches on, stored in
+ * one slot per {@link TokenType} and indexed by ordinal so that each step of expression parsing is
+ * a single array load.
+ *
+ * <p>Registries are immutable: the {@code with...} methods return a copy with one slot replaced,
+ * so a registry can be built once and shared by any number of parsers and threads. Embedders add
+ * operators on top of {@link #standard()}:
+ *
+ * <pre>{@code
+ * OperatorRegistry registry =
+ *         OperatorRegistry.standard()
+ *                 .withInfixOperator(TokenType.PERCENT, Precedence.PRODUCT)
+ *                 .withInfixOperator(TokenType.LT_EQ, Precedence.LESSGREATER);
+ * Parser parser = Parser.build(new Lexer("a % b <= c"), registry);
+ * }</pre>
+ */
+public final class OperatorRegistry {
+    /**
+     * The built-in parse functions for prefix operators, grouping and binary operators. The
+     * iterative expression parser recognizes them by identity and runs them on its own stack.
+     */
+    static final PrefixParseFn PREFIX_OPERATOR = Parser::parsePrefixExpression;
+    static final PrefixParseFn GROUPED = Parser::parseGroupedExpression;
+    static final InfixParseFn INFIX_OPERATOR = Parser::parseInfixExpression;
+
+    private static final OperatorRegistry STANDARD = buildStandard();
+
+    private final OperatorSlot[] slots;
+
+    private OperatorRegistry(OperatorSlot[] slots) {
+        this.slots = slots;
+    }
+
+    /** Returns a registry with no operators at all. */
+    public static OperatorRegistry empty() {
+        var slots = new OperatorSlot[TokenType.values().length];
+        Arrays.fill(slots, OperatorSlot.EMPTY);
+        return new OperatorRegistry(slots);
+    }
+
+    /** Returns the registry for the Monkey language as the default parser understands it. */
+    public static OperatorRegistry standard() {
+        return STANDARD;
+    }
+
+    private static OperatorRegistry buildStandard() {
+        return empty()
+                .withPrefix(TokenType.IDENT, Parser::parseIdentifier)
+                .withPrefix(TokenType.INT, Parser::parseIntegerLiteral)
+                .withPrefix(TokenType.TRUE, Parser::parseBooleanLiteral)
+                .withPrefix(TokenType.FALSE, Parser::parseBooleanLiteral)
+                .withPrefix(TokenType.BANG, PREFIX_OPERATOR)
+                .withPrefix(TokenType.MINUS, PREFIX_OPERATOR)
+                .withPrefix(TokenType.LPAREN, GROUPED)
+                .withPrefix(TokenType.IF, Parser::parseIfExpression)
+                .withPrefix(TokenType.FUNCTION, Parser::parseFunctionLiteral)
+                .withInfixOperator(TokenType.EQ, Precedence.EQUALS)
+                .withInfixOperator(TokenType.NOT_EQ, Precedence.EQUALS)
+                .withInfixOperator(TokenType.LT, Precedence.LESSGREATER)
+                .withInfixOperator(TokenType.GT, Precedence.LESSGREATER)
+                .withInfixOperator(TokenType.PLUS, Precedence.SUM)
+                .withInfixOperator(TokenType.MINUS, Precedence.SUM)
+                .withInfixOperator(TokenType.SLASH, Precedence.PRODUCT)
+                .withInfixOperator(TokenType.ASTERISK, Precedence.PRODUCT)
+                .withInfix(
+                        TokenType.LPAREN,
+                        Precedence.CALL,
+                        Associativity.LEFT,
+                        Parser::parseCallExpression);
+    }
+
+    public OperatorSlot slot(TokenType type) {
+        return slots[type.ordinal()];
+    }
+
+    /** The backing table, shared with parsers as is; it is never written after construction. */
+    OperatorSlot[] slots() {
+        return slots;
+    }
+
+    /** Registers the function that parses expressions starting with {@code type}. */
+    public OperatorRegistry withPrefix(TokenType type, PrefixParseFn prefix) {
+        Validate.notNull(prefix, "prefix should not be null");
+        var slot = slot(type);
+        return with(
+                type,
+                new OperatorSlot(prefix, slot.infix(), slot.precedence(), slot.associativity()));
+    }
+
+    /** Registers an infix parse function with its binding precedence and associativity. */
+    public OperatorRegistry withInfix(
+            TokenType type,
+            Precedence precedence,
+            Associativity associativity,
+            InfixParseFn infix) {
+        Validate.notNull(infix, "infix should not be null");
+        Validate.isTrue(
+                precedence != Precedence.LOWEST, "an infix operator must bind tighter than LOWEST");
+        return with(type, new OperatorSlot(slot(type).prefix(), infix, precedence, associativity));
+    }
+
+    /** Registers a left-associative binary operator that parses to an {@link InfixExpression}. */
+    public OperatorRegistry withInfixOperator(TokenType type, Precedence precedence) {
+        return withInfixOperator(type, precedence, Associativity.LEFT);
+    }
+
+    /** Registers a binary operator that parses to an {@link InfixExpression}. */
+    public OperatorRegistry withInfixOperator(
+            TokenType type, Precedence precedence, Associativity associativity) {
+        return withInfix(type, precedence, associativity, INFIX_OPERATOR);
+    }
+
+    /** Removes everything registered for {@code type}. */
+    public OperatorRegistry without(TokenType type) {
+        return with(type, OperatorSlot.EMPTY);
+    }
+
+    private OperatorRegistry with(TokenType type, OperatorSlot slot) {
+        Validate.notNull(type, "type should not be null");
+        var copy = slots.clone();
+        copy[type.ordinal()] = slot;
+        return new OperatorRegistry(copy);
+    }
+}
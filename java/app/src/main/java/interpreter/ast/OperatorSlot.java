@@ -0,0 +1,33 @@
+package interpreter.ast;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Everything the parser needs to know about one token type. Either function may be null when the
+ * token cannot start or continue an expression.
+ */
+public record OperatorSlot(
+        PrefixParseFn prefix,
+        InfixParseFn infix,
+        Precedence precedence,
+        Associativity associativity) {
+
+    static final OperatorSlot EMPTY =
+            new OperatorSlot(null, null, Precedence.LOWEST, Associativity.LEFT);
+
+    public OperatorSlot {
+        Validate.notNull(precedence, "precedence should not be null");
+        Validate.notNull(associativity, "associativity should not be null");
+    }
+
+    /**
+     * The precedence the right operand is parsed with: the operator's own for left-associative
+     * operators, one level lower for right-associative ones so an equal operator can nest.
+     */
+    Precedence rightBindingPrecedence() {
+        if (associativity == Associativity.LEFT || precedence == Precedence.LOWEST) {
+            return precedence;
+        }
+        return Precedence.values()[precedence.ordinal() - 1];
+    }
+}
@@ -0,0 +1,87 @@
+package interpreter.ast;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.concurrent.ExecutionException;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Parses sources through a bounded, thread-safe cache keyed by a 128-bit hash of the source text,
+ * so a source that has been seen before is not lexed or parsed again. Results are immutable and
+ * shared between all callers.
+ *
+ * <p>The cache is bounded by the total length of the cached sources: each entry weighs as many
+ * units as its source has characters, and least recently used entries are evicted once the
+ * maximum weight is exceeded. Concurrent requests for the same source parse it once.
+ *
+ * <p>The hash only locates an entry; a hit is confirmed by comparing the source text, so a
+ * colliding source is parsed on its own rather than answered with someone else's program.
+ */
+public final class ParseCache {
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final OperatorRegistry registry;
+    private final Cache<HashCode, Entry> cache;
+
+    private ParseCache(OperatorRegistry registry, long maximumWeight) {
+        this.registry = registry;
+        this.cache =
+                CacheBuilder.newBuilder()
+                        .maximumWeight(maximumWeight)
+                        .weigher((HashCode key, Entry entry) -> entry.source().length())
+                        .recordStats()
+                        .build();
+    }
+
+    /** Creates a cache holding at most {@code maximumWeight} characters worth of sources. */
+    public static ParseCache create(long maximumWeight) {
+        return create(maximumWeight, OperatorRegistry.standard());
+    }
+
+    public static ParseCache create(long maximumWeight, OperatorRegistry registry) {
+        Validate.isTrue(maximumWeight >= 0, "maximumWeight should not be negative");
+        Validate.notNull(registry, "registry should not be null");
+        return new ParseCache(registry, maximumWeight);
+    }
+
+    public ParseResult parse(String source) {
+        Validate.notNull(source, "source should not be null");
+        Entry entry;
+        try {
+            entry = cache.get(HASH.hashUnencodedChars(source), () -> parseUncached(source));
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+        if (!entry.source().equals(source)) {
+            return parseUncached(source).result();
+        }
+        return entry.result();
+    }
+
+    /** Returns the hit, miss, load and eviction counts since the cache was created. */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private Entry parseUncached(String source) {
+        return new Entry(source, Parser.parse(source, registry));
+    }
+
+    private record Entry(String source, ParseResult result) {}
+}
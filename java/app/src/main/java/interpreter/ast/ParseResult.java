@@ -0,0 +1,21 @@
+package interpreter.ast;
+
+import java.util.List;
+import org.apache.commons.lang3.Validate;
+
+/** A parsed program together with the diagnostics the parser reported for it. */
+public record ParseResult(Program program, List<Diagnostic> diagnostics) {
+    public ParseResult {
+        Validate.notNull(program, "program should not be null");
+        diagnostics = List.copyOf(diagnostics);
+    }
+
+    public boolean hasErrors() {
+        return !diagnostics.isEmpty();
+    }
+
+    /** Returns the message of every diagnostic, formatted now. */
+    public List<String> errors() {
+        return diagnostics.stream().map(Diagnostic::message).toList();
+    }
+}
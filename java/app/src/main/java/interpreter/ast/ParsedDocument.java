@@ -0,0 +1,205 @@
+package interpreter.ast;
+
+import interpreter.lexer.RelexedTokens;
+import interpreter.lexer.SourcePosition;
+import interpreter.lexer.TextEdit;
+import interpreter.lexer.TokenBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A parsed source that can be edited incrementally. Besides the {@link Program} it remembers, for
+ * every top-level statement, the span of tokens the parser read to produce it and the errors it
+ * reported. {@link #edit(TextEdit)} re-lexes only the damaged tokens (see {@link
+ * TokenBuffer#relex(TextEdit)}) and re-parses only the statements whose spans touch them; every
+ * other {@link Statement} is reused as is, so the work scales with the edit rather than the file.
+ *
+ * <p>A statement's parse depends on nothing but the tokens in its span, so it is reused in front
+ * of the damage when its span ends before the first changed token, and behind it once re-parsing
+ * reaches the shifted start of an old statement past the last changed token: from there on, the
+ * parser would see the same tokens and produce the same statements.
+ *
+ * <p>The program and errors always equal what a full parse of {@link #source()} would produce.
+ */
+public final class ParsedDocument {
+    private final ParserOptions options;
+    private final TokenBuffer tokens;
+    private final Spans spans;
+    private final Program program;
+    private final List<Diagnostic> diagnostics;
+
+    private ParsedDocument(ParserOptions options, TokenBuffer tokens, Spans spans) {
+        this.options = options;
+        this.tokens = tokens;
+        this.spans = spans;
+        List<Statement> statements = new ArrayList<>(spans.size);
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        for (int i = 0; i < spans.size; i++) {
+            if (spans.statements.get(i) != null) {
+                statements.add(spans.statements.get(i));
+            }
+            diagnostics.addAll(spans.diagnostics.get(i));
+        }
+        this.program = new Program(statements);
+        this.diagnostics = List.copyOf(diagnostics);
+    }
+
+    public static ParsedDocument parse(String source) {
+        return parse(source, OperatorRegistry.standard());
+    }
+
+    public static ParsedDocument parse(String source, OperatorRegistry registry) {
+        Validate.notNull(source, "source should not be null");
+        Validate.notNull(registry, "registry should not be null");
+        // Every error is kept: a capped parse would depend on errors outside the edited region.
+        var options = ParserOptions.DEFAULT.withRegistry(registry).withMaxErrors(Integer.MAX_VALUE);
+        var tokens = TokenBuffer.lex(source);
+        var spans = new Spans(16);
+        parseFrom(Parser.over(tokens.cursor(), options), spans, null, null, 0, 0);
+        return new ParsedDocument(options, tokens, spans);
+    }
+
+    /** Returns the document after applying {@code edit}; this one is left unchanged. */
+    public ParsedDocument edit(TextEdit edit) {
+        RelexedTokens relexed = tokens.relex(edit);
+
+        var next = new Spans(spans.size + 8);
+        int reused = 0;
+        while (reused < spans.size && spans.ends[reused] < relexed.firstChanged()) {
+            reused++;
+        }
+        next.copy(spans, 0, reused, 0, 0);
+
+        int position = reused == 0 ? 0 : spans.ends[reused - 1];
+        var parser = Parser.over(relexed.tokens().cursor(position), options);
+        parseFrom(parser, next, spans, relexed, reused, edit.delta());
+        return new ParsedDocument(options, relexed.tokens(), next);
+    }
+
+    /**
+     * Parses statements into {@code into} until the end of input or, when re-parsing after an
+     * edit, until the parser lands past the last changed token on the shifted start of one of the
+     * {@code old} spans from {@code oldSpan} on; that span and the ones after it are copied over,
+     * their diagnostics moved by {@code delta} characters.
+     */
+    private static void parseFrom(
+            Parser parser, Spans into, Spans old, RelexedTokens relexed, int oldSpan, int delta) {
+        while (!parser.atEnd()) {
+            int start = parser.position();
+            if (relexed != null && start >= relexed.newResume()) {
+                int oldStart = start - relexed.shift();
+                while (oldSpan < old.size && old.starts[oldSpan] < oldStart) {
+                    oldSpan++;
+                }
+                if (oldSpan < old.size && old.starts[oldSpan] == oldStart) {
+                    into.copy(old, oldSpan, old.size, relexed.shift(), delta);
+                    return;
+                }
+            }
+            int errorCount = parser.getDiagnostics().size();
+            var statement = parser.parseTopLevelStatement();
+            var diagnostics = parser.getDiagnostics();
+            into.add(
+                    start,
+                    parser.position(),
+                    statement,
+                    diagnostics.size() == errorCount
+                            ? List.of()
+                            : List.copyOf(diagnostics.subList(errorCount, diagnostics.size())));
+        }
+    }
+
+    public String source() {
+        return tokens.source();
+    }
+
+    public TokenBuffer tokens() {
+        return tokens;
+    }
+
+    public Program program() {
+        return program;
+    }
+
+    /** Returns the diagnostics of the whole document, with token indices into {@link #tokens()}. */
+    public List<Diagnostic> diagnostics() {
+        return diagnostics;
+    }
+
+    /** Returns the line and column at which {@code diagnostic}'s token starts in the source. */
+    public SourcePosition position(Diagnostic diagnostic) {
+        Validate.notNull(diagnostic, "diagnostic should not be null");
+        return tokens.lineIndex().position(diagnostic.offset());
+    }
+
+    /** Returns the message of every diagnostic, formatted now. */
+    public List<String> errors() {
+        return diagnostics.stream().map(Diagnostic::message).toList();
+    }
+
+    /**
+     * One entry per top-level statement: the index of its first token, the index of the token the
+     * parser moved on to (the last one it read), the statement or null, and its diagnostics.
+     */
+    private static final class Spans {
+        private final List<Statement> statements;
+        private final List<List<Diagnostic>> diagnostics;
+        private int[] starts;
+        private int[] ends;
+        private int size;
+
+        Spans(int capacity) {
+            starts = new int[capacity];
+            ends = new int[capacity];
+            statements = new ArrayList<>(capacity);
+            diagnostics = new ArrayList<>(capacity);
+        }
+
+        void add(int start, int end, Statement statement, List<Diagnostic> statementDiagnostics) {
+            ensureCapacity(size + 1);
+            starts[size] = start;
+            ends[size] = end;
+            statements.add(statement);
+            diagnostics.add(statementDiagnostics);
+            size++;
+        }
+
+        /**
+         * Appends the spans {@code [from, to)} of {@code other}, shifted by {@code shift} tokens;
+         * their diagnostics also move by {@code delta} characters.
+         */
+        void copy(Spans other, int from, int to, int shift, int delta) {
+            int count = to - from;
+            ensureCapacity(size + count);
+            for (int i = 0; i < count; i++) {
+                starts[size + i] = other.starts[from + i] + shift;
+                ends[size + i] = other.ends[from + i] + shift;
+            }
+            statements.addAll(other.statements.subList(from, to));
+            for (int i = from; i < to; i++) {
+                List<Diagnostic> moved = other.diagnostics.get(i);
+                if ((shift != 0 || delta != 0) && !moved.isEmpty()) {
+                    moved =
+                            moved.stream()
+                                    .map(
+                                            d ->
+                                                    d.withTokenIndex(d.tokenIndex() + shift)
+                                                            .withOffset(d.offset() + delta))
+                                    .toList();
+                }
+                diagnostics.add(moved);
+            }
+            size += count;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > starts.length) {
+                int grown = Math.max(capacity, starts.length * 2);
+                starts = Arrays.copyOf(starts, grown);
+                ends = Arrays.copyOf(ends, grown);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package interpreter.ast;
+
+import java.nio.file.Path;
+import org.apache.commons.lang3.Validate;
+
+/** The result of parsing one file of a batch. */
+public record ParsedFile(Path path, ParseResult result) {
+    public ParsedFile {
+        Validate.notNull(path, "path should not be null");
+        Validate.notNull(result, "result should not be null");
+    }
+}
@@ -1,17 +1,31 @@
 package interpreter.ast;
 
-import static interpreter.utils.PrecedenceUtils.precedenceFor;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
-import interpreter.lexer.Lexer;
+import interpreter.lexer.TokenBuffer;
+import interpreter.lexer.TokenCursor;
+import interpreter.lexer.TokenSource;
 import interpreter.token.Token;
 import interpreter.token.TokenType;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Supplier;
-import java.util.function.UnaryOperator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -19,75 +33,261 @@ import org.apache.commons.lang3.Validate;
 
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class Parser {
-    private final Lexer lexer;
-    @Getter private final List<String> errors;
-    private Token currToken;
-    private Token peekToken;
-
-    private final Map<TokenType, Supplier<Expression>> prefixParseFns =
-            Map.of(
-                    TokenType.IDENT,
-                    () -> new Identifier(currToken),
-                    TokenType.INT,
-                    () ->
-                            new IntegerLiteralExpression(
-                                    currToken, Integer.valueOf(currToken.literal())),
-                    TokenType.BANG,
-                    this::parsePrefixExpression,
-                    TokenType.MINUS,
-                    this::parsePrefixExpression,
-                    TokenType.TRUE,
-                    () ->
-                            new BooleanLiteralExpression(
-                                    currToken, Boolean.valueOf(currToken.literal())),
-                    TokenType.FALSE,
-                    () ->
-                            new BooleanLiteralExpression(
-                                    currToken, Boolean.valueOf(currToken.literal())),
-                    TokenType.LPAREN,
-                    this::parseGroupedExpression);
-
-    private final Map<TokenType, UnaryOperator<Expression>> infixParseFns =
-            Map.of(
-                    TokenType.EQ, this::parseInfixExpression,
-                    TokenType.NOT_EQ, this::parseInfixExpression,
-                    TokenType.LT, this::parseInfixExpression,
-                    TokenType.GT, this::parseInfixExpression,
-                    TokenType.PLUS, this::parseInfixExpression,
-                    TokenType.MINUS, this::parseInfixExpression,
-                    TokenType.SLASH, this::parseInfixExpression,
-                    TokenType.ASTERISK, this::parseInfixExpression);
-
-    public static Parser build(Lexer lexer) {
+    private final TokenCursor tokens;
+    private final OperatorSlot[] slots;
+    private final int maxErrors;
+    private final int maxDepth;
+    private final ExpressionMode expressionMode;
+    @Getter private final List<Diagnostic> diagnostics;
+    private int depth;
+
+    /** How many blocks the statement being parsed has opened and not yet closed. */
+    private int openBlocks;
+
+    public static Parser build(TokenSource lexer) {
+        return build(lexer, ParserOptions.DEFAULT);
+    }
+
+    /** Builds a parser that dispatches on the operators in {@code registry}. */
+    public static Parser build(TokenSource lexer, OperatorRegistry registry) {
+        Validate.notNull(registry, "registry should not be null");
+        return build(lexer, ParserOptions.DEFAULT.withRegistry(registry));
+    }
+
+    public static Parser build(TokenSource lexer, ParserOptions options) {
         Validate.notNull(lexer, "lexer should not be null");
-        Parser parser = new Parser(lexer, new ArrayList<>());
+        Validate.notNull(options, "options should not be null");
+        return over(TokenCursor.over(lexer), options);
+    }
+
+    /** Builds a parser that walks a pre-lexed {@link TokenBuffer} by index. */
+    public static Parser build(TokenBuffer tokens) {
+        return build(tokens, ParserOptions.DEFAULT);
+    }
+
+    public static Parser build(TokenBuffer tokens, OperatorRegistry registry) {
+        Validate.notNull(registry, "registry should not be null");
+        return build(tokens, ParserOptions.DEFAULT.withRegistry(registry));
+    }
+
+    public static Parser build(TokenBuffer tokens, ParserOptions options) {
+        Validate.notNull(tokens, "tokens should not be null");
+        Validate.notNull(options, "options should not be null");
+        return over(tokens.cursor(), options);
+    }
+
+    /**
+     * Reads and parses every file on its own worker, one per available processor. See {@link
+     * #parseAll(Collection, int)}.
+     */
+    public static List<ParsedFile> parseAll(Collection<Path> paths) {
+        return parseAll(paths, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Reads every file as UTF-8 and parses it on a dedicated pool of {@code parallelism} workers.
+     * The results are in the iteration order of {@code paths}, however the work was scheduled.
+     * The first file that cannot be read fails the batch with an {@link UncheckedIOException}.
+     */
+    public static List<ParsedFile> parseAll(Collection<Path> paths, int parallelism) {
+        Validate.notNull(paths, "paths should not be null");
+        Validate.noNullElements(paths, "paths should not contain null");
+        Validate.isTrue(parallelism > 0, "parallelism should be positive");
+        try (var pool = new ForkJoinPool(parallelism)) {
+            List<ForkJoinTask<ParsedFile>> tasks = new ArrayList<>(paths.size());
+            for (Path path : paths) {
+                tasks.add(pool.submit(() -> new ParsedFile(path, parse(read(path)))));
+            }
+            List<ParsedFile> results = new ArrayList<>(tasks.size());
+            for (var task : tasks) {
+                results.add(task.join());
+            }
+            return results;
+        }
+    }
+
+    private static String read(Path path) {
+        try {
+            return Files.readString(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not read " + path, e);
+        }
+    }
 
-        // Make sure currToken and peekToken are set
-        parser.nextToken();
-        parser.nextToken();
+    /** Lexes and parses a whole source with the standard operators. */
+    static ParseResult parse(String source) {
+        return parse(source, OperatorRegistry.standard());
+    }
+
+    static ParseResult parse(String source, OperatorRegistry registry) {
+        var parser = build(TokenBuffer.lex(source), registry);
+        var program = parser.parseProgram();
+        return new ParseResult(program, parser.getDiagnostics());
+    }
+
+    /** Builds a parser that starts at whatever token {@code tokens} is positioned on. */
+    static Parser over(TokenCursor tokens, ParserOptions options) {
+        return new Parser(
+                tokens,
+                options.registry().slots(),
+                options.maxErrors(),
+                options.maxDepth(),
+                options.expressionMode(),
+                new ArrayList<>());
+    }
+
+    /** Returns the message of every diagnostic, formatted now. */
+    public List<String> getErrors() {
+        return diagnostics.stream().map(Diagnostic::message).toList();
+    }
+
+    /** Moves to the next token. */
+    public void nextToken() {
+        tokens.advance();
+    }
 
-        return parser;
+    /** Returns the token the parser is positioned on. */
+    public Token currentToken() {
+        return tokens.current();
     }
 
-    private void nextToken() {
-        currToken = peekToken;
-        peekToken = lexer.nextToken();
+    public TokenType peekType() {
+        return tokens.peekType();
     }
 
+    /**
+     * Moves to the next token if it has type {@code type}; otherwise records an error and stays
+     * put.
+     */
+    public boolean expectPeek(TokenType type) {
+        if (peekIsNot(type)) {
+            return false;
+        }
+        nextToken();
+        return true;
+    }
+
+    /**
+     * Parses statements up to the end of input, or until {@link ParserOptions#maxErrors()}
+     * diagnostics have been recorded.
+     */
     public Program parseProgram() {
         List<Statement> statements = new ArrayList<>();
-        while (!TokenType.EOF.equals(currToken.type())) {
-            var statement = parseStatement();
+        parseStatements(statements::add);
+        return new Program(statements);
+    }
+
+    /**
+     * Parses the same statements as {@link #parseProgram()}, handing each to {@code sink} as soon
+     * as it is parsed instead of collecting them.
+     */
+    public void parseStatements(Consumer<? super Statement> sink) {
+        Validate.notNull(sink, "sink should not be null");
+        Statement statement;
+        while (nonNull(statement = nextStatement())) {
+            sink.accept(statement);
+        }
+    }
+
+    /**
+     * Returns the statements {@link #parseProgram()} would, parsed lazily: each {@code next()}
+     * reads only as far into the token stream as that statement reaches. Over a streaming {@link
+     * TokenSource} such as a {@code ReaderLexer}, a program of any length is parsed in memory
+     * bounded by its largest statement.
+     */
+    public Iterator<Statement> statementIterator() {
+        return new Iterator<>() {
+            private Statement next;
+
+            @Override
+            public boolean hasNext() {
+                if (isNull(next)) {
+                    next = nextStatement();
+                }
+                return nonNull(next);
+            }
+
+            @Override
+            public Statement next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Statement statement = next;
+                next = null;
+                return statement;
+            }
+        };
+    }
+
+    /** Returns the statements of {@link #statementIterator()} as a sequential, lazy stream. */
+    public Stream<Statement> statements() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(
+                        statementIterator(), Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    /**
+     * Parses top-level statements until one can be built, returning null at the end of input or
+     * once {@link ParserOptions#maxErrors()} diagnostics have been recorded.
+     */
+    private Statement nextStatement() {
+        while (!TokenType.EOF.equals(tokens.currentType()) && diagnostics.size() < maxErrors) {
+            var statement = parseTopLevelStatement();
             if (nonNull(statement)) {
-                statements.add(statement);
+                return statement;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses one statement of the program and moves past it, returning null when none could be
+     * built. It reads no token past the one it leaves the parser on.
+     */
+    Statement parseTopLevelStatement() {
+        int errorCount = diagnostics.size();
+        openBlocks = 0;
+        var statement = parseStatement();
+        if (diagnostics.size() > errorCount) {
+            synchronize();
+        }
+        nextToken();
+        return statement;
+    }
+
+    /**
+     * Panic-mode recovery after an error: skips to the end of the statement, the next {@code ;}
+     * outside the blocks it opened, or the end of input, so one mistake is reported once rather
+     * than once per leftover token. Every step advances the cursor or stops at {@code EOF}, so
+     * this always terminates.
+     */
+    private void synchronize() {
+        while (tokens.currentType() != TokenType.EOF
+                && (openBlocks > 0 || tokens.currentType() != TokenType.SEMICOLON)) {
+            switch (tokens.currentType()) {
+                case LBRACE -> openBlocks++;
+                case RBRACE -> openBlocks = Math.max(0, openBlocks - 1);
+                default -> {}
             }
             nextToken();
         }
-        return new Program(statements);
+        while (tokens.peekType() == TokenType.SEMICOLON) {
+            nextToken();
+        }
+    }
+
+    /** Returns the index of the current token in the token stream. */
+    int position() {
+        return tokens.position();
+    }
+
+    boolean atEnd() {
+        return tokens.currentType() == TokenType.EOF;
     }
 
     private Statement parseStatement() {
-        return switch (currToken.type()) {
+        return switch (tokens.currentType()) {
             case LET -> parseLetStatement();
             case RETURN -> parseReturnStatement();
             default -> parseExpressionStatement();
@@ -95,93 +295,411 @@ public class Parser {
     }
 
     private LetStatement parseLetStatement() {
+        Token letToken = tokens.current();
         if (peekIsNot(TokenType.IDENT)) {
             return null;
         }
-
-        LetStatement statement = new LetStatement(currToken, new Identifier(peekToken));
         nextToken();
+        Identifier identifier = new Identifier(tokens.current(), tokens.symbol());
 
         if (peekIsNot(TokenType.ASSIGN)) {
             return null;
         }
-        while (!currToken.type().equals(TokenType.SEMICOLON)) {
+        nextToken();
+        nextToken();
+
+        var value = parseExpression(Precedence.LOWEST);
+        if (isNull(value)) {
+            return null;
+        }
+        if (tokens.peekType().equals(TokenType.SEMICOLON)) {
             nextToken();
         }
-        return statement;
+        return new LetStatement(letToken, identifier, value);
     }
 
     private ReturnStatement parseReturnStatement() {
-        ReturnStatement statement = new ReturnStatement(currToken, null /*for now*/);
+        Token returnToken = tokens.current();
+        nextToken();
 
-        do {
+        var expression = parseExpression(Precedence.LOWEST);
+        if (isNull(expression)) {
+            return null;
+        }
+        if (tokens.peekType().equals(TokenType.SEMICOLON)) {
             nextToken();
-        } while (!currToken.type().equals(TokenType.SEMICOLON));
-        return statement;
+        }
+        return new ReturnStatement(returnToken, expression);
     }
 
     private Statement parseExpressionStatement() {
         var expression = parseExpression(Precedence.LOWEST);
-        var statement = new ExpressionStatement(currToken, expression);
+        var statement = new ExpressionStatement(tokens.current(), expression);
 
-        while (peekToken.type().equals(TokenType.SEMICOLON)) {
+        while (tokens.peekType().equals(TokenType.SEMICOLON)) {
             nextToken();
         }
         return statement;
     }
 
-    private Expression parseExpression(Precedence precedence) {
-        var prefix = prefixParseFns.get(currToken.type());
+    /**
+     * Parses an expression starting at the current token, continuing for as long as the next
+     * operator binds tighter than {@code precedence}. Returns null after recording an error when
+     * no expression starts here, when a parse function returns null for a part of it, or when it
+     * is nested deeper than {@link ParserOptions#maxDepth()}. Every call, and every operand or
+     * group the iterative mode opens on its stack, is one level.
+     */
+    public Expression parseExpression(Precedence precedence) {
+        if (depth == maxDepth) {
+            report(
+                    Diagnostic.nestingTooDeep(
+                            tokens.position(), tokens.offset(), tokens.currentType()));
+            return null;
+        }
+        depth++;
+        try {
+            return expressionMode == ExpressionMode.ITERATIVE
+                    ? parseExpressionIteratively(precedence)
+                    : parseExpressionRecursively(precedence);
+        } finally {
+            depth--;
+        }
+    }
+
+    private Expression parseExpressionRecursively(Precedence precedence) {
+        var prefix = slots[tokens.currentType().ordinal()].prefix();
         if (isNull(prefix)) {
-            noPrefixParseFnError(currToken.type());
+            report(
+                    Diagnostic.noPrefixParseFn(
+                            tokens.position(), tokens.offset(), tokens.currentType()));
             return null;
         }
-        var leftExpression = prefix.get();
+        var leftExpression = prefix.parse(this);
 
-        while (!peekToken.type().equals(TokenType.SEMICOLON)
-                && precedence.ordinal() < precedenceFor(peekToken.type()).ordinal()) {
-            UnaryOperator<Expression> infixParseFunction = infixParseFns.get(peekToken.type());
-            if (isNull(infixParseFunction)) {
+        while (nonNull(leftExpression) && tokens.peekType() != TokenType.SEMICOLON) {
+            OperatorSlot slot = slots[tokens.peekType().ordinal()];
+            if (precedence.ordinal() >= slot.precedence().ordinal() || isNull(slot.infix())) {
                 return leftExpression;
             }
             nextToken();
-            leftExpression = infixParseFunction.apply(leftExpression);
+            leftExpression = slot.infix().parse(this, leftExpression);
         }
 
         return leftExpression;
     }
 
-    private Expression parsePrefixExpression() {
-        Token prefixOperator = currToken;
+    /**
+     * The same grammar as {@link #parseExpressionRecursively(Precedence)}, with the recursion
+     * through the built-in prefix operator, grouping and infix operator functions replaced by a
+     * stack of pending frames. A frame is opened wherever the recursive parser would call {@link
+     * #parseExpression(Precedence)}, and completed with the node that call's caller would build,
+     * so both modes produce the same tree and the same diagnostics.
+     */
+    private Expression parseExpressionIteratively(Precedence precedence) {
+        int baseDepth = depth;
+        Deque<Frame> pending = new ArrayDeque<>();
+        Frame frame = new Frame(FrameKind.ROOT, precedence, null, null);
+        try {
+            while (true) {
+                // The current token starts the operand of `frame`.
+                var prefix = slots[tokens.currentType().ordinal()].prefix();
+                if (prefix == OperatorRegistry.PREFIX_OPERATOR
+                        || prefix == OperatorRegistry.GROUPED) {
+                    Token token =
+                            prefix == OperatorRegistry.PREFIX_OPERATOR ? tokens.current() : null;
+                    nextToken();
+                    if (!enterFrame()) {
+                        return null;
+                    }
+                    pending.push(frame);
+                    frame =
+                            token != null
+                                    ? new Frame(FrameKind.PREFIX, Precedence.PREFIX, token, null)
+                                    : new Frame(FrameKind.GROUP, Precedence.LOWEST, null, null);
+                    continue;
+                }
+                if (isNull(prefix)) {
+                    report(
+                            Diagnostic.noPrefixParseFn(
+                                    tokens.position(), tokens.offset(), tokens.currentType()));
+                    return null;
+                }
+                Expression left = prefix.parse(this);
+
+                // Extend `left` while the next operator binds tighter than `frame` allows, then
+                // hand the finished operand to the enclosing frame.
+                while (true) {
+                    if (isNull(left)) {
+                        return null;
+                    }
+                    OperatorSlot slot = slots[tokens.peekType().ordinal()];
+                    if (tokens.peekType() != TokenType.SEMICOLON
+                            && frame.precedence().ordinal() < slot.precedence().ordinal()
+                            && nonNull(slot.infix())) {
+                        nextToken();
+                        if (slot.infix() != OperatorRegistry.INFIX_OPERATOR) {
+                            left = slot.infix().parse(this, left);
+                            continue;
+                        }
+                        Token operator = tokens.current();
+                        nextToken();
+                        if (!enterFrame()) {
+                            return null;
+                        }
+                        pending.push(frame);
+                        frame =
+                                new Frame(
+                                        FrameKind.INFIX,
+                                        slot.rightBindingPrecedence(),
+                                        operator,
+                                        left);
+                        break;
+                    }
+                    switch (frame.kind()) {
+                        case ROOT -> {
+                            return left;
+                        }
+                        case PREFIX -> left = new PrefixExpression(frame.token(), left);
+                        case INFIX -> left = new InfixExpression(frame.left(), frame.token(), left);
+                        case GROUP -> {
+                            if (peekIsNot(TokenType.RPAREN)) {
+                                return null;
+                            }
+                            nextToken();
+                        }
+                    }
+                    depth--;
+                    frame = pending.pop();
+                }
+            }
+        } finally {
+            depth = baseDepth;
+        }
+    }
+
+    private boolean enterFrame() {
+        if (depth == maxDepth) {
+            report(
+                    Diagnostic.nestingTooDeep(
+                            tokens.position(), tokens.offset(), tokens.currentType()));
+            return false;
+        }
+        depth++;
+        return true;
+    }
+
+    private enum FrameKind {
+        ROOT,
+        PREFIX,
+        GROUP,
+        INFIX
+    }
+
+    /**
+     * An expression the iterative parser has started but not finished: the operand it is parsing
+     * binds tighter than {@code precedence}; {@code token} is the prefix or infix operator and
+     * {@code left} the infix operator's left operand.
+     */
+    private record Frame(FrameKind kind, Precedence precedence, Token token, Expression left) {}
+
+    Expression parseIdentifier() {
+        return new Identifier(tokens.current(), tokens.symbol());
+    }
+
+    Expression parseIntegerLiteral() {
+        Token token = tokens.current();
+        try {
+            return new IntegerLiteralExpression(token, Integer.valueOf(token.literal()));
+        } catch (NumberFormatException e) {
+            report(
+                    Diagnostic.integerOutOfRange(
+                            tokens.position(), tokens.offset(), token.literal()));
+            return null;
+        }
+    }
+
+    Expression parseBooleanLiteral() {
+        Token token = tokens.current();
+        return new BooleanLiteralExpression(token, Boolean.valueOf(token.literal()));
+    }
+
+    Expression parsePrefixExpression() {
+        Token prefixOperator = tokens.current();
 
         nextToken();
 
         Expression rightExpression = parseExpression(Precedence.PREFIX);
-
+        if (isNull(rightExpression)) {
+            return null;
+        }
         return new PrefixExpression(prefixOperator, rightExpression);
     }
 
-    private Expression parseInfixExpression(Expression left) {
-        Token operator = currToken;
-        Precedence precedence = precedenceFor(operator.type());
+    Expression parseInfixExpression(Expression left) {
+        Token operator = tokens.current();
+        Precedence precedence = slots[operator.type().ordinal()].rightBindingPrecedence();
         nextToken();
         Expression right = parseExpression(precedence);
+        if (isNull(right)) {
+            return null;
+        }
         return new InfixExpression(left, operator, right);
     }
 
-    private Expression parseGroupedExpression() {
+    Expression parseIfExpression() {
+        Token token = tokens.current();
+        if (peekIsNot(TokenType.LPAREN)) {
+            return null;
+        }
         nextToken();
-        var expression = parseExpression(Precedence.LOWEST);
+        nextToken();
+        var condition = parseExpression(Precedence.LOWEST);
+        if (isNull(condition) || peekIsNot(TokenType.RPAREN)) {
+            return null;
+        }
+        nextToken();
+        if (peekIsNot(TokenType.LBRACE)) {
+            return null;
+        }
+        nextToken();
+        var consequence = parseBlockStatement();
+        if (isNull(consequence)) {
+            return null;
+        }
+        BlockStatement alternative = null;
+        if (tokens.peekType() == TokenType.ELSE) {
+            nextToken();
+            if (peekIsNot(TokenType.LBRACE)) {
+                return null;
+            }
+            nextToken();
+            alternative = parseBlockStatement();
+            if (isNull(alternative)) {
+                return null;
+            }
+        }
+        return new IfExpression(token, condition, consequence, alternative);
+    }
 
+    Expression parseFunctionLiteral() {
+        Token token = tokens.current();
+        if (peekIsNot(TokenType.LPAREN)) {
+            return null;
+        }
+        nextToken();
+        var parameters = parseFunctionParameters();
+        if (isNull(parameters) || peekIsNot(TokenType.LBRACE)) {
+            return null;
+        }
+        nextToken();
+        var body = parseBlockStatement();
+        if (isNull(body)) {
+            return null;
+        }
+        return new FunctionLiteral(token, parameters, body);
+    }
+
+    /** Parses {@code (a, b, ...)} from its {@code LPAREN}, leaving the parser on the RPAREN. */
+    private List<Identifier> parseFunctionParameters() {
+        List<Identifier> parameters = new ArrayList<>();
+        if (tokens.peekType() == TokenType.RPAREN) {
+            nextToken();
+            return parameters;
+        }
+        if (peekIsNot(TokenType.IDENT)) {
+            return null;
+        }
+        nextToken();
+        parameters.add(new Identifier(tokens.current(), tokens.symbol()));
+        while (tokens.peekType() == TokenType.COMMA) {
+            nextToken();
+            if (peekIsNot(TokenType.IDENT)) {
+                return null;
+            }
+            nextToken();
+            parameters.add(new Identifier(tokens.current(), tokens.symbol()));
+        }
         if (peekIsNot(TokenType.RPAREN)) {
             return null;
         }
         nextToken();
+        return parameters;
+    }
+
+    Expression parseCallExpression(Expression function) {
+        Token token = tokens.current();
+        List<Expression> arguments = new ArrayList<>();
+        if (tokens.peekType() == TokenType.RPAREN) {
+            nextToken();
+            return new CallExpression(function, token, arguments);
+        }
+        nextToken();
+        var argument = parseExpression(Precedence.LOWEST);
+        if (isNull(argument)) {
+            return null;
+        }
+        arguments.add(argument);
+        while (tokens.peekType() == TokenType.COMMA) {
+            nextToken();
+            nextToken();
+            argument = parseExpression(Precedence.LOWEST);
+            if (isNull(argument)) {
+                return null;
+            }
+            arguments.add(argument);
+        }
+        if (peekIsNot(TokenType.RPAREN)) {
+            return null;
+        }
+        nextToken();
+        return new CallExpression(function, token, arguments);
+    }
+
+    /**
+     * Parses the statements from the current {@code LBRACE} up to its {@code RBRACE}, leaving the
+     * parser on the latter. Returns null as soon as one of them fails; the enclosing top-level
+     * statement then recovers past the blocks still open.
+     */
+    private BlockStatement parseBlockStatement() {
+        Token token = tokens.current();
+        openBlocks++;
+        nextToken();
+        List<Statement> statements = new ArrayList<>();
+        while (tokens.currentType() != TokenType.RBRACE) {
+            if (tokens.currentType() == TokenType.EOF) {
+                report(
+                        Diagnostic.unexpectedToken(
+                                tokens.position(),
+                                tokens.offset(),
+                                TokenType.RBRACE,
+                                TokenType.EOF));
+                return null;
+            }
+            int errorCount = diagnostics.size();
+            var statement = parseStatement();
+            if (isNull(statement) || diagnostics.size() > errorCount) {
+                return null;
+            }
+            statements.add(statement);
+            nextToken();
+        }
+        openBlocks--;
+        return new BlockStatement(token, statements);
+    }
+
+    Expression parseGroupedExpression() {
+        nextToken();
+        var expression = parseExpression(Precedence.LOWEST);
+
+        if (isNull(expression) || peekIsNot(TokenType.RPAREN)) {
+            return null;
+        }
+        nextToken();
         return expression;
     }
 
     private boolean peekIsNot(TokenType peekType) {
-        if (peekType.equals(peekToken.type())) {
+        if (peekType.equals(tokens.peekType())) {
             return false;
         } else {
             peekError(peekType);
@@ -190,12 +708,18 @@ public class Parser {
     }
 
     private void peekError(TokenType expectedTokenType) {
-        errors.add(
-                "expecting next token to be %s, got %s instead"
-                        .formatted(expectedTokenType, peekToken.type()));
+        report(
+                Diagnostic.unexpectedToken(
+                        tokens.position() + 1,
+                        tokens.peekOffset(),
+                        expectedTokenType,
+                        tokens.peekType()));
     }
 
-    private void noPrefixParseFnError(TokenType prefixToken) {
-        errors.add("no prefix parse function found for type: %s".formatted(prefixToken));
+    /** Records {@code diagnostic} unless the error cap has been reached. */
+    public void report(Diagnostic diagnostic) {
+        if (diagnostics.size() < maxErrors) {
+            diagnostics.add(diagnostic);
+        }
     }
 }
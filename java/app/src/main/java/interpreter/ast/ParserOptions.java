@@ -0,0 +1,27 @@
+package interpreter.ast;
+
+import lombok.With;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Settings for a {@link Parser}. Parsing stops once {@code maxErrors} diagnostics have been
+ * recorded, so malformed input cannot produce an unbounded error list. An expression nested more
+ * than {@code maxDepth} levels deep is rejected with {@link DiagnosticCode#NESTING_TOO_DEEP}; the
+ * default keeps {@link ExpressionMode#RECURSIVE} parsing well within a default thread stack. The
+ * limit bounds nesting, not the height of the tree: a chain of left-associative operators parses
+ * at a constant depth however long it is, but builds a tree as deep as the chain, which the
+ * recursive walks over the AST can still overflow the stack on.
+ */
+@With
+public record ParserOptions(
+        OperatorRegistry registry, int maxErrors, int maxDepth, ExpressionMode expressionMode) {
+    public static final ParserOptions DEFAULT =
+            new ParserOptions(OperatorRegistry.standard(), 100, 512, ExpressionMode.RECURSIVE);
+
+    public ParserOptions {
+        Validate.notNull(registry, "registry should not be null");
+        Validate.isTrue(maxErrors > 0, "maxErrors should be positive");
+        Validate.isTrue(maxDepth > 0, "maxDepth should be positive");
+        Validate.notNull(expressionMode, "expressionMode should not be null");
+    }
+}
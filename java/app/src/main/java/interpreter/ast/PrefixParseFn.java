@@ -0,0 +1,10 @@
+package interpreter.ast;
+
+/**
+ * Parses an expression that starts at the parser's current token. On return the current token is
+ * the last token of the expression.
+ */
+@FunctionalInterface
+public interface PrefixParseFn {
+    Expression parse(Parser parser);
+}
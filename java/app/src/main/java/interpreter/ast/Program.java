@@ -1,5 +1,11 @@
 package interpreter.ast;
 
 import java.util.List;
+import org.apache.commons.lang3.Validate;
 
-public record Program(List<Statement> statements) implements Statement {}
+public record Program(List<Statement> statements) implements Statement {
+    public Program {
+        Validate.notNull(statements, "statements should not be null");
+        statements = List.copyOf(statements);
+    }
+}
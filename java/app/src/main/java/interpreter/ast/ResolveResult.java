@@ -0,0 +1,21 @@
+package interpreter.ast;
+
+import java.util.List;
+import org.apache.commons.lang3.Validate;
+
+/** A program whose identifiers {@link Resolver} bound to slots, and the names it could not bind. */
+public record ResolveResult(Program program, List<Diagnostic> diagnostics) {
+    public ResolveResult {
+        Validate.notNull(program, "program should not be null");
+        diagnostics = List.copyOf(diagnostics);
+    }
+
+    public boolean hasErrors() {
+        return !diagnostics.isEmpty();
+    }
+
+    /** Returns the message of every diagnostic, formatted now. */
+    public List<String> errors() {
+        return diagnostics.stream().map(Diagnostic::message).toList();
+    }
+}
@@ -0,0 +1,212 @@
+package interpreter.ast;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Binds every name to the frame slot that holds it, so that evaluation indexes arrays instead of
+ * hashing names. Each {@code let} gets a slot in the scope it appears in, the same one every time
+ * the name is bound there again, and each use becomes an {@link Identifier} carrying the depth and
+ * slot of the nearest binding before it. A use with no such binding is reported as {@link
+ * DiagnosticCode#UNRESOLVED_IDENTIFIER} and left unresolved; evaluating it still fails the way it
+ * always has.
+ *
+ * <p>A function literal opens a frame of its own, with its parameters in the first slots and its
+ * {@code let}s after them; blocks share the frame they appear in. A function body runs after the
+ * code around it, so a name it uses before any binding of it is looked up the way a call would
+ * find it: in the nearest enclosing function that binds it further down, else as a global defined
+ * later, which gets a global slot instead of a diagnostic. That keeps forward references and
+ * mutual recursion between local functions working. A {@code let} whose value is a function
+ * literal binds its name before the literal is resolved, so the function can call itself.
+ *
+ * <p>Global slots outlive a call, so a REPL resolves each line with the same resolver and
+ * evaluates it in the same environment. A resolver is not thread-safe.
+ */
+public final class Resolver {
+    private final Scope globals = new Scope(null);
+    private List<Diagnostic> diagnostics;
+
+    public ResolveResult resolve(Program program) {
+        Validate.notNull(program, "program should not be null");
+        diagnostics = new ArrayList<>();
+        Program resolved = program(program, globals);
+        return new ResolveResult(resolved, diagnostics);
+    }
+
+    /** Returns how many global slots have been assigned so far. */
+    public int globalCount() {
+        return globals.slots.size();
+    }
+
+    private Program program(Program program, Scope scope) {
+        List<Statement> statements = new ArrayList<>(program.statements().size());
+        for (Statement statement : program.statements()) {
+            statements.add(statement(statement, scope));
+        }
+        return new Program(statements);
+    }
+
+    private Statement statement(Statement statement, Scope scope) {
+        return switch (statement) {
+            case LetStatement let -> {
+                String name = let.identifier().token().literal();
+                // Otherwise the value is resolved first: in `let x = x + 1` it still sees the old
+                // binding.
+                int slot = let.value() instanceof FunctionLiteral ? scope.define(name) : -1;
+                Expression value = expression(let.value(), scope);
+                if (slot < 0) {
+                    slot = scope.define(name);
+                }
+                yield new LetStatement(let.token(), let.identifier().resolvedTo(0, slot), value);
+            }
+            case ReturnStatement ret ->
+                    new ReturnStatement(ret.token(), expression(ret.expression(), scope));
+            case ExpressionStatement expression ->
+                    new ExpressionStatement(
+                            expression.token(), expression(expression.expression(), scope));
+            case Program program -> program(program, scope);
+            case BlockStatement block -> block(block, scope);
+            default -> statement;
+        };
+    }
+
+    private BlockStatement block(BlockStatement block, Scope scope) {
+        if (block == null) {
+            return null;
+        }
+        List<Statement> statements = new ArrayList<>(block.statements().size());
+        for (Statement statement : block.statements()) {
+            statements.add(statement(statement, scope));
+        }
+        return new BlockStatement(block.token(), statements);
+    }
+
+    private FunctionLiteral function(FunctionLiteral function, Scope scope) {
+        Scope frame = new Scope(scope);
+        declareLets(function.body(), frame.declared);
+        List<Identifier> parameters = new ArrayList<>(function.parameters().size());
+        for (Identifier parameter : function.parameters()) {
+            int slot = frame.define(parameter.token().literal());
+            parameters.add(parameter.resolvedTo(0, slot));
+        }
+        return new FunctionLiteral(function.token(), parameters, block(function.body(), frame));
+    }
+
+    private Expression expression(Expression expression, Scope scope) {
+        return switch (expression) {
+            case Identifier identifier -> use(identifier, scope);
+            case PrefixExpression prefix ->
+                    new PrefixExpression(prefix.token(), expression(prefix.right(), scope));
+            case InfixExpression infix ->
+                    new InfixExpression(
+                            expression(infix.left(), scope),
+                            infix.operator(),
+                            expression(infix.right(), scope));
+            case IfExpression ifExpression ->
+                    new IfExpression(
+                            ifExpression.token(),
+                            expression(ifExpression.condition(), scope),
+                            block(ifExpression.consequence(), scope),
+                            block(ifExpression.alternative(), scope));
+            case FunctionLiteral function -> function(function, scope);
+            case CallExpression call -> {
+                Expression function = expression(call.function(), scope);
+                List<Expression> arguments = new ArrayList<>(call.arguments().size());
+                for (Expression argument : call.arguments()) {
+                    arguments.add(expression(argument, scope));
+                }
+                yield new CallExpression(function, call.token(), arguments);
+            }
+            case null, default -> expression;
+        };
+    }
+
+    /** Collects the names {@code let} binds in the frame of {@code statement}. */
+    private static void declareLets(Statement statement, Set<String> names) {
+        switch (statement) {
+            case LetStatement let -> {
+                names.add(let.identifier().token().literal());
+                declareLets(let.value(), names);
+            }
+            case ReturnStatement ret -> declareLets(ret.expression(), names);
+            case ExpressionStatement expression -> declareLets(expression.expression(), names);
+            case BlockStatement block -> {
+                for (Statement inner : block.statements()) {
+                    declareLets(inner, names);
+                }
+            }
+            case null, default -> {}
+        }
+    }
+
+    /** Looks for blocks inside {@code expression}, but not inside nested functions. */
+    private static void declareLets(Expression expression, Set<String> names) {
+        switch (expression) {
+            case PrefixExpression prefix -> declareLets(prefix.right(), names);
+            case InfixExpression infix -> {
+                declareLets(infix.left(), names);
+                declareLets(infix.right(), names);
+            }
+            case IfExpression ifExpression -> {
+                declareLets(ifExpression.condition(), names);
+                declareLets(ifExpression.consequence(), names);
+                declareLets(ifExpression.alternative(), names);
+            }
+            case CallExpression call -> {
+                declareLets(call.function(), names);
+                call.arguments().forEach(argument -> declareLets(argument, names));
+            }
+            case null, default -> {}
+        }
+    }
+
+    private Identifier use(Identifier identifier, Scope scope) {
+        String name = identifier.token().literal();
+        int depth = 0;
+        for (Scope current = scope; current != null; current = current.parent) {
+            Integer slot = current.slots.get(name);
+            if (slot != null) {
+                return identifier.resolvedTo(depth, slot);
+            }
+            // An enclosing function has finished binding its names by the time this body runs.
+            if (depth > 0 && current.declared.contains(name)) {
+                return identifier.resolvedTo(depth, current.define(name));
+            }
+            depth++;
+        }
+        if (scope != globals) {
+            return identifier.resolvedTo(depth - 1, globals.define(name));
+        }
+        diagnostics.add(Diagnostic.unresolvedIdentifier(name));
+        return identifier.isResolved()
+                ? new Identifier(identifier.token(), identifier.symbol())
+                : identifier;
+    }
+
+    /** The slots of one frame, by name. */
+    private static final class Scope {
+        private final Scope parent;
+        private final Map<String, Integer> slots = new HashMap<>();
+
+        /** The names the frame's {@code let}s bind, whether or not resolution has reached them. */
+        private final Set<String> declared = new HashSet<>();
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        int define(String name) {
+            Integer slot = slots.get(name);
+            if (slot == null) {
+                slot = slots.size();
+                slots.put(name, slot);
+            }
+            return slot;
+        }
+    }
+}
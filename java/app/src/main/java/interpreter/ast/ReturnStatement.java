@@ -7,7 +7,7 @@ import org.apache.commons.lang3.Validate;
 public record ReturnStatement(Token token, Expression expression) implements Statement {
     public ReturnStatement {
         Validate.notNull(token, "token should not be null");
-        //        Validate.notNull(expression, "expression should not be null"); for now
+        Validate.notNull(expression, "expression should not be null");
         Validate.isTrue(TokenType.RETURN.equals(token.type()), "should be TokenType#Return");
     }
 }
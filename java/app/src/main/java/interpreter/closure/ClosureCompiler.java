@@ -0,0 +1,367 @@
+package interpreter.closure;
+
+import interpreter.ast.BlockStatement;
+import interpreter.ast.BooleanLiteralExpression;
+import interpreter.ast.CallExpression;
+import interpreter.ast.Expression;
+import interpreter.ast.ExpressionStatement;
+import interpreter.ast.FunctionLiteral;
+import interpreter.ast.Identifier;
+import interpreter.ast.IfExpression;
+import interpreter.ast.InfixExpression;
+import interpreter.ast.IntegerLiteralExpression;
+import interpreter.ast.LetStatement;
+import interpreter.ast.PrefixExpression;
+import interpreter.ast.Program;
+import interpreter.ast.ReturnStatement;
+import interpreter.ast.Statement;
+import interpreter.eval.BooleanValue;
+import interpreter.eval.CallLoop;
+import interpreter.eval.Environment;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.Evaluator;
+import interpreter.eval.FunctionValue;
+import interpreter.eval.IntegerValue;
+import interpreter.eval.NullValue;
+import interpreter.eval.ReturnValue;
+import interpreter.eval.Value;
+import interpreter.token.Token;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Compiles the AST into a tree of {@link Code} closures, once, so that running a program only
+ * calls them: every decision the evaluator makes on the shape of a node, such as which operator an
+ * infix expression applies, is made while compiling. Each arithmetic and comparison operator gets
+ * a closure of its own with a fast path for integers, and operators over literals are folded.
+ * Nothing is generated or loaded at run time.
+ *
+ * <p>Results, errors and tail calls are those of the {@link Evaluator}. A compiler keeps the
+ * bodies of the function literals it compiled, so functions defined by one program can be called
+ * from the next. It is not thread-safe, and neither are the programs it compiled.
+ */
+public class ClosureCompiler {
+    private final Map<FunctionLiteral, Code> bodies = new IdentityHashMap<>();
+    private final CallLoop<Code> calls = new CallLoop<>(Code::execute);
+
+    public ClosureProgram compile(Program program) {
+        Validate.notNull(program, "program should not be null");
+        return new ClosureProgram(program(program));
+    }
+
+    private Code program(Program program) {
+        Code block = block(program.statements(), false);
+        return frame -> {
+            Value result = block.execute(frame);
+            return result instanceof ReturnValue returnValue ? returnValue.value() : result;
+        };
+    }
+
+    /** Compiles statements that run up to the first that returns or fails. */
+    private Code block(List<Statement> statements, boolean tail) {
+        Code[] codes = new Code[statements.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = statement(statements.get(i), tail);
+        }
+        if (codes.length == 1) {
+            return codes[0];
+        }
+        return frame -> {
+            Value result = NullValue.NULL;
+            for (Code code : codes) {
+                result = code.execute(frame);
+                if (result instanceof ReturnValue || result instanceof ErrorValue) {
+                    return result;
+                }
+            }
+            return result;
+        };
+    }
+
+    private Code statement(Statement statement, boolean tail) {
+        return switch (statement) {
+            case ExpressionStatement expressionStatement ->
+                    tail && expressionStatement.expression() instanceof IfExpression ifExpression
+                            ? ifExpression(ifExpression, true)
+                            : expression(expressionStatement.expression());
+            case LetStatement letStatement -> let(letStatement);
+            case ReturnStatement returnStatement -> {
+                if (tail && returnStatement.expression() instanceof CallExpression call) {
+                    yield new Call(call, true);
+                }
+                Code value = expression(returnStatement.expression());
+                yield frame -> {
+                    Value result = value.execute(frame);
+                    return result instanceof ErrorValue ? result : new ReturnValue(result);
+                };
+            }
+            case Program program -> program(program);
+            case BlockStatement block -> block(block.statements(), tail);
+            default ->
+                    new Code.Constant(
+                            new ErrorValue("unknown statement: %s".formatted(statement)));
+        };
+    }
+
+    private Code let(LetStatement letStatement) {
+        Code value = expression(letStatement.value());
+        Identifier identifier = letStatement.identifier();
+        if (identifier.isResolved()) {
+            int depth = identifier.depth();
+            int slot = identifier.slot();
+            return frame -> {
+                Value result = value.execute(frame);
+                if (result instanceof ErrorValue) {
+                    return result;
+                }
+                frame.set(depth, slot, result);
+                return NullValue.NULL;
+            };
+        }
+        int symbol = identifier.symbol();
+        String name = identifier.token().literal();
+        return frame -> {
+            Value result = value.execute(frame);
+            if (result instanceof ErrorValue) {
+                return result;
+            }
+            frame.set(symbol, name, result);
+            return NullValue.NULL;
+        };
+    }
+
+    private Code expression(Expression expression) {
+        return switch (expression) {
+            case IntegerLiteralExpression integer ->
+                    new Code.Constant(IntegerValue.of(integer.value()));
+            case BooleanLiteralExpression bool -> new Code.Constant(BooleanValue.of(bool.value()));
+            case Identifier identifier -> identifier(identifier);
+            case PrefixExpression prefix -> prefix(prefix.token(), expression(prefix.right()));
+            case InfixExpression infix ->
+                    infix(infix.operator(), expression(infix.left()), expression(infix.right()));
+            case IfExpression ifExpression -> ifExpression(ifExpression, false);
+            case FunctionLiteral function -> {
+                body(function);
+                yield frame -> FunctionValue.closure(function, frame);
+            }
+            case CallExpression call -> new Call(call, false);
+            case null -> new Code.Constant(NullValue.NULL);
+            default ->
+                    new Code.Constant(
+                            new ErrorValue("unknown expression: %s".formatted(expression)));
+        };
+    }
+
+    private static Code identifier(Identifier identifier) {
+        String name = identifier.token().literal();
+        ErrorValue notFound = new ErrorValue("identifier not found: %s".formatted(name));
+        if (identifier.isResolved()) {
+            int depth = identifier.depth();
+            int slot = identifier.slot();
+            return frame -> {
+                Value value = frame.get(depth, slot);
+                return value != null ? value : notFound;
+            };
+        }
+        int symbol = identifier.symbol();
+        return frame -> {
+            Value value = frame.get(symbol, name);
+            return value != null ? value : notFound;
+        };
+    }
+
+    private static Code prefix(Token operator, Code right) {
+        if (right instanceof Code.Constant constant && !(constant.value() instanceof ErrorValue)) {
+            return new Code.Constant(Evaluator.evalPrefixExpression(operator, constant.value()));
+        }
+        return switch (operator.type()) {
+            case MINUS ->
+                    frame -> {
+                        Value value = right.execute(frame);
+                        if (value instanceof IntegerValue integer) {
+                            return IntegerValue.of(-integer.value());
+                        }
+                        return applyPrefix(operator, value);
+                    };
+            case BANG ->
+                    frame -> {
+                        Value value = right.execute(frame);
+                        if (value instanceof BooleanValue bool) {
+                            return BooleanValue.of(!bool.value());
+                        }
+                        return applyPrefix(operator, value);
+                    };
+            default -> frame -> applyPrefix(operator, right.execute(frame));
+        };
+    }
+
+    private static Value applyPrefix(Token operator, Value right) {
+        if (right instanceof ErrorValue) {
+            return right;
+        }
+        return Evaluator.evalPrefixExpression(operator, right);
+    }
+
+    /** Compiles an infix operator, which evaluates its right operand only if the left one is ok. */
+    private static Code infix(Token operator, Code left, Code right) {
+        if (left instanceof Code.Constant l
+                && right instanceof Code.Constant r
+                && !(l.value() instanceof ErrorValue)
+                && !(r.value() instanceof ErrorValue)) {
+            return new Code.Constant(Evaluator.evalInfixExpression(operator, l.value(), r.value()));
+        }
+        return switch (operator.type()) {
+            case PLUS -> arithmetic(operator, left, right, Integer::sum, b -> true);
+            case MINUS -> arithmetic(operator, left, right, (a, b) -> a - b, b -> true);
+            case ASTERISK -> arithmetic(operator, left, right, (a, b) -> a * b, b -> true);
+            case SLASH -> arithmetic(operator, left, right, (a, b) -> a / b, b -> b != 0);
+            case LT -> comparison(operator, left, right, order -> order < 0);
+            case GT -> comparison(operator, left, right, order -> order > 0);
+            case EQ -> comparison(operator, left, right, order -> order == 0);
+            case NOT_EQ -> comparison(operator, left, right, order -> order != 0);
+            default ->
+                    frame -> {
+                        Value l = left.execute(frame);
+                        if (l instanceof ErrorValue) {
+                            return l;
+                        }
+                        return applyInfix(operator, l, right.execute(frame));
+                    };
+        };
+    }
+
+    /**
+     * Compiles an arithmetic operator, which applies {@code operation} itself to two integers
+     * whose right one passes {@code defined}.
+     */
+    private static Code arithmetic(
+            Token operator,
+            Code left,
+            Code right,
+            IntBinaryOperator operation,
+            IntPredicate defined) {
+        return frame -> {
+            Value l = left.execute(frame);
+            if (l instanceof ErrorValue) {
+                return l;
+            }
+            Value r = right.execute(frame);
+            if (l instanceof IntegerValue a
+                    && r instanceof IntegerValue b
+                    && defined.test(b.value())) {
+                return IntegerValue.of(operation.applyAsInt(a.value(), b.value()));
+            }
+            return applyInfix(operator, l, r);
+        };
+    }
+
+    /**
+     * Compiles a comparison, which for two integers tests their {@link Integer#compare order}
+     * with {@code holds} itself.
+     */
+    private static Code comparison(Token operator, Code left, Code right, IntPredicate holds) {
+        return frame -> {
+            Value l = left.execute(frame);
+            if (l instanceof ErrorValue) {
+                return l;
+            }
+            Value r = right.execute(frame);
+            if (l instanceof IntegerValue a && r instanceof IntegerValue b) {
+                return BooleanValue.of(holds.test(Integer.compare(a.value(), b.value())));
+            }
+            return applyInfix(operator, l, r);
+        };
+    }
+
+    private static Value applyInfix(Token operator, Value left, Value right) {
+        if (right instanceof ErrorValue) {
+            return right;
+        }
+        return Evaluator.evalInfixExpression(operator, left, right);
+    }
+
+    private Code ifExpression(IfExpression ifExpression, boolean tail) {
+        Code condition = expression(ifExpression.condition());
+        Code consequence = block(ifExpression.consequence().statements(), tail);
+        Code alternative =
+                ifExpression.alternative() != null
+                        ? block(ifExpression.alternative().statements(), tail)
+                        : new Code.Constant(NullValue.NULL);
+        if (condition instanceof Code.Constant constant
+                && !(constant.value() instanceof ErrorValue)) {
+            return Evaluator.isTruthy(constant.value()) ? consequence : alternative;
+        }
+        return frame -> {
+            Value value = condition.execute(frame);
+            if (value instanceof ErrorValue) {
+                return value;
+            }
+            return Evaluator.isTruthy(value)
+                    ? consequence.execute(frame)
+                    : alternative.execute(frame);
+        };
+    }
+
+    /** Returns the compiled body of {@code literal}, compiling it the first time. */
+    private Code body(FunctionLiteral literal) {
+        Code body = bodies.get(literal);
+        if (body == null) {
+            body = block(literal.body().statements(), true);
+            bodies.put(literal, body);
+        }
+        return body;
+    }
+
+    /**
+     * A call, which caches the body of the last function literal it called. A {@code tail} call
+     * leaves the call to the loop of the call it is made from and returns {@link
+     * CallLoop#TAIL_CALL}.
+     */
+    private final class Call implements Code {
+        private final Code function;
+        private final Code[] arguments;
+        private final boolean tail;
+        private FunctionLiteral cachedLiteral;
+        private Code cachedBody;
+
+        private Call(CallExpression call, boolean tail) {
+            this.function = expression(call.function());
+            this.arguments = new Code[call.arguments().size()];
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = expression(call.arguments().get(i));
+            }
+            this.tail = tail;
+        }
+
+        @Override
+        public Value execute(Environment frame) {
+            Value callee = function.execute(frame);
+            if (callee instanceof ErrorValue) {
+                return callee;
+            }
+            Value[] values = new Value[arguments.length];
+            for (int i = 0; i < values.length; i++) {
+                Value argument = arguments[i].execute(frame);
+                if (argument instanceof ErrorValue) {
+                    return argument;
+                }
+                values[i] = argument;
+            }
+            var error = CallLoop.check(callee, values.length);
+            if (error != null) {
+                return error;
+            }
+            var functionValue = (FunctionValue) callee;
+            FunctionLiteral literal = functionValue.literal();
+            if (literal != cachedLiteral) {
+                cachedBody = body(literal);
+                cachedLiteral = literal;
+            }
+            return calls.call(functionValue, cachedBody, values, tail);
+        }
+    }
+}
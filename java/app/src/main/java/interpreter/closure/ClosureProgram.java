@@ -0,0 +1,19 @@
+package interpreter.closure;
+
+import interpreter.eval.Environment;
+import interpreter.eval.Value;
+import org.apache.commons.lang3.Validate;
+
+/** A program {@link ClosureCompiler} compiled. */
+public final class ClosureProgram {
+    private final Code code;
+
+    ClosureProgram(Code code) {
+        this.code = code;
+    }
+
+    public Value run(Environment environment) {
+        Validate.notNull(environment, "environment should not be null");
+        return code.execute(environment);
+    }
+}
@@ -0,0 +1,23 @@
+package interpreter.closure;
+
+import interpreter.eval.Environment;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.ReturnValue;
+import interpreter.eval.Value;
+
+/**
+ * A compiled node of a program. A {@link ReturnValue} or an {@link ErrorValue} stops the enclosing
+ * block, as it does in the evaluator.
+ */
+@FunctionalInterface
+interface Code {
+    Value execute(Environment frame);
+
+    /** Code that always evaluates to {@code value}, which the compiler folds into its users. */
+    record Constant(Value value) implements Code {
+        @Override
+        public Value execute(Environment frame) {
+            return value;
+        }
+    }
+}
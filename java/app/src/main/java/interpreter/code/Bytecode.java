@@ -0,0 +1,39 @@
+package interpreter.code;
+
+import interpreter.eval.Value;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A flat instruction stream, the constant pool its {@code CONSTANT} operands index into, the
+ * deepest operand stack it needs, and the names of the global slots, which the VM reports when a
+ * slot is read before anything was stored in it. No array is copied, so instances must not be
+ * modified once they are handed to the VM.
+ */
+public record Bytecode(
+        byte[] instructions, Value[] constants, int maxStackDepth, String[] globalNames) {
+    public Bytecode {
+        Validate.notNull(instructions, "instructions should not be null");
+        Validate.notNull(constants, "constants should not be null");
+        Validate.isTrue(maxStackDepth >= 0, "maxStackDepth should not be negative");
+        Validate.notNull(globalNames, "globalNames should not be null");
+    }
+
+    public static int readUnsignedShort(byte[] instructions, int offset) {
+        return ((instructions[offset] & 0xFF) << 8) | (instructions[offset + 1] & 0xFF);
+    }
+
+    public String disassemble() {
+        StringBuilder builder = new StringBuilder();
+        int ip = 0;
+        while (ip < instructions.length) {
+            byte opcode = instructions[ip];
+            builder.append("%04d %s".formatted(ip, Opcodes.nameOf(opcode)));
+            if (Opcodes.operandWidth(opcode) == 2) {
+                builder.append(' ').append(readUnsignedShort(instructions, ip + 1));
+            }
+            builder.append('\n');
+            ip += 1 + Opcodes.operandWidth(opcode);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package interpreter.code;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Instruction set of the stack virtual machine. Opcodes are plain {@code byte} constants rather
+ * than an enum so the VM can dispatch with a {@code tableswitch} straight off the instruction
+ * stream. Operands are unsigned big-endian shorts.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Opcodes {
+    public static final byte CONSTANT = 0;
+    public static final byte POP = 1;
+    public static final byte ADD = 2;
+    public static final byte SUB = 3;
+    public static final byte MUL = 4;
+    public static final byte DIV = 5;
+    public static final byte TRUE = 6;
+    public static final byte FALSE = 7;
+    public static final byte NULL = 8;
+    public static final byte EQUAL = 9;
+    public static final byte NOT_EQUAL = 10;
+    public static final byte GREATER_THAN = 11;
+    public static final byte LESS_THAN = 12;
+    public static final byte MINUS = 13;
+    public static final byte BANG = 14;
+    public static final byte SET_GLOBAL = 15;
+    public static final byte GET_GLOBAL = 16;
+    public static final byte RETURN_VALUE = 17;
+
+    private static final String[] NAMES = {
+        "CONSTANT",
+        "POP",
+        "ADD",
+        "SUB",
+        "MUL",
+        "DIV",
+        "TRUE",
+        "FALSE",
+        "NULL",
+        "EQUAL",
+        "NOT_EQUAL",
+        "GREATER_THAN",
+        "LESS_THAN",
+        "MINUS",
+        "BANG",
+        "SET_GLOBAL",
+        "GET_GLOBAL",
+        "RETURN_VALUE"
+    };
+
+    public static String nameOf(byte opcode) {
+        return NAMES[opcode];
+    }
+
+    /** Returns the net number of values {@code opcode} pushes onto the operand stack. */
+    public static int stackEffect(byte opcode) {
+        return switch (opcode) {
+            case CONSTANT, TRUE, FALSE, NULL, GET_GLOBAL -> 1;
+            case MINUS, BANG -> 0;
+            default -> -1;
+        };
+    }
+
+    /** Returns the number of operand bytes that follow {@code opcode} in the instruction stream. */
+    public static int operandWidth(byte opcode) {
+        return switch (opcode) {
+            case CONSTANT, SET_GLOBAL, GET_GLOBAL -> 2;
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package interpreter.compiler;
+
+public class CompileException extends RuntimeException {
+    public CompileException(String message) {
+        super(message);
+    }
+}
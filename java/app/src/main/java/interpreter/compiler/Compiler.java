@@ -0,0 +1,178 @@
+package interpreter.compiler;
+
+import interpreter.ast.BooleanLiteralExpression;
+import interpreter.ast.Expression;
+import interpreter.ast.ExpressionStatement;
+import interpreter.ast.Identifier;
+import interpreter.ast.InfixExpression;
+import interpreter.ast.IntegerLiteralExpression;
+import interpreter.ast.LetStatement;
+import interpreter.ast.PrefixExpression;
+import interpreter.ast.Program;
+import interpreter.ast.ReturnStatement;
+import interpreter.ast.Statement;
+import interpreter.code.Bytecode;
+import interpreter.code.Opcodes;
+import interpreter.eval.IntegerValue;
+import interpreter.eval.Value;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Lowers a {@link Program} into {@link Bytecode} for the {@link interpreter.vm.Vm}. A compiler
+ * keeps its global {@link Scope} and constant pool between calls, so consecutive programs (e.g.
+ * REPL lines) can refer to bindings defined by earlier ones. A program that fails to compile
+ * leaves the scope as it was, so its {@code let}s do not define anything.
+ */
+public class Compiler {
+    private Scope scope = new Scope();
+    private final List<Value> constants = new ArrayList<>();
+    private final Map<Integer, Integer> integerConstants = new HashMap<>();
+
+    private byte[] instructions;
+    private int size;
+    private int stackDepth;
+    private int maxStackDepth;
+
+    public Bytecode compile(Program program) {
+        Validate.notNull(program, "program should not be null");
+        instructions = new byte[64];
+        size = 0;
+        stackDepth = 0;
+        maxStackDepth = 0;
+
+        Scope saved = scope.copy();
+        List<Statement> statements = program.statements();
+        try {
+            for (int i = 0; i < statements.size(); i++) {
+                compileStatement(statements.get(i), i == statements.size() - 1);
+            }
+        } catch (CompileException e) {
+            scope = saved;
+            throw e;
+        }
+        return new Bytecode(
+                Arrays.copyOf(instructions, size),
+                constants.toArray(Value[]::new),
+                maxStackDepth,
+                scope.names());
+    }
+
+    private void compileStatement(Statement statement, boolean last) {
+        switch (statement) {
+            case ExpressionStatement expressionStatement -> {
+                compileExpression(expressionStatement.expression());
+                emit(Opcodes.POP);
+            }
+            case LetStatement letStatement -> {
+                compileExpression(letStatement.value());
+                emit(Opcodes.SET_GLOBAL, scope.define(letStatement.identifier().token().literal()));
+                if (last) {
+                    // A program ending in a let evaluates to null, as it does in the evaluator.
+                    emit(Opcodes.NULL);
+                    emit(Opcodes.POP);
+                }
+            }
+            case ReturnStatement returnStatement -> {
+                compileExpression(returnStatement.expression());
+                emit(Opcodes.RETURN_VALUE);
+            }
+            default ->
+                    throw new CompileException(
+                            "unsupported statement: %s"
+                                    .formatted(statement.getClass().getSimpleName()));
+        }
+    }
+
+    private void compileExpression(Expression expression) {
+        switch (expression) {
+            case IntegerLiteralExpression integer ->
+                    emit(Opcodes.CONSTANT, integerConstant(integer.value()));
+            case BooleanLiteralExpression bool -> emit(bool.value() ? Opcodes.TRUE : Opcodes.FALSE);
+            case Identifier identifier -> {
+                String name = identifier.token().literal();
+                int slot = scope.resolve(name);
+                if (slot < 0) {
+                    throw new CompileException("identifier not found: %s".formatted(name));
+                }
+                emit(Opcodes.GET_GLOBAL, slot);
+            }
+            case PrefixExpression prefix -> {
+                compileExpression(prefix.right());
+                switch (prefix.token().type()) {
+                    case BANG -> emit(Opcodes.BANG);
+                    case MINUS -> emit(Opcodes.MINUS);
+                    default -> throw unknownOperator(prefix.token().literal());
+                }
+            }
+            case InfixExpression infix -> {
+                compileExpression(infix.left());
+                compileExpression(infix.right());
+                emit(
+                        switch (infix.operator().type()) {
+                            case PLUS -> Opcodes.ADD;
+                            case MINUS -> Opcodes.SUB;
+                            case ASTERISK -> Opcodes.MUL;
+                            case SLASH -> Opcodes.DIV;
+                            case EQ -> Opcodes.EQUAL;
+                            case NOT_EQ -> Opcodes.NOT_EQUAL;
+                            case GT -> Opcodes.GREATER_THAN;
+                            case LT -> Opcodes.LESS_THAN;
+                            default -> throw unknownOperator(infix.operator().literal());
+                        });
+            }
+            case null -> emit(Opcodes.NULL);
+            default ->
+                    throw new CompileException(
+                            "unsupported expression: %s"
+                                    .formatted(expression.getClass().getSimpleName()));
+        }
+    }
+
+    private int integerConstant(int value) {
+        return integerConstants.computeIfAbsent(
+                value,
+                ignored -> {
+                    if (constants.size() == Scope.MAX_SLOTS) {
+                        throw new CompileException(
+                                "too many constants, maximum is %d".formatted(Scope.MAX_SLOTS));
+                    }
+                    constants.add(IntegerValue.of(value));
+                    return constants.size() - 1;
+                });
+    }
+
+    private static CompileException unknownOperator(String operator) {
+        return new CompileException("unknown operator: %s".formatted(operator));
+    }
+
+    private void emit(byte opcode) {
+        ensureCapacity(1);
+        instructions[size++] = opcode;
+        trackStackEffect(opcode);
+    }
+
+    private void emit(byte opcode, int operand) {
+        ensureCapacity(3);
+        instructions[size++] = opcode;
+        instructions[size++] = (byte) (operand >>> 8);
+        instructions[size++] = (byte) operand;
+        trackStackEffect(opcode);
+    }
+
+    private void trackStackEffect(byte opcode) {
+        stackDepth += Opcodes.stackEffect(opcode);
+        maxStackDepth = Math.max(maxStackDepth, stackDepth);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > instructions.length) {
+            instructions =
+                    Arrays.copyOf(instructions, Math.max(instructions.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package interpreter.compiler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Maps global binding names to the slots the VM stores them in. */
+public class Scope {
+    public static final int MAX_SLOTS = 1 << 16;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    public Scope() {}
+
+    private Scope(Scope other) {
+        slots.putAll(other.slots);
+        names.addAll(other.names);
+    }
+
+    public int define(String name) {
+        Integer existing = slots.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        if (slots.size() == MAX_SLOTS) {
+            throw new CompileException(
+                    "too many global bindings, maximum is %d".formatted(MAX_SLOTS));
+        }
+        int slot = slots.size();
+        slots.put(name, slot);
+        names.add(name);
+        return slot;
+    }
+
+    /** Returns the slot bound to {@code name}, or {@code -1} when it has not been defined. */
+    public int resolve(String name) {
+        return slots.getOrDefault(name, -1);
+    }
+
+    /** Returns the names of the defined bindings, indexed by slot. */
+    public String[] names() {
+        return names.toArray(String[]::new);
+    }
+
+    /** Returns an independent scope that starts out with the same bindings in the same slots. */
+    public Scope copy() {
+        return new Scope(this);
+    }
+}
@@ -0,0 +1,30 @@
+package interpreter.eval;
+
+public enum BooleanValue implements Value {
+    TRUE(true),
+    FALSE(false);
+
+    private final boolean value;
+
+    BooleanValue(boolean value) {
+        this.value = value;
+    }
+
+    public static BooleanValue of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    public boolean value() {
+        return value;
+    }
+
+    @Override
+    public ValueType type() {
+        return ValueType.BOOLEAN;
+    }
+
+    @Override
+    public String inspect() {
+        return Boolean.toString(value);
+    }
+}
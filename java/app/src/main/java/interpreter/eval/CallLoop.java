@@ -0,0 +1,76 @@
+package interpreter.eval;
+
+/**
+ * The calls of one engine, which every engine makes the way the {@link Evaluator} does. A call
+ * evaluates the function and then the arguments, stopping at the first error, {@linkplain #check
+ * checks} them, and hands them to {@link #call}. A call in tail position only schedules the
+ * function and unwinds with {@link #TAIL_CALL} to the loop of the call it is made from, which
+ * runs it in its stead; any other call runs the loop itself.
+ *
+ * @param <B> the form the engine runs function bodies in
+ */
+public final class CallLoop<B> {
+    /** Unwinds to the innermost call loop, which then calls the scheduled function. */
+    public static final ReturnValue TAIL_CALL = new ReturnValue(NullValue.NULL);
+
+    private final Runner<B> runner;
+    private FunctionValue pendingFunction;
+    private B pendingBody;
+    private Value[] pendingArguments;
+
+    /** Runs the body of a function in the frame its arguments were bound in. */
+    @FunctionalInterface
+    public interface Runner<B> {
+        Value run(B body, Environment frame);
+    }
+
+    public CallLoop(Runner<B> runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * Returns the error of calling {@code function} with {@code argumentCount} arguments, or null
+     * if it is a function that takes that many.
+     */
+    public static ErrorValue check(Value function, int argumentCount) {
+        if (!(function instanceof FunctionValue functionValue)) {
+            return new ErrorValue("not a function: %s".formatted(function.type()));
+        }
+        int parameterCount = functionValue.literal().parameters().size();
+        if (argumentCount != parameterCount) {
+            return new ErrorValue(
+                    "wrong number of arguments: want=%d, got=%d"
+                            .formatted(parameterCount, argumentCount));
+        }
+        return null;
+    }
+
+    /**
+     * Calls {@code function}, whose body is {@code body}, with {@code arguments}, which {@link
+     * #check} has passed, or for a {@code tail} call schedules it and returns {@link #TAIL_CALL}.
+     */
+    public Value call(FunctionValue function, B body, Value[] arguments, boolean tail) {
+        pendingFunction = function;
+        pendingBody = body;
+        pendingArguments = arguments;
+        return tail ? TAIL_CALL : call();
+    }
+
+    /** Calls the scheduled function, and then every function its body tail-calls in turn. */
+    private Value call() {
+        Environment frame = null;
+        while (true) {
+            FunctionValue function = pendingFunction;
+            B body = pendingBody;
+            Value[] arguments = pendingArguments;
+            pendingFunction = null;
+            pendingBody = null;
+            pendingArguments = null;
+            frame = function.bind(arguments, frame);
+            var result = runner.run(body, frame);
+            if (result != TAIL_CALL) {
+                return result instanceof ReturnValue returnValue ? returnValue.value() : result;
+            }
+        }
+    }
+}
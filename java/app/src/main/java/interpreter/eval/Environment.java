@@ -0,0 +1,141 @@
+package interpreter.eval;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A frame of bindings. Identifiers the {@link interpreter.ast.Resolver} bound are read and written
+ * by slot, in this frame or the one {@code depth} frames out, with plain array indexing.
+ *
+ * <p>Unresolved identifiers are bound by name instead, and a name not bound in this frame is
+ * looked up in the frames around it. Lookups that carry a symbol id go through
+ * an array indexed by it first, which only hashes a name the first time it is seen under that id.
+ * A cached entry is only trusted when the name is the very {@code String} it was cached with: a
+ * symbol table hands out one instance per name, so the same id from another table misses and
+ * falls back to the map. The two kinds of binding are separate, so an environment should only see
+ * programs that were all resolved by one resolver, or none that were.
+ *
+ * <p>A function call runs in a frame whose {@code outer} is the frame the function closed over.
+ */
+public class Environment {
+    private final Environment outer;
+    private Value[] slots;
+    private final Map<String, Binding> store = new HashMap<>();
+    private Binding[] bySymbol = new Binding[0];
+    private String[] symbolNames = new String[0];
+    private boolean captured;
+
+    public Environment() {
+        this(null, 16);
+    }
+
+    /** Creates a frame of {@code size} slots, which grows if a slot past them is set. */
+    public Environment(Environment outer, int size) {
+        this.outer = outer;
+        this.slots = new Value[size];
+    }
+
+    /** Returns the value in {@code slot} of the frame {@code depth} out, or null when unset. */
+    public Value get(int depth, int slot) {
+        Value[] frame = frame(depth).slots;
+        return slot < frame.length ? frame[slot] : null;
+    }
+
+    public Value set(int depth, int slot, Value value) {
+        Environment frame = frame(depth);
+        if (slot >= frame.slots.length) {
+            frame.slots = Arrays.copyOf(frame.slots, Math.max(slot + 1, frame.slots.length * 2));
+        }
+        frame.slots[slot] = value;
+        return value;
+    }
+
+    /** Records that a closure refers to this frame, which must then outlive the call. */
+    void capture() {
+        captured = true;
+    }
+
+    /**
+     * Returns whether a call into a closure over {@code outer} may run in this frame once it has
+     * been cleared: nothing but the caller may refer to it, and it holds no name bindings.
+     */
+    boolean isReusableFor(Environment outer) {
+        return !captured && this.outer == outer && store.isEmpty();
+    }
+
+    /** Unsets every slot of this frame. */
+    void clearSlots() {
+        Arrays.fill(slots, null);
+    }
+
+    private Environment frame(int depth) {
+        Environment frame = this;
+        for (int i = 0; i < depth; i++) {
+            frame = frame.outer;
+        }
+        return frame;
+    }
+
+    /** Returns the value bound to {@code name}, or {@code null} when it is not bound. */
+    public Value get(String name) {
+        Binding binding = store.get(name);
+        if (binding == null) {
+            return outer == null ? null : outer.get(name);
+        }
+        return binding.value;
+    }
+
+    public Value set(String name, Value value) {
+        store.computeIfAbsent(name, key -> new Binding()).value = value;
+        return value;
+    }
+
+    /** Like {@link #get(String)}, for a name interned under {@code symbol}, which may be -1. */
+    public Value get(int symbol, String name) {
+        Binding binding = cached(symbol, name);
+        if (binding == null) {
+            binding = store.get(name);
+            if (binding == null) {
+                return outer == null ? null : outer.get(symbol, name);
+            }
+            cache(symbol, name, binding);
+        }
+        return binding.value;
+    }
+
+    public Value set(int symbol, String name, Value value) {
+        Binding binding = cached(symbol, name);
+        if (binding == null) {
+            binding = store.computeIfAbsent(name, key -> new Binding());
+            cache(symbol, name, binding);
+        }
+        binding.value = value;
+        return value;
+    }
+
+    private Binding cached(int symbol, String name) {
+        // Identity, not equality: see the class comment.
+        if (symbol >= 0 && symbol < bySymbol.length && symbolNames[symbol] == name) {
+            return bySymbol[symbol];
+        }
+        return null;
+    }
+
+    private void cache(int symbol, String name, Binding binding) {
+        if (symbol < 0) {
+            return;
+        }
+        if (symbol >= bySymbol.length) {
+            int capacity = Math.max(symbol + 1, bySymbol.length * 2);
+            bySymbol = Arrays.copyOf(bySymbol, capacity);
+            symbolNames = Arrays.copyOf(symbolNames, capacity);
+        }
+        bySymbol[symbol] = binding;
+        symbolNames[symbol] = name;
+    }
+
+    private static final class Binding {
+        private Value value;
+    }
+}
@@ -0,0 +1,19 @@
+package interpreter.eval;
+
+import org.apache.commons.lang3.Validate;
+
+public record ErrorValue(String message) implements Value {
+    public ErrorValue {
+        Validate.notNull(message, "message should not be null");
+    }
+
+    @Override
+    public ValueType type() {
+        return ValueType.ERROR;
+    }
+
+    @Override
+    public String inspect() {
+        return "ERROR: " + message;
+    }
+}
@@ -0,0 +1,253 @@
+package interpreter.eval;
+
+import interpreter.ast.BlockStatement;
+import interpreter.ast.BooleanLiteralExpression;
+import interpreter.ast.CallExpression;
+import interpreter.ast.Expression;
+import interpreter.ast.ExpressionStatement;
+import interpreter.ast.FunctionLiteral;
+import interpreter.ast.Identifier;
+import interpreter.ast.IfExpression;
+import interpreter.ast.InfixExpression;
+import interpreter.ast.IntegerLiteralExpression;
+import interpreter.ast.LetStatement;
+import interpreter.ast.PrefixExpression;
+import interpreter.ast.Program;
+import interpreter.ast.ReturnStatement;
+import interpreter.ast.Statement;
+import interpreter.token.Token;
+import java.util.List;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Tree-walking evaluator over the {@code interpreter.ast} records. Integers stay primitive all the
+ * way through the arithmetic paths, and booleans and null are the shared {@link BooleanValue} and
+ * {@link NullValue} constants.
+ *
+ * <p>A {@code return f(...)} in a function, directly in its body or in the blocks of an {@code
+ * if} standing as a statement there, is a tail call: the caller's frame is done with before the
+ * call is made, so instead of evaluating it in place the evaluator unwinds to the loop that made
+ * the current call and runs the next one from there. Chains of tail calls, such as a recursive
+ * loop, run in constant Java stack, and in the caller's frame itself whenever no closure has
+ * captured it. Other calls recurse. An evaluator is not thread-safe.
+ */
+public class Evaluator {
+    private final CallLoop<BlockStatement> calls =
+            new CallLoop<>((body, frame) -> evalBlock(body, frame, true));
+
+    public Value eval(Program program, Environment environment) {
+        Validate.notNull(program, "program should not be null");
+        Validate.notNull(environment, "environment should not be null");
+
+        Value result = NullValue.NULL;
+        for (Statement statement : program.statements()) {
+            result = evalStatement(statement, environment, false);
+            if (result instanceof ReturnValue returnValue) {
+                return returnValue.value();
+            }
+            if (result instanceof ErrorValue) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the statements of a block up to the first that returns or fails. {@code tail}
+     * tells whether the block is in tail position of a function body; see the class comment.
+     */
+    private Value evalBlock(BlockStatement block, Environment environment, boolean tail) {
+        Value result = NullValue.NULL;
+        for (Statement statement : block.statements()) {
+            result = evalStatement(statement, environment, tail);
+            if (result instanceof ReturnValue || result instanceof ErrorValue) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    private Value evalStatement(Statement statement, Environment environment, boolean tail) {
+        return switch (statement) {
+            case ExpressionStatement expressionStatement ->
+                    tail && expressionStatement.expression() instanceof IfExpression ifExpression
+                            ? evalIfExpression(ifExpression, environment, true)
+                            : evalExpression(expressionStatement.expression(), environment);
+            case LetStatement letStatement -> {
+                var value = evalExpression(letStatement.value(), environment);
+                if (value instanceof ErrorValue) {
+                    yield value;
+                }
+                var identifier = letStatement.identifier();
+                if (identifier.isResolved()) {
+                    environment.set(identifier.depth(), identifier.slot(), value);
+                } else {
+                    environment.set(identifier.symbol(), identifier.token().literal(), value);
+                }
+                yield NullValue.NULL;
+            }
+            case ReturnStatement returnStatement -> {
+                if (tail && returnStatement.expression() instanceof CallExpression call) {
+                    yield evalCall(call, environment, true);
+                }
+                var value = evalExpression(returnStatement.expression(), environment);
+                if (value instanceof ErrorValue) {
+                    yield value;
+                }
+                yield new ReturnValue(value);
+            }
+            case Program program -> eval(program, environment);
+            case BlockStatement block -> evalBlock(block, environment, tail);
+            default -> new ErrorValue("unknown statement: %s".formatted(statement));
+        };
+    }
+
+    private Value evalExpression(Expression expression, Environment environment) {
+        return switch (expression) {
+            case IntegerLiteralExpression integer -> IntegerValue.of(integer.value());
+            case BooleanLiteralExpression bool -> BooleanValue.of(bool.value());
+            case Identifier identifier -> evalIdentifier(identifier, environment);
+            case PrefixExpression prefix -> {
+                var right = evalExpression(prefix.right(), environment);
+                if (right instanceof ErrorValue) {
+                    yield right;
+                }
+                yield evalPrefixExpression(prefix.token(), right);
+            }
+            case InfixExpression infix -> {
+                var left = evalExpression(infix.left(), environment);
+                if (left instanceof ErrorValue) {
+                    yield left;
+                }
+                var right = evalExpression(infix.right(), environment);
+                if (right instanceof ErrorValue) {
+                    yield right;
+                }
+                yield evalInfixExpression(infix.operator(), left, right);
+            }
+            case IfExpression ifExpression -> evalIfExpression(ifExpression, environment, false);
+            case FunctionLiteral function -> FunctionValue.closure(function, environment);
+            case CallExpression call -> evalCall(call, environment, false);
+            case null -> NullValue.NULL;
+            default -> new ErrorValue("unknown expression: %s".formatted(expression));
+        };
+    }
+
+    private Value evalIfExpression(
+            IfExpression ifExpression, Environment environment, boolean tail) {
+        var condition = evalExpression(ifExpression.condition(), environment);
+        if (condition instanceof ErrorValue) {
+            return condition;
+        }
+        if (isTruthy(condition)) {
+            return evalBlock(ifExpression.consequence(), environment, tail);
+        }
+        if (ifExpression.alternative() != null) {
+            return evalBlock(ifExpression.alternative(), environment, tail);
+        }
+        return NullValue.NULL;
+    }
+
+    /** Makes {@code call}, or schedules it if it is a {@code tail} call; see {@link CallLoop}. */
+    private Value evalCall(CallExpression call, Environment environment, boolean tail) {
+        var function = evalExpression(call.function(), environment);
+        if (function instanceof ErrorValue) {
+            return function;
+        }
+        List<Expression> expressions = call.arguments();
+        Value[] arguments = new Value[expressions.size()];
+        for (int i = 0; i < arguments.length; i++) {
+            var argument = evalExpression(expressions.get(i), environment);
+            if (argument instanceof ErrorValue) {
+                return argument;
+            }
+            arguments[i] = argument;
+        }
+        var error = CallLoop.check(function, arguments.length);
+        if (error != null) {
+            return error;
+        }
+        var functionValue = (FunctionValue) function;
+        return calls.call(functionValue, functionValue.literal().body(), arguments, tail);
+    }
+
+    private Value evalIdentifier(Identifier identifier, Environment environment) {
+        String name = identifier.token().literal();
+        Value value =
+                identifier.isResolved()
+                        ? environment.get(identifier.depth(), identifier.slot())
+                        : environment.get(identifier.symbol(), name);
+        if (value == null) {
+            return new ErrorValue("identifier not found: %s".formatted(name));
+        }
+        return value;
+    }
+
+    public static Value evalPrefixExpression(Token operator, Value right) {
+        return switch (operator.type()) {
+            case BANG -> BooleanValue.of(!isTruthy(right));
+            case MINUS -> {
+                if (right instanceof IntegerValue integer) {
+                    yield IntegerValue.of(-integer.value());
+                }
+                yield new ErrorValue("unknown operator: -%s".formatted(right.type()));
+            }
+            default ->
+                    new ErrorValue(
+                            "unknown operator: %s%s".formatted(operator.literal(), right.type()));
+        };
+    }
+
+    public static Value evalInfixExpression(Token operator, Value left, Value right) {
+        if (left instanceof IntegerValue l && right instanceof IntegerValue r) {
+            return evalIntegerInfixExpression(operator, l.value(), r.value());
+        }
+        if (left.type() != right.type()) {
+            return new ErrorValue(
+                    "type mismatch: %s %s %s"
+                            .formatted(left.type(), operator.literal(), right.type()));
+        }
+        // Booleans and null are singletons, so identity is value equality.
+        return switch (operator.type()) {
+            case EQ -> BooleanValue.of(left == right);
+            case NOT_EQ -> BooleanValue.of(left != right);
+            default ->
+                    new ErrorValue(
+                            "unknown operator: %s %s %s"
+                                    .formatted(left.type(), operator.literal(), right.type()));
+        };
+    }
+
+    static Value evalIntegerInfixExpression(Token operator, int left, int right) {
+        return switch (operator.type()) {
+            case PLUS -> IntegerValue.of(left + right);
+            case MINUS -> IntegerValue.of(left - right);
+            case ASTERISK -> IntegerValue.of(left * right);
+            case SLASH -> {
+                if (right == 0) {
+                    yield new ErrorValue("division by zero");
+                }
+                yield IntegerValue.of(left / right);
+            }
+            case LT -> BooleanValue.of(left < right);
+            case GT -> BooleanValue.of(left > right);
+            case EQ -> BooleanValue.of(left == right);
+            case NOT_EQ -> BooleanValue.of(left != right);
+            default ->
+                    new ErrorValue(
+                            "unknown operator: %s %s %s"
+                                    .formatted(
+                                            ValueType.INTEGER,
+                                            operator.literal(),
+                                            ValueType.INTEGER));
+        };
+    }
+
+    public static boolean isTruthy(Value value) {
+        return switch (value) {
+            case BooleanValue bool -> bool.value();
+            case NullValue ignored -> false;
+            default -> true;
+        };
+    }
+}
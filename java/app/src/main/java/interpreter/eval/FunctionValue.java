@@ -0,0 +1,66 @@
+package interpreter.eval;
+
+import interpreter.ast.FunctionLiteral;
+import interpreter.ast.Identifier;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A function literal closed over the frame it was evaluated in. Create one with {@link
+ * #closure(FunctionLiteral, Environment)}, which marks the frame as captured.
+ */
+public record FunctionValue(FunctionLiteral literal, Environment environment) implements Value {
+    public FunctionValue {
+        Validate.notNull(literal, "literal should not be null");
+        Validate.notNull(environment, "environment should not be null");
+    }
+
+    /** Evaluates {@code literal} in {@code environment}. */
+    public static FunctionValue closure(FunctionLiteral literal, Environment environment) {
+        environment.capture();
+        return new FunctionValue(literal, environment);
+    }
+
+    /**
+     * Binds {@code arguments}, one per parameter, in a new frame over the closure, or in {@code
+     * previous}, the frame of the call that tail-called this one, when nothing else can see that
+     * frame any more.
+     */
+    public Environment bind(Value[] arguments, Environment previous) {
+        List<Identifier> parameters = literal.parameters();
+        Validate.isTrue(
+                arguments.length == parameters.size(),
+                "expected %d arguments, got %d",
+                parameters.size(),
+                arguments.length);
+        Environment frame;
+        if (previous != null && previous.isReusableFor(environment)) {
+            frame = previous;
+            frame.clearSlots();
+        } else {
+            frame = new Environment(environment, parameters.size());
+        }
+        for (int i = 0; i < arguments.length; i++) {
+            Identifier parameter = parameters.get(i);
+            if (parameter.isResolved()) {
+                frame.set(0, parameter.slot(), arguments[i]);
+            } else {
+                frame.set(parameter.symbol(), parameter.token().literal(), arguments[i]);
+            }
+        }
+        return frame;
+    }
+
+    @Override
+    public ValueType type() {
+        return ValueType.FUNCTION;
+    }
+
+    @Override
+    public String inspect() {
+        return literal.parameters().stream()
+                .map(parameter -> parameter.token().literal())
+                .collect(Collectors.joining(", ", "fn(", ") {...}"));
+    }
+}
@@ -0,0 +1,34 @@
+package interpreter.eval;
+
+/**
+ * Integer values keep their payload as a primitive {@code int}. Small values are served from a
+ * shared cache so the common loop counters and constants don't allocate on every operation.
+ */
+public record IntegerValue(int value) implements Value {
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1024;
+    private static final IntegerValue[] CACHE = new IntegerValue[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new IntegerValue(i + CACHE_LOW);
+        }
+    }
+
+    public static IntegerValue of(int value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return CACHE[value - CACHE_LOW];
+        }
+        return new IntegerValue(value);
+    }
+
+    @Override
+    public ValueType type() {
+        return ValueType.INTEGER;
+    }
+
+    @Override
+    public String inspect() {
+        return Integer.toString(value);
+    }
+}
@@ -0,0 +1,15 @@
+package interpreter.eval;
+
+public enum NullValue implements Value {
+    NULL;
+
+    @Override
+    public ValueType type() {
+        return ValueType.NULL;
+    }
+
+    @Override
+    public String inspect() {
+        return "null";
+    }
+}
@@ -0,0 +1,19 @@
+package interpreter.eval;
+
+import org.apache.commons.lang3.Validate;
+
+public record ReturnValue(Value value) implements Value {
+    public ReturnValue {
+        Validate.notNull(value, "value should not be null");
+    }
+
+    @Override
+    public ValueType type() {
+        return ValueType.RETURN_VALUE;
+    }
+
+    @Override
+    public String inspect() {
+        return value.inspect();
+    }
+}
@@ -0,0 +1,8 @@
+package interpreter.eval;
+
+public sealed interface Value
+        permits IntegerValue, BooleanValue, NullValue, ReturnValue, ErrorValue, FunctionValue {
+    ValueType type();
+
+    String inspect();
+}
@@ -0,0 +1,10 @@
+package interpreter.eval;
+
+public enum ValueType {
+    INTEGER,
+    BOOLEAN,
+    NULL,
+    RETURN_VALUE,
+    ERROR,
+    FUNCTION
+}
@@ -0,0 +1,40 @@
+package interpreter.jvm;
+
+import interpreter.ast.Program;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * The programs a {@link JvmCompiler} compiled, least recently used first, keyed by the programs
+ * themselves, whose records hash and compare by structure. Past its capacity the cache drops the
+ * least recently used program; nothing else refers to its hidden class, which the JVM can then
+ * unload. A cache is not thread-safe.
+ */
+final class CodeCache {
+    private final Map<Program, CompiledProgram> programs;
+
+    CodeCache(int capacity) {
+        Validate.isTrue(capacity > 0, "capacity should be positive");
+        this.programs =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(
+                            Map.Entry<Program, CompiledProgram> eldest) {
+                        return size() > capacity;
+                    }
+                };
+    }
+
+    CompiledProgram get(Program program) {
+        return programs.get(program);
+    }
+
+    void put(Program program, CompiledProgram compiled) {
+        programs.put(program, compiled);
+    }
+
+    int size() {
+        return programs.size();
+    }
+}
@@ -0,0 +1,35 @@
+package interpreter.jvm;
+
+import interpreter.compiler.Scope;
+import interpreter.eval.Value;
+import java.lang.invoke.MethodHandle;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A program {@link JvmCompiler} translated into a hidden class. Each run gets an instance of its
+ * own, so a compiled program may run on several threads at once as long as they do not share
+ * globals.
+ */
+public final class CompiledProgram {
+    private final MethodHandle constructor;
+
+    /** {@code constructor} takes no arguments and returns a {@link ProgramCode}. */
+    CompiledProgram(MethodHandle constructor) {
+        this.constructor = constructor;
+    }
+
+    /**
+     * Runs the program, reading the bindings of earlier programs from {@code globals} and storing
+     * its own there, at the slots of the compiler's {@link Scope}.
+     */
+    public Value run(Value[] globals) {
+        Validate.notNull(globals, "globals should not be null");
+        ProgramCode code;
+        try {
+            code = (ProgramCode) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("cannot instantiate compiled program", e);
+        }
+        return code.run(globals);
+    }
+}
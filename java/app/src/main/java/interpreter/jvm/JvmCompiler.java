@@ -0,0 +1,623 @@
+package interpreter.jvm;
+
+import interpreter.ast.BooleanLiteralExpression;
+import interpreter.ast.Expression;
+import interpreter.ast.ExpressionStatement;
+import interpreter.ast.Identifier;
+import interpreter.ast.InfixExpression;
+import interpreter.ast.IntegerLiteralExpression;
+import interpreter.ast.LetStatement;
+import interpreter.ast.PrefixExpression;
+import interpreter.ast.Program;
+import interpreter.ast.ReturnStatement;
+import interpreter.ast.Statement;
+import interpreter.compiler.CompileException;
+import interpreter.compiler.Scope;
+import interpreter.eval.BooleanValue;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.IntegerValue;
+import interpreter.eval.NullValue;
+import interpreter.eval.Value;
+import interpreter.token.TokenType;
+import interpreter.utils.TokenUtil;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.Validate;
+import org.objectweb.asm.ClassTooLargeException;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodTooLargeException;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Translates a {@link Program} into a JVM class, defined as a hidden class so that the JIT
+ * compiles it like any other code and the JVM can unload it once it is no longer used. It covers
+ * the same statements and expressions as the bytecode {@link interpreter.compiler.Compiler}, and
+ * like it keeps a global {@link Scope} between calls, so that a program can read the bindings of
+ * the ones compiled before it.
+ *
+ * <p>Each {@code let} binding of a program becomes a field of the class, typed {@code int} or
+ * {@code boolean} when every value bound to the name is statically known to be one, so that
+ * arithmetic and comparisons over literals and such bindings are plain JVM instructions. Anything
+ * else, such as a global from an earlier program, is a {@link Value}, and operators on it go
+ * through the evaluator. A run stores its bindings in the globals when it ends, even with an
+ * error. Statements are split across methods small enough for the JIT to compile.
+ *
+ * <p>Compiled programs are cached by the program, so compiling an equal one again returns the same
+ * class. A compiler is not thread-safe.
+ */
+public class JvmCompiler {
+    public static final int DEFAULT_CACHE_CAPACITY = 256;
+
+    private static final int STATEMENTS_PER_METHOD = 64;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final String CLASS_NAME = "interpreter/jvm/GeneratedProgram";
+    private static final String SUPER_NAME = Type.getInternalName(ProgramCode.class);
+    private static final String VALUE = Type.getInternalName(Value.class);
+    private static final String RUN_DESCRIPTOR =
+            Type.getMethodDescriptor(Type.getType(Value.class), Type.getType(Value[].class));
+
+    private final Scope scope = new Scope();
+    private final CodeCache cache;
+
+    public JvmCompiler() {
+        this(DEFAULT_CACHE_CAPACITY);
+    }
+
+    /** Keeps up to {@code cacheCapacity} compiled programs. */
+    public JvmCompiler(int cacheCapacity) {
+        this.cache = new CodeCache(cacheCapacity);
+    }
+
+    public CompiledProgram compile(Program program) {
+        Validate.notNull(program, "program should not be null");
+        CompiledProgram compiled = cache.get(program);
+        if (compiled == null) {
+            compiled = define(new Generator(program.statements()).generate());
+            cache.put(program, compiled);
+        }
+        return compiled;
+    }
+
+    int cachedPrograms() {
+        return cache.size();
+    }
+
+    private static CompiledProgram define(byte[] bytes) {
+        try {
+            var lookup = LOOKUP.defineHiddenClass(bytes, true);
+            var constructor =
+                    lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class));
+            return new CompiledProgram(
+                    constructor.asType(MethodType.methodType(ProgramCode.class)));
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException("cannot define compiled program", e);
+        }
+    }
+
+    /** The static type of an expression. */
+    private enum Kind {
+        INT("I"),
+        BOOL("Z"),
+        VALUE(Type.getDescriptor(Value.class));
+
+        private final String descriptor;
+
+        Kind(String descriptor) {
+            this.descriptor = descriptor;
+        }
+    }
+
+    /**
+     * Returns the type of a prefix operator on an operand of type {@code right} that compiles to
+     * plain JVM instructions, or null when it goes through the evaluator.
+     */
+    private static Kind prefixKind(TokenType operator, Kind right) {
+        return switch (operator) {
+            case BANG -> right != Kind.VALUE ? Kind.BOOL : null;
+            case MINUS -> right == Kind.INT ? Kind.INT : null;
+            default -> null;
+        };
+    }
+
+    /** Like {@link #prefixKind}, for an infix operator. */
+    private static Kind infixKind(TokenType operator, Kind left, Kind right) {
+        if (left == Kind.INT && right == Kind.INT) {
+            return switch (operator) {
+                case PLUS, MINUS, ASTERISK, SLASH -> Kind.INT;
+                case LT, GT, EQ, NOT_EQ -> Kind.BOOL;
+                default -> null;
+            };
+        }
+        if (left == Kind.BOOL && right == Kind.BOOL) {
+            return switch (operator) {
+                case EQ, NOT_EQ -> Kind.BOOL;
+                default -> null;
+            };
+        }
+        return null;
+    }
+
+    /** A name bound by the program, held in the fields {@code v<index>} and {@code s<index>}. */
+    private static final class Binding {
+        private final int index;
+        private Kind kind;
+        private int slot = -1;
+
+        private Binding(int index, Kind kind) {
+            this.index = index;
+            this.kind = kind;
+        }
+
+        private String value() {
+            return "v" + index;
+        }
+
+        /** Whether the binding has been made, and must be stored in the globals. */
+        private String set() {
+            return "s" + index;
+        }
+    }
+
+    private final class Generator {
+        private final List<Statement> statements;
+        private final Map<String, Binding> bindings = new LinkedHashMap<>();
+        private final Set<String> bound = new HashSet<>();
+        private final ClassWriter writer =
+                new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        private MethodVisitor method;
+
+        private Generator(List<Statement> statements) {
+            this.statements = statements;
+        }
+
+        private byte[] generate() {
+            inferBindings();
+            writer.visit(
+                    Opcodes.V21,
+                    Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+                    CLASS_NAME,
+                    null,
+                    SUPER_NAME,
+                    null);
+            for (Binding binding : bindings.values()) {
+                writer.visitField(
+                                Opcodes.ACC_PRIVATE,
+                                binding.value(),
+                                binding.kind.descriptor,
+                                null,
+                                null)
+                        .visitEnd();
+                writer.visitField(Opcodes.ACC_PRIVATE, binding.set(), "Z", null, null).visitEnd();
+            }
+            generateConstructor();
+            int methods = Math.max(1, Math.ceilDiv(statements.size(), STATEMENTS_PER_METHOD));
+            for (int i = 0; i < methods; i++) {
+                generateStatements(i);
+            }
+            generateRun(methods);
+            generateFlush();
+            writer.visitEnd();
+            try {
+                return writer.toByteArray();
+            } catch (ClassTooLargeException | MethodTooLargeException e) {
+                throw new CompileException("program too large: %s".formatted(e.getMessage()));
+            }
+        }
+
+        /**
+         * Types the binding of every name the program binds: the type of its values if they all
+         * have the same one, or {@link Kind#VALUE}. Widening a binding can widen the values of
+         * others, so this runs until nothing changes.
+         */
+        private void inferBindings() {
+            boolean changed;
+            do {
+                changed = false;
+                bound.clear();
+                for (Statement statement : statements) {
+                    if (!(statement instanceof LetStatement let)) {
+                        continue;
+                    }
+                    String name = let.identifier().token().literal();
+                    Kind kind = kind(let.value());
+                    Binding binding = bindings.get(name);
+                    if (binding == null) {
+                        bindings.put(name, new Binding(bindings.size(), kind));
+                        changed = true;
+                    } else if (binding.kind != kind && binding.kind != Kind.VALUE) {
+                        binding.kind = Kind.VALUE;
+                        changed = true;
+                    }
+                    bound.add(name);
+                }
+            } while (changed);
+            bound.clear();
+        }
+
+        /** Returns the type {@link #expression} leaves on the stack for {@code expression}. */
+        private Kind kind(Expression expression) {
+            return switch (expression) {
+                case IntegerLiteralExpression ignored -> Kind.INT;
+                case BooleanLiteralExpression ignored -> Kind.BOOL;
+                case Identifier identifier -> {
+                    String name = identifier.token().literal();
+                    yield bound.contains(name) ? bindings.get(name).kind : Kind.VALUE;
+                }
+                case PrefixExpression prefix -> {
+                    Kind kind = prefixKind(prefix.token().type(), kind(prefix.right()));
+                    yield kind != null ? kind : Kind.VALUE;
+                }
+                case InfixExpression infix -> {
+                    Kind kind =
+                            infixKind(
+                                    infix.operator().type(),
+                                    kind(infix.left()),
+                                    kind(infix.right()));
+                    yield kind != null ? kind : Kind.VALUE;
+                }
+                case null, default -> Kind.VALUE;
+            };
+        }
+
+        private void generateConstructor() {
+            method = writer.visitMethod(0, "<init>", "()V", null, null);
+            method.visitCode();
+            method.visitVarInsn(Opcodes.ALOAD, 0);
+            method.visitMethodInsn(Opcodes.INVOKESPECIAL, SUPER_NAME, "<init>", "()V", false);
+            method.visitInsn(Opcodes.RETURN);
+            endMethod();
+        }
+
+        /**
+         * Generates {@code statements<index>}, which returns the value that ends the program, or
+         * null when the statements after its own are to run.
+         */
+        private void generateStatements(int index) {
+            method =
+                    writer.visitMethod(
+                            Opcodes.ACC_PRIVATE, "statements" + index, RUN_DESCRIPTOR, null, null);
+            method.visitCode();
+            int from = index * STATEMENTS_PER_METHOD;
+            int to = Math.min(statements.size(), from + STATEMENTS_PER_METHOD);
+            for (int i = from; i < to; i++) {
+                statement(statements.get(i), i == statements.size() - 1);
+            }
+            if (statements.isEmpty()) {
+                loadNull();
+                method.visitInsn(Opcodes.ARETURN);
+            } else if (to < statements.size()) {
+                method.visitInsn(Opcodes.ACONST_NULL);
+                method.visitInsn(Opcodes.ARETURN);
+            }
+            endMethod();
+        }
+
+        /** Generates {@code run}, which runs the statements and then stores the bindings. */
+        private void generateRun(int methods) {
+            method = writer.visitMethod(0, "run", RUN_DESCRIPTOR, null, null);
+            method.visitCode();
+            Label done = new Label();
+            for (int i = 0; i < methods; i++) {
+                method.visitVarInsn(Opcodes.ALOAD, 0);
+                method.visitVarInsn(Opcodes.ALOAD, 1);
+                method.visitMethodInsn(
+                        Opcodes.INVOKEVIRTUAL, CLASS_NAME, "statements" + i, RUN_DESCRIPTOR, false);
+                if (i < methods - 1) {
+                    method.visitInsn(Opcodes.DUP);
+                    method.visitJumpInsn(Opcodes.IFNONNULL, done);
+                    method.visitInsn(Opcodes.POP);
+                }
+            }
+            method.visitLabel(done);
+            method.visitVarInsn(Opcodes.ASTORE, 2);
+            method.visitVarInsn(Opcodes.ALOAD, 0);
+            method.visitVarInsn(Opcodes.ALOAD, 1);
+            method.visitMethodInsn(
+                    Opcodes.INVOKEVIRTUAL, CLASS_NAME, "flush", "([L" + VALUE + ";)V", false);
+            method.visitVarInsn(Opcodes.ALOAD, 2);
+            method.visitInsn(Opcodes.ARETURN);
+            endMethod();
+        }
+
+        /** Generates {@code flush}, which stores every binding made so far in the globals. */
+        private void generateFlush() {
+            method =
+                    writer.visitMethod(
+                            Opcodes.ACC_PRIVATE, "flush", "([L" + VALUE + ";)V", null, null);
+            method.visitCode();
+            for (Binding binding : bindings.values()) {
+                Label skip = new Label();
+                method.visitVarInsn(Opcodes.ALOAD, 0);
+                method.visitFieldInsn(Opcodes.GETFIELD, CLASS_NAME, binding.set(), "Z");
+                method.visitJumpInsn(Opcodes.IFEQ, skip);
+                method.visitVarInsn(Opcodes.ALOAD, 1);
+                pushInt(binding.slot);
+                method.visitVarInsn(Opcodes.ALOAD, 0);
+                method.visitFieldInsn(
+                        Opcodes.GETFIELD, CLASS_NAME, binding.value(), binding.kind.descriptor);
+                box(binding.kind);
+                method.visitInsn(Opcodes.AASTORE);
+                method.visitLabel(skip);
+            }
+            method.visitInsn(Opcodes.RETURN);
+            endMethod();
+        }
+
+        private void endMethod() {
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+        }
+
+        /** Compiles {@code statement}, returning its value if it is the {@code last} one. */
+        private void statement(Statement statement, boolean last) {
+            switch (statement) {
+                case ExpressionStatement expressionStatement -> {
+                    Kind kind = expression(expressionStatement.expression());
+                    if (last) {
+                        box(kind);
+                        method.visitInsn(Opcodes.ARETURN);
+                    } else {
+                        method.visitInsn(Opcodes.POP);
+                    }
+                }
+                case LetStatement letStatement -> {
+                    String name = letStatement.identifier().token().literal();
+                    Binding binding = bindings.get(name);
+                    method.visitVarInsn(Opcodes.ALOAD, 0);
+                    Kind kind = expression(letStatement.value());
+                    if (kind != binding.kind) {
+                        box(kind);
+                    }
+                    method.visitFieldInsn(
+                            Opcodes.PUTFIELD,
+                            CLASS_NAME,
+                            binding.value(),
+                            binding.kind.descriptor);
+                    method.visitVarInsn(Opcodes.ALOAD, 0);
+                    method.visitInsn(Opcodes.ICONST_1);
+                    method.visitFieldInsn(Opcodes.PUTFIELD, CLASS_NAME, binding.set(), "Z");
+                    binding.slot = scope.define(name);
+                    bound.add(name);
+                    if (last) {
+                        // A program ending in a let evaluates to null, as it does in the evaluator.
+                        loadNull();
+                        method.visitInsn(Opcodes.ARETURN);
+                    }
+                }
+                case ReturnStatement returnStatement -> {
+                    box(expression(returnStatement.expression()));
+                    method.visitInsn(Opcodes.ARETURN);
+                }
+                default ->
+                        throw new CompileException(
+                                "unsupported statement: %s"
+                                        .formatted(statement.getClass().getSimpleName()));
+            }
+        }
+
+        /**
+         * Compiles {@code expression}, leaving its value on the stack, and returns its type, which
+         * is {@link #kind} of it. An error returns from the method straight away.
+         */
+        private Kind expression(Expression expression) {
+            return switch (expression) {
+                case IntegerLiteralExpression integer -> {
+                    pushInt(integer.value());
+                    yield Kind.INT;
+                }
+                case BooleanLiteralExpression bool -> {
+                    method.visitInsn(bool.value() ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+                    yield Kind.BOOL;
+                }
+                case Identifier identifier -> identifier(identifier.token().literal());
+                case PrefixExpression prefix -> prefix(prefix);
+                case InfixExpression infix -> infix(infix);
+                case null -> {
+                    loadNull();
+                    yield Kind.VALUE;
+                }
+                default ->
+                        throw new CompileException(
+                                "unsupported expression: %s"
+                                        .formatted(expression.getClass().getSimpleName()));
+            };
+        }
+
+        private Kind identifier(String name) {
+            if (bound.contains(name)) {
+                Binding binding = bindings.get(name);
+                method.visitVarInsn(Opcodes.ALOAD, 0);
+                method.visitFieldInsn(
+                        Opcodes.GETFIELD, CLASS_NAME, binding.value(), binding.kind.descriptor);
+                return binding.kind;
+            }
+            int slot = scope.resolve(name);
+            if (slot < 0) {
+                throw new CompileException("identifier not found: %s".formatted(name));
+            }
+            method.visitVarInsn(Opcodes.ALOAD, 1);
+            pushInt(slot);
+            method.visitLdcInsn(name);
+            invokeSupport("global", Value[].class, int.class, String.class);
+            returnIfError();
+            return Kind.VALUE;
+        }
+
+        private Kind prefix(PrefixExpression prefix) {
+            TokenType operator = prefix.token().type();
+            Kind right = expression(prefix.right());
+            Kind kind = prefixKind(operator, right);
+            if (kind == null) {
+                box(right);
+                pushOperator(operator);
+                invokeSupport("prefix", Value.class, int.class);
+                returnIfError();
+                return Kind.VALUE;
+            }
+            switch (operator) {
+                case BANG -> {
+                    if (right == Kind.INT) {
+                        // Every integer is truthy.
+                        method.visitInsn(Opcodes.POP);
+                        method.visitInsn(Opcodes.ICONST_0);
+                    } else {
+                        method.visitInsn(Opcodes.ICONST_1);
+                        method.visitInsn(Opcodes.IXOR);
+                    }
+                }
+                case MINUS -> method.visitInsn(Opcodes.INEG);
+                default -> throw new IllegalStateException("unexpected operator " + operator);
+            }
+            return kind;
+        }
+
+        private Kind infix(InfixExpression infix) {
+            TokenType operator = infix.operator().type();
+            Kind left = expression(infix.left());
+            Kind right = expression(infix.right());
+            Kind kind = infixKind(operator, left, right);
+            if (kind == null) {
+                // Both operands are one stack slot, so the left one can be boxed under the right.
+                box(right);
+                if (left != Kind.VALUE) {
+                    method.visitInsn(Opcodes.SWAP);
+                    box(left);
+                    method.visitInsn(Opcodes.SWAP);
+                }
+                pushOperator(operator);
+                invokeSupport("infix", Value.class, Value.class, int.class);
+                returnIfError();
+                return Kind.VALUE;
+            }
+            switch (operator) {
+                case PLUS -> method.visitInsn(Opcodes.IADD);
+                case MINUS -> method.visitInsn(Opcodes.ISUB);
+                case ASTERISK -> method.visitInsn(Opcodes.IMUL);
+                case SLASH -> {
+                    if (!(infix.right() instanceof IntegerLiteralExpression divisor)
+                            || divisor.value() == 0) {
+                        Label nonZero = new Label();
+                        method.visitInsn(Opcodes.DUP);
+                        method.visitJumpInsn(Opcodes.IFNE, nonZero);
+                        method.visitFieldInsn(
+                                Opcodes.GETSTATIC,
+                                SUPER_NAME,
+                                "DIVISION_BY_ZERO",
+                                Type.getDescriptor(ErrorValue.class));
+                        method.visitInsn(Opcodes.ARETURN);
+                        method.visitLabel(nonZero);
+                    }
+                    method.visitInsn(Opcodes.IDIV);
+                }
+                case LT -> compare(Opcodes.IF_ICMPGE);
+                case GT -> compare(Opcodes.IF_ICMPLE);
+                case EQ -> {
+                    if (left == Kind.BOOL) {
+                        method.visitInsn(Opcodes.IXOR);
+                        method.visitInsn(Opcodes.ICONST_1);
+                        method.visitInsn(Opcodes.IXOR);
+                    } else {
+                        compare(Opcodes.IF_ICMPNE);
+                    }
+                }
+                case NOT_EQ -> {
+                    if (left == Kind.BOOL) {
+                        method.visitInsn(Opcodes.IXOR);
+                    } else {
+                        compare(Opcodes.IF_ICMPEQ);
+                    }
+                }
+                default -> throw new IllegalStateException("unexpected operator " + operator);
+            }
+            return kind;
+        }
+
+        /** Turns two ints into a boolean that is false when {@code jumpIfFalse} jumps. */
+        private void compare(int jumpIfFalse) {
+            Label isFalse = new Label();
+            Label end = new Label();
+            method.visitJumpInsn(jumpIfFalse, isFalse);
+            method.visitInsn(Opcodes.ICONST_1);
+            method.visitJumpInsn(Opcodes.GOTO, end);
+            method.visitLabel(isFalse);
+            method.visitInsn(Opcodes.ICONST_0);
+            method.visitLabel(end);
+        }
+
+        private void pushOperator(TokenType operator) {
+            if (TokenUtil.fixedToken(operator) == null) {
+                throw new CompileException("unknown operator: %s".formatted(operator));
+            }
+            pushInt(operator.ordinal());
+        }
+
+        /** Returns the value on top of the stack if it is an error, leaving it there otherwise. */
+        private void returnIfError() {
+            Label ok = new Label();
+            method.visitInsn(Opcodes.DUP);
+            method.visitTypeInsn(Opcodes.INSTANCEOF, Type.getInternalName(ErrorValue.class));
+            method.visitJumpInsn(Opcodes.IFEQ, ok);
+            method.visitInsn(Opcodes.ARETURN);
+            method.visitLabel(ok);
+        }
+
+        private void box(Kind kind) {
+            switch (kind) {
+                case INT -> invokeValueOf(IntegerValue.class, int.class);
+                case BOOL -> invokeValueOf(BooleanValue.class, boolean.class);
+                case VALUE -> {}
+            }
+        }
+
+        private void invokeValueOf(Class<?> type, Class<?> primitive) {
+            method.visitMethodInsn(
+                    Opcodes.INVOKESTATIC,
+                    Type.getInternalName(type),
+                    "of",
+                    Type.getMethodDescriptor(Type.getType(type), Type.getType(primitive)),
+                    false);
+        }
+
+        private void invokeSupport(String name, Class<?>... parameters) {
+            Type[] types = new Type[parameters.length];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = Type.getType(parameters[i]);
+            }
+            method.visitMethodInsn(
+                    Opcodes.INVOKESTATIC,
+                    SUPER_NAME,
+                    name,
+                    Type.getMethodDescriptor(Type.getType(Value.class), types),
+                    false);
+        }
+
+        private void loadNull() {
+            method.visitFieldInsn(
+                    Opcodes.GETSTATIC,
+                    Type.getInternalName(NullValue.class),
+                    "NULL",
+                    Type.getDescriptor(NullValue.class));
+        }
+
+        private void pushInt(int value) {
+            if (value >= -1 && value <= 5) {
+                method.visitInsn(Opcodes.ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                method.visitIntInsn(Opcodes.BIPUSH, value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                method.visitIntInsn(Opcodes.SIPUSH, value);
+            } else {
+                method.visitLdcInsn(value);
+            }
+        }
+    }
+}
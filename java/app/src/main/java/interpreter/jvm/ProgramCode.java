@@ -0,0 +1,40 @@
+package interpreter.jvm;
+
+import interpreter.eval.ErrorValue;
+import interpreter.eval.Evaluator;
+import interpreter.eval.Value;
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import interpreter.utils.TokenUtil;
+
+/**
+ * The superclass of the classes {@link JvmCompiler} generates, and the slow paths their code calls
+ * into. An instance holds the bindings of one run of the program in its fields.
+ */
+abstract class ProgramCode {
+    static final ErrorValue DIVISION_BY_ZERO = new ErrorValue("division by zero");
+
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+
+    /** Runs the program against {@code globals}, which hold the bindings of earlier programs. */
+    abstract Value run(Value[] globals);
+
+    /** Reads a global bound by an earlier program. */
+    static Value global(Value[] globals, int slot, String name) {
+        Value value = globals[slot];
+        return value != null ? value : new ErrorValue("identifier not found: %s".formatted(name));
+    }
+
+    static Value prefix(Value right, int operator) {
+        return Evaluator.evalPrefixExpression(token(operator), right);
+    }
+
+    static Value infix(Value left, Value right, int operator) {
+        return Evaluator.evalInfixExpression(token(operator), left, right);
+    }
+
+    /** Returns the token of an operator, which the generated code passes as its type's ordinal. */
+    private static Token token(int operator) {
+        return TokenUtil.fixedToken(TOKEN_TYPES[operator]);
+    }
+}
@@ -0,0 +1,44 @@
+package interpreter.lexer;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Character classification for the lexer hot loop. ASCII characters are answered from a
+ * precomputed table; everything else falls back to the {@link Character} Unicode predicates the
+ * lexer has always used, so non-ASCII identifiers and whitespace keep working.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class CharClass {
+    private static final byte WHITESPACE = 1;
+    private static final byte LETTER = 1 << 1;
+    private static final byte DIGIT = 1 << 2;
+
+    private static final byte[] ASCII = new byte[128];
+
+    static {
+        for (char c = 0; c < ASCII.length; c++) {
+            if (Character.isWhitespace(c)) {
+                ASCII[c] |= WHITESPACE;
+            }
+            if (Character.isLetter(c)) {
+                ASCII[c] |= LETTER;
+            }
+            if (Character.isDigit(c)) {
+                ASCII[c] |= DIGIT;
+            }
+        }
+    }
+
+    static boolean isWhitespace(char c) {
+        return c < 128 ? (ASCII[c] & WHITESPACE) != 0 : Character.isWhitespace(c);
+    }
+
+    static boolean isLetter(char c) {
+        return c < 128 ? (ASCII[c] & LETTER) != 0 : Character.isLetter(c);
+    }
+
+    static boolean isDigit(char c) {
+        return c < 128 ? (ASCII[c] & DIGIT) != 0 : Character.isDigit(c);
+    }
+}
@@ -1,25 +1,70 @@
 package interpreter.lexer;
 
-import static java.lang.Character.isDigit;
-import static java.lang.Character.isLetter;
-import static java.lang.Character.isWhitespace;
-import static org.apache.commons.lang3.math.NumberUtils.isDigits;
-
 import interpreter.token.Token;
 import interpreter.token.TokenType;
 import interpreter.utils.TokenUtil;
-import java.util.function.Predicate;
+import lombok.AccessLevel;
 import lombok.Getter;
 
+/**
+ * Hand-written lexer over a {@code String}. The hot loop classifies ASCII through a lookup table,
+ * matches keywords in place, and hands out shared {@link Token} instances for every token whose
+ * literal never varies. Identifiers are interned into a {@link SymbolTable} as their tokens are
+ * built, so a name allocates only the first time it occurs; integers and illegal input allocate
+ * every time. Non-ASCII input takes the {@link Character} Unicode slow path and lexes exactly as
+ * it always has.
+ */
 @Getter
-public class Lexer {
+public class Lexer implements TokenSource {
+    private static final int SHORT_RUN = 16;
+
     private final String input;
+    @Getter(AccessLevel.NONE)
+    private final RunScanner runs;
+
+    private final SymbolTable symbols;
+
     private int position = 0;
     private int readPosition = 0;
     private char ch = '\0';
+    private int tokenStart = 0;
+    private int tokenEnd = 0;
 
+    @Getter(AccessLevel.NONE)
+    private int symbol = SymbolTable.NONE;
+
+    /**
+     * Lexes {@code input}, skipping runs of whitespace, identifier and number characters with the
+     * Vector API when the {@code jdk.incubator.vector} module is loaded and the input is long
+     * enough to pay for it.
+     */
     public Lexer(String input) {
+        this(input, new SymbolTable());
+    }
+
+    /**
+     * Interns identifiers into {@code symbols}, so that several inputs can share their ids. With a
+     * null table nothing is interned: every identifier allocates its own token, and its symbol is
+     * {@link SymbolTable#NONE}.
+     */
+    public Lexer(String input, SymbolTable symbols) {
+        this(input, 0, RunScanner.forSource(input), symbols);
+    }
+
+    /** Starts lexing at {@code offset}, which must lie between two tokens. */
+    Lexer(String input, int offset) {
+        this(input, offset, RunScanner.SCALAR);
+    }
+
+    Lexer(String input, int offset, RunScanner runs) {
+        this(input, offset, runs, new SymbolTable());
+    }
+
+    Lexer(String input, int offset, RunScanner runs, SymbolTable symbols) {
         this.input = input;
+        this.runs = runs;
+        this.symbols = symbols;
+        this.readPosition = offset;
         readChar();
     }
 
@@ -33,57 +78,115 @@ public class Lexer {
         readPosition++;
     }
 
+    @Override
     public Token nextToken() {
-        while (isWhitespace(ch)) {
-            readChar();
+        return token(scan());
+    }
+
+    @Override
+    public int tokenOffset() {
+        return tokenStart;
+    }
+
+    @Override
+    public int symbol() {
+        return symbol;
+    }
+
+    /** Materializes the token of type {@code type} that {@link #scan()} just returned. */
+    Token token(TokenType type) {
+        if (type == TokenType.IDENT && symbols != null) {
+            symbol = symbols.intern(input, tokenStart, tokenEnd);
+            return symbols.token(symbol);
         }
-        return switch (ch) {
-            case '=' -> {
-                if (peekChar() == '=') {
-                    readChar();
-                    readChar();
-                    yield new Token(TokenType.EQ, "==");
-                } else {
-                    yield newToken(TokenType.ASSIGN, ch);
-                }
-            }
-            case '*' -> newToken(TokenType.ASTERISK, ch);
-            case '!' -> {
-                if (peekChar() == '=') {
-                    readChar();
-                    readChar();
-                    yield new Token(TokenType.NOT_EQ, "!=");
-                } else {
-                    yield newToken(TokenType.BANG, ch);
-                }
-            }
-            case '>' -> newToken(TokenType.GT, ch);
-            case '<' -> newToken(TokenType.LT, ch);
-            case '-' -> newToken(TokenType.MINUS, ch);
-            case '+' -> newToken(TokenType.PLUS, ch);
-            case '/' -> newToken(TokenType.SLASH, ch);
-            case '(' -> newToken(TokenType.LPAREN, ch);
-            case ')' -> newToken(TokenType.RPAREN, ch);
-            case '{' -> newToken(TokenType.LBRACE, ch);
-            case '}' -> newToken(TokenType.RBRACE, ch);
-            case ',' -> newToken(TokenType.COMMA, ch);
-            case ';' -> newToken(TokenType.SEMICOLON, ch);
-            case '\0' -> newToken(TokenType.EOF, ch);
-            default -> {
-                if (isLetter(ch)) {
-                    String identifier = readIdentifier(Character::isLetter);
-                    yield new Token(TokenUtil.getTypeForIdentifier(identifier), identifier);
-                } else if (isDigit(ch)) {
-                    String identifier = readIdentifier(Character::isDigit);
-                    if (isDigits(identifier)) {
-                        yield new Token(TokenType.INT, identifier);
+        symbol = SymbolTable.NONE;
+        Token fixed = TokenUtil.fixedToken(type);
+        if (fixed != null) {
+            return fixed;
+        }
+        return new Token(type, input.substring(tokenStart, tokenEnd));
+    }
+
+    /**
+     * Scans the next token without materializing it: returns its type and leaves its bounds in
+     * {@link #getTokenStart()} and {@link #getTokenEnd()}. An end of input {@code EOF} has an empty
+     * range at {@code input.length()}.
+     */
+    TokenType scan() {
+        if (CharClass.isWhitespace(ch)) {
+            skipWhitespace();
+        }
+        tokenStart = Math.min(position, input.length());
+        TokenType type =
+                switch (ch) {
+                    case '=' -> {
+                        if (peekChar() == '=') {
+                            readChar();
+                            yield advance(TokenType.EQ);
+                        }
+                        yield advance(TokenType.ASSIGN);
                     }
-                    yield new Token(TokenType.ILLEGAL, identifier);
-                } else {
-                    yield new Token(TokenType.ILLEGAL, String.valueOf(ch));
-                }
-            }
-        };
+                    case '*' -> advance(TokenType.ASTERISK);
+                    case '!' -> {
+                        if (peekChar() == '=') {
+                            readChar();
+                            yield advance(TokenType.NOT_EQ);
+                        }
+                        yield advance(TokenType.BANG);
+                    }
+                    case '>' -> {
+                        if (peekChar() == '=') {
+                            readChar();
+                            yield advance(TokenType.GT_EQ);
+                        }
+                        yield advance(TokenType.GT);
+                    }
+                    case '<' -> {
+                        if (peekChar() == '=') {
+                            readChar();
+                            yield advance(TokenType.LT_EQ);
+                        }
+                        yield advance(TokenType.LT);
+                    }
+                    case '&' -> {
+                        if (peekChar() == '&') {
+                            readChar();
+                            yield advance(TokenType.AND);
+                        }
+                        yield advance(TokenType.ILLEGAL);
+                    }
+                    case '|' -> {
+                        if (peekChar() == '|') {
+                            readChar();
+                            yield advance(TokenType.OR);
+                        }
+                        yield advance(TokenType.ILLEGAL);
+                    }
+                    case '%' -> advance(TokenType.PERCENT);
+                    case '-' -> advance(TokenType.MINUS);
+                    case '+' -> advance(TokenType.PLUS);
+                    case '/' -> advance(TokenType.SLASH);
+                    case '(' -> advance(TokenType.LPAREN);
+                    case ')' -> advance(TokenType.RPAREN);
+                    case '{' -> advance(TokenType.LBRACE);
+                    case '}' -> advance(TokenType.RBRACE);
+                    case ',' -> advance(TokenType.COMMA);
+                    case ';' -> advance(TokenType.SEMICOLON);
+                    case '\0' -> advance(TokenType.EOF);
+                    default -> {
+                        if (CharClass.isLetter(ch)) {
+                            readIdentifier();
+                            yield TokenUtil.getTypeForIdentifier(input, tokenStart, position);
+                        } else if (CharClass.isDigit(ch)) {
+                            yield readNumber() ? TokenType.INT : TokenType.ILLEGAL;
+                        } else {
+                            // Consume the offending character so the stream always makes progress.
+                            yield advance(TokenType.ILLEGAL);
+                        }
+                    }
+                };
+        tokenEnd = Math.min(position, input.length());
+        return type;
     }
 
     private char peekChar() {
@@ -94,17 +197,84 @@ public class Lexer {
         }
     }
 
-    private String readIdentifier(Predicate<Character> condition) {
-        int currentPosition = position;
-        while (condition.test(ch) || ch == '_') {
-            readChar();
+    private void skipWhitespace() {
+        int index = whitespaceEnd(position, shortRunEnd());
+        if (index == position + SHORT_RUN) {
+            index = whitespaceEnd(runs.whitespaceEnd(index), input.length());
+        }
+        moveTo(index);
+    }
+
+    /** Reads letters and underscores. */
+    private void readIdentifier() {
+        int index = wordEnd(position, shortRunEnd());
+        if (index == position + SHORT_RUN) {
+            index = wordEnd(runs.wordEnd(index), input.length());
+        }
+        moveTo(index);
+    }
+
+    /**
+     * Reads digits and underscores, and returns whether the run was made of digits only; a run
+     * with underscores in it is an illegal token.
+     */
+    private boolean readNumber() {
+        int index = numberEnd(position, shortRunEnd());
+        if (index == position + SHORT_RUN) {
+            index = numberEnd(runs.numberEnd(index), input.length());
         }
-        return input.substring(currentPosition, position);
+        boolean digitsOnly = input.indexOf('_', position, index) < 0;
+        moveTo(index);
+        return digitsOnly;
+    }
+
+    /**
+     * Bounds the scalar scan at the start of a run. Most runs end within it; only longer ones are
+     * handed to the {@link RunScanner}, which would cost more than it saves on short runs.
+     */
+    private int shortRunEnd() {
+        return Math.min(input.length(), position + SHORT_RUN);
+    }
+
+    private int whitespaceEnd(int from, int to) {
+        int index = from;
+        while (index < to && CharClass.isWhitespace(input.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private int wordEnd(int from, int to) {
+        int index = from;
+        while (index < to) {
+            char c = input.charAt(index);
+            if (!CharClass.isLetter(c) && c != '_') {
+                break;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    private int numberEnd(int from, int to) {
+        int index = from;
+        while (index < to) {
+            char c = input.charAt(index);
+            if (!CharClass.isDigit(c) && c != '_') {
+                break;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    private void moveTo(int index) {
+        readPosition = index;
+        readChar();
     }
 
-    private Token newToken(TokenType type, char character) {
-        Token token = new Token(type, String.valueOf(character));
+    private TokenType advance(TokenType type) {
         readChar();
-        return token;
+        return type;
     }
 }
@@ -0,0 +1,68 @@
+package interpreter.lexer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * The offset at which every line of a source starts, one {@code int} per line, so that a token
+ * only has to carry its start offset and a {@link SourcePosition} is found by binary search when
+ * someone asks for it. Lines end at {@code '\n'}; a {@code '\r'} before it counts as the last
+ * column of its line.
+ */
+public final class LineIndex {
+    private final int[] lineStarts;
+    private final int length;
+
+    private LineIndex(int[] lineStarts, int length) {
+        this.lineStarts = lineStarts;
+        this.length = length;
+    }
+
+    public static LineIndex of(String source) {
+        Validate.notNull(source, "source should not be null");
+        int[] starts = new int[16];
+        int count = 1;
+        for (int i = source.indexOf('\n'); i >= 0; i = source.indexOf('\n', i + 1)) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            starts[count++] = i + 1;
+        }
+        return new LineIndex(Arrays.copyOf(starts, count), source.length());
+    }
+
+    /**
+     * Indexes the UTF-8 bytes between {@code source}'s position and limit, for the byte offsets
+     * {@link Utf8Lexer} reports; columns are then counted in bytes too.
+     */
+    public static LineIndex of(ByteBuffer source) {
+        Validate.notNull(source, "source should not be null");
+        ByteBuffer bytes = source.slice();
+        int[] starts = new int[16];
+        int count = 1;
+        for (int i = 0; i < bytes.limit(); i++) {
+            if (bytes.get(i) == '\n') {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = i + 1;
+            }
+        }
+        return new LineIndex(Arrays.copyOf(starts, count), bytes.limit());
+    }
+
+    public int lineCount() {
+        return lineStarts.length;
+    }
+
+    /** Returns the line and column of {@code offset}, which may be the end of the source. */
+    public SourcePosition position(int offset) {
+        Validate.inclusiveBetween(0, length, offset, "offset should be within the source");
+        int line = Arrays.binarySearch(lineStarts, offset);
+        if (line < 0) {
+            line = -line - 2;
+        }
+        return new SourcePosition(line + 1, offset - lineStarts[line] + 1);
+    }
+}
@@ -0,0 +1,118 @@
+package interpreter.lexer;
+
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A {@link Lexer} over a {@link Reader} that holds only a window of the input: the tail of the
+ * previous chunk that the current token started in, plus the chunk read after it. The window stays
+ * proportional to the chunk size and the longest token, however long the input is, and the tokens
+ * are exactly the ones {@code new Lexer(wholeInput)} would produce.
+ *
+ * <p>The {@link SymbolTable} identifiers are interned into lives as long as the lexer, so memory
+ * is bounded by the number of distinct names as well as by the chunk size. A generated script with
+ * a fresh name per statement grows the table with the script; lex such input without a table, at
+ * the cost of a token per identifier and ids of {@link SymbolTable#NONE}.
+ *
+ * <p>A token is only handed out once the lexer has seen the character after it, since that
+ * character decides where the token ends ({@code =} against {@code ==}, or an identifier running
+ * on). A token that reaches the end of the window is lexed again from its start once the next
+ * chunk has been appended.
+ */
+public final class ReaderLexer implements TokenSource, Closeable {
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] chunk;
+    private String window = "";
+    private int windowOffset;
+    private final SymbolTable symbols;
+    private Lexer lexer;
+    private boolean exhausted;
+
+    public ReaderLexer(Reader reader) {
+        this(reader, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ReaderLexer(Reader reader, int chunkSize) {
+        this(reader, chunkSize, new SymbolTable());
+    }
+
+    /**
+     * Interns identifiers into {@code symbols}, or, when it is null, interns nothing; see {@link
+     * Lexer#Lexer(String, SymbolTable)}.
+     */
+    public ReaderLexer(Reader reader, int chunkSize, SymbolTable symbols) {
+        Validate.notNull(reader, "reader should not be null");
+        Validate.isTrue(chunkSize > 0, "chunkSize should be positive");
+        this.reader = reader;
+        this.chunk = new char[chunkSize];
+        this.symbols = symbols;
+        this.lexer = new Lexer(window, symbols);
+    }
+
+    /** Lexes the bytes of {@code channel}, decoded as {@code charset}. */
+    public static ReaderLexer of(ReadableByteChannel channel, Charset charset) {
+        Validate.notNull(channel, "channel should not be null");
+        Validate.notNull(charset, "charset should not be null");
+        return new ReaderLexer(Channels.newReader(channel, charset));
+    }
+
+    /**
+     * Returns the next token, reading more input as needed. A failed read is rethrown as an
+     * {@link UncheckedIOException}.
+     */
+    @Override
+    public Token nextToken() {
+        while (true) {
+            TokenType type = lexer.scan();
+            if (exhausted || lexer.getTokenEnd() < window.length()) {
+                return lexer.token(type);
+            }
+            refill(lexer.getTokenStart());
+        }
+    }
+
+    /** Counts from the start of the whole input, not of the window. */
+    @Override
+    public int tokenOffset() {
+        return windowOffset + lexer.getTokenStart();
+    }
+
+    @Override
+    public int symbol() {
+        return lexer.symbol();
+    }
+
+    /** Drops the window before {@code keepFrom} and appends the next chunk of input. */
+    private void refill(int keepFrom) {
+        int read;
+        try {
+            read = reader.read(chunk);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not read source", e);
+        }
+        String kept = window.substring(keepFrom);
+        windowOffset += keepFrom;
+        if (read < 0) {
+            exhausted = true;
+            window = kept;
+        } else {
+            window = kept.concat(new String(chunk, 0, read));
+        }
+        lexer = new Lexer(window, symbols);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,15 @@
+package interpreter.lexer;
+
+/**
+ * The outcome of {@link TokenBuffer#relex(TextEdit)}: the new buffer plus where it still agrees
+ * with the old one. Tokens before {@code firstChanged} sit at the same index and offset in both;
+ * old token {@code oldResume + i} equals new token {@code newResume + i}, shifted by the edit's
+ * delta. Everything in between was lexed afresh.
+ */
+public record RelexedTokens(TokenBuffer tokens, int firstChanged, int oldResume, int newResume) {
+
+    /** Returns how far token indices from {@code oldResume} on have moved. */
+    public int shift() {
+        return newResume - oldResume;
+    }
+}
@@ -0,0 +1,92 @@
+package interpreter.lexer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Finds where a run of whitespace, word characters (letters and {@code _}) or number characters
+ * (digits and {@code _}) ends, so {@link Lexer} can skip it in bulk. A scanner may stop anywhere
+ * inside a run, and only ever looks at ASCII; the lexer's scalar loops carry on from wherever it
+ * stops and handle everything else, so every scanner lexes the same tokens.
+ */
+interface RunScanner {
+    /** Sources shorter than this are not worth copying out for the vector scanner. */
+    int VECTOR_MIN_LENGTH = 256;
+
+    /** Leaves every run to the lexer's scalar loops. */
+    RunScanner SCALAR =
+            new RunScanner() {
+                @Override
+                public int whitespaceEnd(int from) {
+                    return from;
+                }
+
+                @Override
+                public int wordEnd(int from) {
+                    return from;
+                }
+
+                @Override
+                public int numberEnd(int from) {
+                    return from;
+                }
+            };
+
+    int whitespaceEnd(int from);
+
+    int wordEnd(int from);
+
+    int numberEnd(int from);
+
+    /**
+     * Returns the {@code VectorRunScanner} for {@code source} when the {@code
+     * jdk.incubator.vector} module is loaded and has hardware vectors of at least 256 bits behind
+     * it, and {@link #SCALAR} otherwise.
+     */
+    static RunScanner forSource(String source) {
+        if (Vectors.CONSTRUCTOR != null && source.length() >= VECTOR_MIN_LENGTH) {
+            try {
+                return (RunScanner) Vectors.CONSTRUCTOR.invokeExact(source);
+            } catch (Throwable e) {
+                throw new IllegalStateException("could not create a vector run scanner", e);
+            }
+        }
+        return SCALAR;
+    }
+
+    /**
+     * Finds {@code VectorRunScanner}, which lives in the {@code vector} source set so that only
+     * its compilation needs the incubator module. It is only looked up once the module is known
+     * to be loaded, since its vector types cannot even be linked without it.
+     */
+    final class Vectors {
+        /** Creates a vector scanner for a source, or is null when vectors are unavailable. */
+        static final MethodHandle CONSTRUCTOR = findConstructor();
+
+        private Vectors() {}
+
+        private static MethodHandle findConstructor() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                return null;
+            }
+            try {
+                var lookup = MethodHandles.lookup();
+                Class<?> scanner = Class.forName("interpreter.lexer.VectorRunScanner");
+                var isAccelerated =
+                        lookup.findStatic(
+                                scanner, "isAccelerated", MethodType.methodType(boolean.class));
+                if (!(boolean) isAccelerated.invokeExact()) {
+                    return null;
+                }
+                return lookup.findConstructor(
+                                scanner, MethodType.methodType(void.class, String.class))
+                        .asType(MethodType.methodType(RunScanner.class, String.class));
+            } catch (Throwable e) {
+                // Without the vector classes on the class path the lexer runs scalar, as it
+                // does without the module.
+                return null;
+            }
+        }
+    }
+}
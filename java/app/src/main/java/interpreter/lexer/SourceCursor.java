@@ -0,0 +1,78 @@
+package interpreter.lexer;
+
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import org.apache.commons.lang3.Validate;
+
+class SourceCursor implements TokenCursor {
+    private final TokenSource source;
+    private Token current;
+    private Token peek;
+    private int currentOffset;
+    private int peekOffset;
+    private int currentSymbol;
+    private int peekSymbol;
+    private int position;
+
+    SourceCursor(TokenSource source) {
+        Validate.notNull(source, "source should not be null");
+        this.source = source;
+        this.current = source.nextToken();
+        this.currentOffset = source.tokenOffset();
+        this.currentSymbol = source.symbol();
+        this.peek = source.nextToken();
+        this.peekOffset = source.tokenOffset();
+        this.peekSymbol = source.symbol();
+    }
+
+    @Override
+    public void advance() {
+        current = peek;
+        currentOffset = peekOffset;
+        currentSymbol = peekSymbol;
+        peek = source.nextToken();
+        peekOffset = source.tokenOffset();
+        peekSymbol = source.symbol();
+        position++;
+    }
+
+    @Override
+    public TokenType currentType() {
+        return current.type();
+    }
+
+    @Override
+    public TokenType peekType() {
+        return peek.type();
+    }
+
+    @Override
+    public Token current() {
+        return current;
+    }
+
+    @Override
+    public Token peek() {
+        return peek;
+    }
+
+    @Override
+    public int position() {
+        return position;
+    }
+
+    @Override
+    public int offset() {
+        return currentOffset;
+    }
+
+    @Override
+    public int peekOffset() {
+        return peekOffset;
+    }
+
+    @Override
+    public int symbol() {
+        return currentSymbol;
+    }
+}
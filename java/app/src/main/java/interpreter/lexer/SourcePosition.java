@@ -0,0 +1,16 @@
+package interpreter.lexer;
+
+import org.apache.commons.lang3.Validate;
+
+/** A one-based line and column in a source, as {@link LineIndex} computes them. */
+public record SourcePosition(int line, int column) {
+    public SourcePosition {
+        Validate.isTrue(line > 0, "line should be positive");
+        Validate.isTrue(column > 0, "column should be positive");
+    }
+
+    @Override
+    public String toString() {
+        return line + ":" + column;
+    }
+}
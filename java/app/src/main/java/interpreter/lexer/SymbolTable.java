@@ -0,0 +1,181 @@
+package interpreter.lexer;
+
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Interns identifier names into dense {@code int} ids, numbered from zero in the order the names
+ * are first seen. A name is hashed and compared straight from the range of the source it occurs
+ * in, so only its first occurrence allocates a {@code String}, and every occurrence shares one
+ * {@link Token}. Code that looks names up can index arrays by id instead of hashing strings.
+ *
+ * <p>A table is not thread-safe; lexers sharing one must take turns.
+ */
+public final class SymbolTable {
+    /** The id of anything that is not an interned identifier. */
+    public static final int NONE = -1;
+
+    /** Open addressing over ids plus one, so that zero marks an empty slot. */
+    private int[] slots;
+
+    private int[] hashes;
+    private String[] names;
+    private Token[] tokens;
+    private int size;
+
+    public SymbolTable() {
+        this(new int[64], new int[32], new String[32], new Token[32], 0);
+    }
+
+    private SymbolTable(int[] slots, int[] hashes, String[] names, Token[] tokens, int size) {
+        this.slots = slots;
+        this.hashes = hashes;
+        this.names = names;
+        this.tokens = tokens;
+        this.size = size;
+    }
+
+    /** Returns the id of {@code source[start, end)}, interning it first if it is new. */
+    public int intern(String source, int start, int end) {
+        Objects.checkFromToIndex(start, end, source.length());
+        // The hash is String#hashCode of the range, so intern(String) can use the cached one.
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + source.charAt(i);
+        }
+        int length = end - start;
+        int mask = slots.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id == NONE) {
+                return add(source.substring(start, end), hash, slot);
+            }
+            if (hashes[id] == hash
+                    && names[id].length() == length
+                    && source.regionMatches(start, names[id], 0, length)) {
+                return id;
+            }
+        }
+    }
+
+    public int intern(String name) {
+        Validate.notNull(name, "name should not be null");
+        return intern(name, 0, name.length());
+    }
+
+    /**
+     * Returns the id of the UTF-8 bytes {@code source[start, end)}. An ASCII name is hashed and
+     * compared in place; any other is decoded first.
+     */
+    public int intern(ByteBuffer source, int start, int end) {
+        Objects.checkFromToIndex(start, end, source.limit());
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            byte b = source.get(i);
+            if (b < 0) {
+                return intern(decode(source, start, end));
+            }
+            hash = 31 * hash + b;
+        }
+        int length = end - start;
+        int mask = slots.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id == NONE) {
+                return add(decode(source, start, end), hash, slot);
+            }
+            if (hashes[id] == hash
+                    && names[id].length() == length
+                    && asciiMatches(source, start, names[id])) {
+                return id;
+            }
+        }
+    }
+
+    /** Returns the id of {@code name}, or {@link #NONE} when it has not been interned. */
+    public int find(String name) {
+        Validate.notNull(name, "name should not be null");
+        int hash = name.hashCode();
+        int mask = slots.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id == NONE || hashes[id] == hash && names[id].equals(name)) {
+                return id;
+            }
+        }
+    }
+
+    public String name(int id) {
+        return names[Objects.checkIndex(id, size)];
+    }
+
+    /** Returns the {@link TokenType#IDENT} token shared by every occurrence of the name. */
+    public Token token(int id) {
+        return tokens[Objects.checkIndex(id, size)];
+    }
+
+    /** Returns the number of names interned so far; ids run from zero to one less than it. */
+    public int size() {
+        return size;
+    }
+
+    /** Returns an independent table that starts out with the same names under the same ids. */
+    public SymbolTable copy() {
+        return new SymbolTable(
+                slots.clone(), hashes.clone(), names.clone(), tokens.clone(), size);
+    }
+
+    private int add(String name, int hash, int slot) {
+        if (size == names.length) {
+            int capacity = size * 2;
+            hashes = Arrays.copyOf(hashes, capacity);
+            names = Arrays.copyOf(names, capacity);
+            tokens = Arrays.copyOf(tokens, capacity);
+        }
+        int id = size++;
+        hashes[id] = hash;
+        names[id] = name;
+        tokens[id] = new Token(TokenType.IDENT, name);
+        slots[slot] = id + 1;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = spread(hashes[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ hash >>> 16;
+    }
+
+    private static boolean asciiMatches(ByteBuffer source, int start, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (source.get(start + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String decode(ByteBuffer source, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        source.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
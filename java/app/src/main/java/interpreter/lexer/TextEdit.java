@@ -0,0 +1,48 @@
+package interpreter.lexer;
+
+import org.apache.commons.lang3.Validate;
+
+/** Replaces {@code removedLength} characters at {@code offset} with {@code insertedText}. */
+public record TextEdit(int offset, int removedLength, String insertedText) {
+    public TextEdit {
+        Validate.isTrue(offset >= 0, "offset should not be negative");
+        Validate.isTrue(removedLength >= 0, "removedLength should not be negative");
+        Validate.notNull(insertedText, "insertedText should not be null");
+    }
+
+    public static TextEdit insert(int offset, String text) {
+        return new TextEdit(offset, 0, text);
+    }
+
+    public static TextEdit delete(int offset, int length) {
+        return new TextEdit(offset, length, "");
+    }
+
+    /** Returns how far text after the edit moves. */
+    public int delta() {
+        return insertedText.length() - removedLength;
+    }
+
+    /** Returns the offset just past the removed range, in the text before the edit. */
+    public int removedEnd() {
+        return offset + removedLength;
+    }
+
+    /** Returns the offset just past the inserted text, in the text after the edit. */
+    public int insertedEnd() {
+        return offset + insertedText.length();
+    }
+
+    public String apply(String source) {
+        Validate.isTrue(
+                removedEnd() <= source.length(),
+                "edit ends at %d, past the end of a %d character source",
+                removedEnd(),
+                source.length());
+        return new StringBuilder(source.length() + delta())
+                .append(source, 0, offset)
+                .append(insertedText)
+                .append(source, removedEnd(), source.length())
+                .toString();
+    }
+}
@@ -0,0 +1,453 @@
+package interpreter.lexer;
+
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import interpreter.utils.TokenUtil;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A whole source lexed up front into parallel primitive arrays: one {@code byte} type ordinal and
+ * two {@code int}s (start offset, length) per token, instead of a {@link Token} record and a
+ * literal {@code String} each. Integer literals are only cut out of the source when {@link
+ * #literal(int)} or {@link #token(int)} asks for them, and identifiers are only interned into the
+ * buffer's {@link SymbolTable} then; every other token is a shared instance. Since reading a token
+ * can intern its name, a buffer is meant to be read by one thread at a time.
+ *
+ * <p>The buffer holds the same tokens sequential {@link Lexer#nextToken()} calls return, up to and
+ * including the {@link TokenType#EOF} at the end of the input. A {@code '\0'} inside the source
+ * lexes as an {@code EOF} too, exactly as it does for the streaming lexer.
+ */
+public final class TokenBuffer {
+    private static final TokenType[] TYPES = TokenType.values();
+    /** Chunks are at least this long; a shorter source is lexed sequentially. */
+    private static final int MIN_CHUNK = 1 << 16;
+
+    private final String source;
+    private final SymbolTable symbols;
+    private byte[] types;
+    private int[] starts;
+    private int[] lengths;
+    private int size;
+    private LineIndex lineIndex;
+
+    private TokenBuffer(String source, int capacity, SymbolTable symbols) {
+        this.source = source;
+        this.symbols = symbols;
+        this.types = new byte[capacity];
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+    }
+
+    public static TokenBuffer lex(String source) {
+        Validate.notNull(source, "source should not be null");
+        // Roughly one token per four characters of typical source; the arrays grow if needed.
+        TokenBuffer buffer =
+                new TokenBuffer(source, Math.max(16, source.length() / 4), new SymbolTable());
+        Lexer lexer = new Lexer(source, buffer.symbols);
+        TokenType type;
+        do {
+            type = lexer.scan();
+            buffer.add(type, lexer.getTokenStart(), lexer.getTokenEnd() - lexer.getTokenStart());
+        } while (type != TokenType.EOF || lexer.getTokenStart() < source.length());
+        return buffer;
+    }
+
+    /**
+     * Lexes {@code source} into exactly the tokens {@link #lex(String)} produces, on a dedicated
+     * pool of {@code parallelism} workers. The source is cut into chunks at guessed token
+     * boundaries, a {@code ;} followed by whitespace, and each chunk is lexed on its own; see
+     * {@link #lex(String, int[], int)} for how the chunks are checked and stitched together.
+     */
+    public static TokenBuffer lex(String source, int parallelism) {
+        Validate.notNull(source, "source should not be null");
+        Validate.isTrue(parallelism > 0, "parallelism should be positive");
+        // A few chunks per worker, so one slow chunk does not hold up the whole pool.
+        int chunks = Math.min(parallelism * 4, source.length() / MIN_CHUNK);
+        if (parallelism == 1 || chunks < 2) {
+            return lex(source);
+        }
+        return lex(source, chunkBounds(source, chunks), parallelism);
+    }
+
+    /**
+     * Lexes chunk {@code i}, {@code [bounds[i], bounds[i + 1])}, on its own, as if it began
+     * between two tokens, then stitches the chunks in order. Chunk {@code i + 1} is right from the
+     * first of its tokens that starts where the token following chunk {@code i} starts: a lexer at
+     * the same offset of the same text produces the same tokens. Everything before that token is
+     * lexed again sequentially, so a wrong guess costs at most one chunk.
+     */
+    static TokenBuffer lex(String source, int[] bounds, int parallelism) {
+        List<Chunk> chunks = new ArrayList<>(bounds.length - 1);
+        try (var pool = new ForkJoinPool(parallelism)) {
+            List<ForkJoinTask<Chunk>> tasks = new ArrayList<>(bounds.length - 1);
+            for (int i = 0; i < bounds.length - 1; i++) {
+                int from = bounds[i];
+                int to = bounds[i + 1];
+                tasks.add(pool.submit(() -> Chunk.lex(source, from, to)));
+            }
+            for (var task : tasks) {
+                chunks.add(task.join());
+            }
+        }
+
+        int capacity = chunks.stream().mapToInt(chunk -> chunk.tokens().size).sum();
+        TokenBuffer buffer = new TokenBuffer(source, capacity, new SymbolTable());
+        int next = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            if (next >= bounds[i + 1] && bounds[i + 1] < source.length()) {
+                // A token from an earlier chunk runs past this whole chunk.
+                continue;
+            }
+            next = buffer.stitch(chunks.get(i), next, bounds[i + 1]);
+        }
+        return buffer;
+    }
+
+    /**
+     * Splits {@code source} into up to {@code chunks} chunks of about equal length, each after the
+     * first {@code ;} followed by whitespace past its target offset. A target with no such point
+     * before the next one is dropped.
+     */
+    private static int[] chunkBounds(String source, int chunks) {
+        int chunkLength = source.length() / chunks;
+        int[] bounds = new int[chunks + 1];
+        int count = 1;
+        for (int i = 1; i < chunks; i++) {
+            int target = i * chunkLength;
+            int limit = Math.min(target + chunkLength, source.length() - 1);
+            for (int split = source.indexOf(';', target);
+                    split >= 0 && split < limit;
+                    split = source.indexOf(';', split + 1)) {
+                if (CharClass.isWhitespace(source.charAt(split + 1))) {
+                    bounds[count++] = split + 1;
+                    break;
+                }
+            }
+        }
+        bounds[count++] = source.length();
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Appends the tokens of {@code chunk} that the sequential lexer produces, given that its next
+     * token starts at {@code next}. Returns where the token after the chunk starts.
+     */
+    private int stitch(Chunk chunk, int next, int end) {
+        TokenBuffer tokens = chunk.tokens();
+        int candidate = tokens.firstStartingAtOrAfter(next);
+        if (candidate < tokens.size && tokens.starts[candidate] == next) {
+            addShifted(tokens, candidate, 0);
+            return chunk.next();
+        }
+        Lexer lexer = new Lexer(source, next);
+        TokenType type;
+        do {
+            type = lexer.scan();
+            int start = lexer.getTokenStart();
+            if (start >= end && end < source.length()) {
+                return start;
+            }
+            while (candidate < tokens.size && tokens.starts[candidate] < start) {
+                candidate++;
+            }
+            if (candidate < tokens.size && tokens.starts[candidate] == start) {
+                addShifted(tokens, candidate, 0);
+                return chunk.next();
+            }
+            add(type, start, lexer.getTokenEnd() - start);
+        } while (type != TokenType.EOF || lexer.getTokenStart() < source.length());
+        return source.length();
+    }
+
+    /**
+     * The tokens lexed from one chunk of a source, and where the first token past its end starts.
+     * The last chunk ends with the {@code EOF} at the end of the source.
+     */
+    private record Chunk(TokenBuffer tokens, int next) {
+        static Chunk lex(String source, int from, int to) {
+            TokenBuffer tokens =
+                    new TokenBuffer(source, Math.max(16, (to - from) / 4), new SymbolTable());
+            Lexer lexer = new Lexer(source, from, RunScanner.forSource(source), tokens.symbols);
+            TokenType type;
+            do {
+                type = lexer.scan();
+                int start = lexer.getTokenStart();
+                if (start >= to && to < source.length()) {
+                    return new Chunk(tokens, start);
+                }
+                tokens.add(type, start, lexer.getTokenEnd() - start);
+            } while (type != TokenType.EOF || lexer.getTokenStart() < source.length());
+            return new Chunk(tokens, source.length());
+        }
+    }
+
+    /**
+     * Applies {@code edit} to the source and re-lexes only the tokens it can have changed. A token
+     * survives in front of the edit if the lexer never looked at an edited character while
+     * producing it; since the lexer peeks one character past a token, that means ending strictly
+     * before the edit offset. Lexing then restarts at the end of the last survivor and stops as
+     * soon as a fresh token starts where an old token past the edit starts, shifted by the edit's
+     * delta: from the same offset over the same text, the lexer produces the same tokens.
+     *
+     * <p>The new buffer starts from a copy of this one's symbol table, so names keep their ids.
+     */
+    public RelexedTokens relex(TextEdit edit) {
+        Validate.notNull(edit, "edit should not be null");
+        String text = edit.apply(source);
+        int delta = edit.delta();
+        int firstChanged = firstEndingAtOrAfter(edit.offset());
+        int candidate = firstStartingAtOrAfter(edit.removedEnd());
+
+        TokenBuffer buffer = new TokenBuffer(text, size + 16, symbols.copy());
+        System.arraycopy(types, 0, buffer.types, 0, firstChanged);
+        System.arraycopy(starts, 0, buffer.starts, 0, firstChanged);
+        System.arraycopy(lengths, 0, buffer.lengths, 0, firstChanged);
+        buffer.size = firstChanged;
+
+        Lexer lexer = new Lexer(text, firstChanged == 0 ? 0 : end(firstChanged - 1));
+        TokenType type;
+        do {
+            type = lexer.scan();
+            int start = lexer.getTokenStart();
+            while (candidate < size && starts[candidate] + delta < start) {
+                candidate++;
+            }
+            if (candidate < size && starts[candidate] + delta == start) {
+                int newResume = buffer.size;
+                buffer.addShifted(this, candidate, delta);
+                return new RelexedTokens(buffer, firstChanged, candidate, newResume);
+            }
+            buffer.add(type, start, lexer.getTokenEnd() - start);
+        } while (type != TokenType.EOF || lexer.getTokenStart() < text.length());
+        return new RelexedTokens(buffer, firstChanged, size, buffer.size);
+    }
+
+    private int firstEndingAtOrAfter(int offset) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] + lengths[middle] < offset) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int firstStartingAtOrAfter(int offset) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < offset) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /** Appends the tokens of {@code other} from {@code from} on, shifted by {@code delta}. */
+    private void addShifted(TokenBuffer other, int from, int delta) {
+        int count = other.size - from;
+        if (size + count > types.length) {
+            int capacity = size + count;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        System.arraycopy(other.types, from, types, size, count);
+        System.arraycopy(other.lengths, from, lengths, size, count);
+        for (int i = 0; i < count; i++) {
+            starts[size + i] = other.starts[from + i] + delta;
+        }
+        size += count;
+    }
+
+    private void add(TokenType type, int start, int length) {
+        if (size == types.length) {
+            int capacity = types.length + (types.length >> 1) + 1;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        types[size] = (byte) type.ordinal();
+        starts[size] = start;
+        lengths[size] = length;
+        size++;
+    }
+
+    public String source() {
+        return source;
+    }
+
+    /**
+     * Returns the line index of the source, built on the first call. Building it is idempotent,
+     * so concurrent first calls at worst build it twice.
+     */
+    public LineIndex lineIndex() {
+        LineIndex lines = lineIndex;
+        if (lines == null) {
+            lines = LineIndex.of(source);
+            lineIndex = lines;
+        }
+        return lines;
+    }
+
+    /** Returns the line and column at which the token at {@code index} starts. */
+    public SourcePosition position(int index) {
+        return lineIndex().position(start(index));
+    }
+
+    /** Returns the number of tokens, including the trailing {@link TokenType#EOF}. */
+    public int size() {
+        return size;
+    }
+
+    public TokenType type(int index) {
+        return TYPES[types[checkIndex(index)]];
+    }
+
+    public int start(int index) {
+        return starts[checkIndex(index)];
+    }
+
+    public int length(int index) {
+        return lengths[checkIndex(index)];
+    }
+
+    public int end(int index) {
+        return start(index) + lengths[index];
+    }
+
+    public String literal(int index) {
+        TokenType type = type(index);
+        if (type == TokenType.IDENT) {
+            return symbols.name(symbol(index));
+        }
+        Token fixed = TokenUtil.fixedToken(type);
+        if (fixed != null) {
+            return fixed.literal();
+        }
+        return source.substring(starts[index], starts[index] + lengths[index]);
+    }
+
+    /**
+     * Returns the id of the identifier at {@code index}, interning it on first use, or {@link
+     * SymbolTable#NONE} for any other token.
+     */
+    public int symbol(int index) {
+        if (type(index) != TokenType.IDENT) {
+            return SymbolTable.NONE;
+        }
+        return symbols.intern(source, starts[index], starts[index] + lengths[index]);
+    }
+
+    public SymbolTable symbols() {
+        return symbols;
+    }
+
+    public Token token(int index) {
+        TokenType type = type(index);
+        if (type == TokenType.IDENT) {
+            return symbols.token(symbol(index));
+        }
+        Token fixed = TokenUtil.fixedToken(type);
+        if (fixed != null) {
+            return fixed;
+        }
+        return new Token(type, source.substring(starts[index], starts[index] + lengths[index]));
+    }
+
+    /** Returns a cursor positioned on the first token, as a freshly built parser expects. */
+    public TokenCursor cursor() {
+        return new BufferCursor(0);
+    }
+
+    /** Returns a cursor positioned on the token at {@code index}. */
+    public TokenCursor cursor(int index) {
+        return new BufferCursor(checkIndex(index));
+    }
+
+    private int checkIndex(int index) {
+        return Objects.checkIndex(index, size);
+    }
+
+    private final class BufferCursor implements TokenCursor {
+        private int index;
+        private Token current;
+        private Token peek;
+
+        private BufferCursor(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void advance() {
+            if (index < size - 1) {
+                index++;
+                current = peek;
+                peek = null;
+            }
+        }
+
+        @Override
+        public TokenType currentType() {
+            return TYPES[types[index]];
+        }
+
+        @Override
+        public TokenType peekType() {
+            return TYPES[types[peekIndex()]];
+        }
+
+        @Override
+        public Token current() {
+            if (current == null) {
+                current = token(index);
+            }
+            return current;
+        }
+
+        @Override
+        public Token peek() {
+            if (peek == null) {
+                peek = token(peekIndex());
+            }
+            return peek;
+        }
+
+        @Override
+        public int position() {
+            return index;
+        }
+
+        @Override
+        public int offset() {
+            return starts[index];
+        }
+
+        @Override
+        public int peekOffset() {
+            return starts[peekIndex()];
+        }
+
+        @Override
+        public int symbol() {
+            return TokenBuffer.this.symbol(index);
+        }
+
+        private int peekIndex() {
+            return Math.min(index + 1, size - 1);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package interpreter.lexer;
+
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+
+/**
+ * The parser's two-token window over a token stream. Types are always available; the {@link
+ * Token} records themselves are only built when {@link #current()} or {@link #peek()} is called.
+ */
+public interface TokenCursor {
+    void advance();
+
+    TokenType currentType();
+
+    TokenType peekType();
+
+    Token current();
+
+    Token peek();
+
+    /** Returns the index of the current token in the stream, counting from zero. */
+    int position();
+
+    /**
+     * Returns the offset of the current token in the source, or -1 when the underlying {@link
+     * TokenSource} does not track offsets.
+     */
+    int offset();
+
+    int peekOffset();
+
+    /** Returns the symbol id of the current token; see {@link TokenSource#symbol()}. */
+    int symbol();
+
+    static TokenCursor over(TokenSource source) {
+        return new SourceCursor(source);
+    }
+}
@@ -0,0 +1,24 @@
+package interpreter.lexer;
+
+import interpreter.token.Token;
+
+/** A stream of tokens that ends in, and then keeps returning, {@code TokenType.EOF}. */
+public interface TokenSource {
+    Token nextToken();
+
+    /**
+     * Returns where the token {@link #nextToken()} returned last starts in the source, or -1 when
+     * this source does not know.
+     */
+    default int tokenOffset() {
+        return -1;
+    }
+
+    /**
+     * Returns the {@link SymbolTable} id of the token {@link #nextToken()} returned last, or {@link
+     * SymbolTable#NONE} when it is not an identifier or this source does not intern names.
+     */
+    default int symbol() {
+        return SymbolTable.NONE;
+    }
+}
@@ -0,0 +1,300 @@
+package interpreter.lexer;
+
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import interpreter.utils.TokenUtil;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import lombok.Getter;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A lexer over UTF-8 bytes, typically a file mapped with {@link #map(Path)}, that never decodes or
+ * copies the whole input. ASCII bytes are classified straight from the lexer's lookup table;
+ * multibyte sequences are decoded one code point at a time for the {@link Character} predicates.
+ * Only integer and illegal literals are decoded, when their {@link Token} is built, and identifiers
+ * are interned into a {@link SymbolTable} straight from the bytes; every other token is a shared
+ * instance. Token bounds are byte offsets.
+ *
+ * <p>For valid UTF-8 the tokens are the ones {@link Lexer} produces over the decoded text, except
+ * that characters outside the Basic Multilingual Plane are classified whole: a supplementary
+ * letter belongs to an identifier here, where {@code Lexer} sees two surrogates and reports each
+ * as {@code ILLEGAL}. Each byte that does not start a well-formed sequence is an {@code ILLEGAL}
+ * token of its own.
+ */
+public final class Utf8Lexer implements TokenSource {
+    private static final int REPLACEMENT = 0xFFFD;
+
+    private final ByteBuffer input;
+    private final int length;
+    @Getter private final SymbolTable symbols = new SymbolTable();
+    private int symbol = SymbolTable.NONE;
+    private int position = 0;
+    private int readPosition = 0;
+    private int ch = 0;
+    @Getter private int tokenStart = 0;
+    @Getter private int tokenEnd = 0;
+
+    /** Lexes the bytes between {@code input}'s position and limit, leaving the buffer untouched. */
+    public Utf8Lexer(ByteBuffer input) {
+        Validate.notNull(input, "input should not be null");
+        this.input = input.slice();
+        this.length = this.input.limit();
+        readChar();
+    }
+
+    /**
+     * Maps {@code path} read-only and lexes it in place. The mapping outlives the file channel; a
+     * file over 2 GiB cannot be mapped into one buffer and is rejected.
+     */
+    public static Utf8Lexer map(Path path) throws IOException {
+        Validate.notNull(path, "path should not be null");
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Utf8Lexer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @Override
+    public Token nextToken() {
+        TokenType type = scan();
+        if (type == TokenType.IDENT) {
+            symbol = symbols.intern(input, tokenStart, tokenEnd);
+            return symbols.token(symbol);
+        }
+        symbol = SymbolTable.NONE;
+        Token fixed = TokenUtil.fixedToken(type);
+        if (fixed != null) {
+            return fixed;
+        }
+        return new Token(type, literal(tokenStart, tokenEnd));
+    }
+
+    /** Returns the byte offset of the last token; see {@link LineIndex#of(ByteBuffer)}. */
+    @Override
+    public int tokenOffset() {
+        return tokenStart;
+    }
+
+    @Override
+    public int symbol() {
+        return symbol;
+    }
+
+    /**
+     * Scans the next token without materializing it: returns its type and leaves its byte bounds
+     * in {@link #getTokenStart()} and {@link #getTokenEnd()}.
+     */
+    TokenType scan() {
+        if (isWhitespace(ch)) {
+            skipWhitespace();
+        }
+        tokenStart = Math.min(position, length);
+        TokenType type =
+                switch (ch) {
+                    case '=' -> twoCharOperator('=', TokenType.EQ, TokenType.ASSIGN);
+                    case '!' -> twoCharOperator('=', TokenType.NOT_EQ, TokenType.BANG);
+                    case '>' -> twoCharOperator('=', TokenType.GT_EQ, TokenType.GT);
+                    case '<' -> twoCharOperator('=', TokenType.LT_EQ, TokenType.LT);
+                    case '&' -> twoCharOperator('&', TokenType.AND, TokenType.ILLEGAL);
+                    case '|' -> twoCharOperator('|', TokenType.OR, TokenType.ILLEGAL);
+                    case '*' -> advance(TokenType.ASTERISK);
+                    case '%' -> advance(TokenType.PERCENT);
+                    case '-' -> advance(TokenType.MINUS);
+                    case '+' -> advance(TokenType.PLUS);
+                    case '/' -> advance(TokenType.SLASH);
+                    case '(' -> advance(TokenType.LPAREN);
+                    case ')' -> advance(TokenType.RPAREN);
+                    case '{' -> advance(TokenType.LBRACE);
+                    case '}' -> advance(TokenType.RBRACE);
+                    case ',' -> advance(TokenType.COMMA);
+                    case ';' -> advance(TokenType.SEMICOLON);
+                    case '\0' -> advance(TokenType.EOF);
+                    default -> {
+                        if (isLetter(ch)) {
+                            readIdentifier();
+                            yield TokenUtil.getTypeForIdentifier(input, tokenStart, position);
+                        } else if (isDigit(ch)) {
+                            yield readNumber() ? TokenType.INT : TokenType.ILLEGAL;
+                        } else {
+                            // Consume the offending character so the stream always makes progress.
+                            yield advance(TokenType.ILLEGAL);
+                        }
+                    }
+                };
+        tokenEnd = Math.min(position, length);
+        return type;
+    }
+
+    /** Decodes the literal at bytes {@code [start, end)}. */
+    String literal(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        input.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Moves to the code point at {@code readPosition}, or to {@code '\0'} past the end. */
+    private void readChar() {
+        position = readPosition;
+        if (readPosition >= length) {
+            ch = '\0';
+            readPosition++;
+            return;
+        }
+        int lead = input.get(readPosition) & 0xFF;
+        if (lead < 0x80) {
+            ch = lead;
+            readPosition++;
+        } else {
+            decodeMultibyte(lead);
+        }
+    }
+
+    /**
+     * Decodes the sequence led by {@code lead}, rejecting overlong forms, surrogates and values
+     * past U+10FFFF as the UTF-8 decoder does. A malformed sequence consumes only its first byte.
+     */
+    private void decodeMultibyte(int lead) {
+        int width;
+        int codePoint;
+        int min;
+        int max = 0xBF;
+        if (lead >= 0xC2 && lead <= 0xDF) {
+            width = 2;
+            codePoint = lead & 0x1F;
+            min = 0x80;
+        } else if (lead >= 0xE0 && lead <= 0xEF) {
+            width = 3;
+            codePoint = lead & 0x0F;
+            min = lead == 0xE0 ? 0xA0 : 0x80;
+            max = lead == 0xED ? 0x9F : 0xBF;
+        } else if (lead >= 0xF0 && lead <= 0xF4) {
+            width = 4;
+            codePoint = lead & 0x07;
+            min = lead == 0xF0 ? 0x90 : 0x80;
+            max = lead == 0xF4 ? 0x8F : 0xBF;
+        } else {
+            malformed();
+            return;
+        }
+        if (readPosition + width > length) {
+            malformed();
+            return;
+        }
+        for (int i = 1; i < width; i++) {
+            int next = input.get(readPosition + i) & 0xFF;
+            if (next < (i == 1 ? min : 0x80) || next > (i == 1 ? max : 0xBF)) {
+                malformed();
+                return;
+            }
+            codePoint = codePoint << 6 | next & 0x3F;
+        }
+        ch = codePoint;
+        readPosition += width;
+    }
+
+    private void malformed() {
+        ch = REPLACEMENT;
+        readPosition++;
+    }
+
+    /** Returns the byte after the current character, which only matters when it is ASCII. */
+    private int peekByte() {
+        return readPosition < length ? input.get(readPosition) : '\0';
+    }
+
+    private TokenType twoCharOperator(char second, TokenType pair, TokenType single) {
+        if (peekByte() == second) {
+            readChar();
+            return advance(pair);
+        }
+        return advance(single);
+    }
+
+    /*
+     * The loops below run over ASCII bytes without decoding them, and only go through readChar()
+     * for a multibyte character before carrying on.
+     */
+
+    private void skipWhitespace() {
+        do {
+            int index = readPosition;
+            while (index < length) {
+                byte b = input.get(index);
+                if (b < 0 || !CharClass.isWhitespace((char) b)) {
+                    break;
+                }
+                index++;
+            }
+            moveTo(index);
+        } while (isWhitespace(ch));
+    }
+
+    /** Reads letters and underscores. */
+    private void readIdentifier() {
+        do {
+            int index = readPosition;
+            while (index < length) {
+                byte b = input.get(index);
+                if (b < 0 || !CharClass.isLetter((char) b) && b != '_') {
+                    break;
+                }
+                index++;
+            }
+            moveTo(index);
+        } while (isLetter(ch));
+    }
+
+    /**
+     * Reads digits and underscores, and returns whether the run was made of digits only; a run
+     * with underscores in it is an illegal token.
+     */
+    private boolean readNumber() {
+        boolean digitsOnly = true;
+        do {
+            int index = readPosition;
+            while (index < length) {
+                byte b = input.get(index);
+                if (b == '_') {
+                    digitsOnly = false;
+                } else if (b < 0 || !CharClass.isDigit((char) b)) {
+                    break;
+                }
+                index++;
+            }
+            moveTo(index);
+        } while (isDigit(ch));
+        return digitsOnly;
+    }
+
+    private void moveTo(int index) {
+        readPosition = index;
+        readChar();
+    }
+
+    private TokenType advance(TokenType type) {
+        readChar();
+        return type;
+    }
+
+    private static boolean isWhitespace(int codePoint) {
+        return codePoint < 0x10000
+                ? CharClass.isWhitespace((char) codePoint)
+                : Character.isWhitespace(codePoint);
+    }
+
+    private static boolean isLetter(int codePoint) {
+        return codePoint < 0x10000
+                ? CharClass.isLetter((char) codePoint)
+                : Character.isLetter(codePoint);
+    }
+
+    private static boolean isDigit(int codePoint) {
+        return codePoint < 0x10000
+                ? CharClass.isDigit((char) codePoint)
+                : Character.isDigit(codePoint);
+    }
+}
@@ -0,0 +1,46 @@
+package interpreter.node;
+
+import interpreter.eval.Environment;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.NullValue;
+import interpreter.eval.ReturnValue;
+import interpreter.eval.Value;
+
+/** Runs statements up to the first that returns or fails, whose value it passes on as is. */
+final class BlockNode extends Node {
+    private final Node[] statements;
+
+    BlockNode(Node[] statements) {
+        this.statements = statements;
+        for (Node statement : statements) {
+            adopt(statement);
+        }
+    }
+
+    @Override
+    Value execute(Environment frame) {
+        Value result = NullValue.NULL;
+        for (Node statement : statements) {
+            result = statement.execute(frame);
+            if (result instanceof ReturnValue || result instanceof ErrorValue) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    Node statement(int index) {
+        return statements[index];
+    }
+
+    @Override
+    boolean replaceChild(Node child, Node replacement) {
+        for (int i = 0; i < statements.length; i++) {
+            if (statements[i] == child) {
+                statements[i] = replacement;
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+package interpreter.node;
+
+import interpreter.ast.FunctionLiteral;
+import interpreter.eval.CallLoop;
+import interpreter.eval.Environment;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.FunctionValue;
+import interpreter.eval.Value;
+
+/**
+ * A call. It caches the body of the last function literal it called, so a call site that always
+ * calls closures of one literal, as most do, skips the lookup of its body.
+ */
+final class CallNode extends Node {
+    private Node function;
+    private final Node[] arguments;
+    private final NodeTranslator translator;
+    private final CallLoop<BlockNode> calls;
+    private final boolean tail;
+    private FunctionLiteral cachedLiteral;
+    private BlockNode cachedBody;
+
+    /** A {@code tail} call returns {@link CallLoop#TAIL_CALL} instead of making the call itself. */
+    CallNode(
+            Node function,
+            Node[] arguments,
+            NodeTranslator translator,
+            CallLoop<BlockNode> calls,
+            boolean tail) {
+        this.function = adopt(function);
+        this.arguments = arguments;
+        this.translator = translator;
+        this.calls = calls;
+        this.tail = tail;
+        for (Node argument : arguments) {
+            adopt(argument);
+        }
+    }
+
+    @Override
+    Value execute(Environment frame) {
+        Value callee = function.execute(frame);
+        if (callee instanceof ErrorValue) {
+            return callee;
+        }
+        Value[] values = new Value[arguments.length];
+        for (int i = 0; i < values.length; i++) {
+            Value argument = arguments[i].execute(frame);
+            if (argument instanceof ErrorValue) {
+                return argument;
+            }
+            values[i] = argument;
+        }
+        var error = CallLoop.check(callee, values.length);
+        if (error != null) {
+            return error;
+        }
+        var functionValue = (FunctionValue) callee;
+        FunctionLiteral literal = functionValue.literal();
+        if (literal != cachedLiteral) {
+            cachedBody = translator.body(literal);
+            cachedLiteral = literal;
+        }
+        return calls.call(functionValue, cachedBody, values, tail);
+    }
+
+    @Override
+    boolean replaceChild(Node child, Node replacement) {
+        if (function == child) {
+            function = replacement;
+            return true;
+        }
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i] == child) {
+                arguments[i] = replacement;
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,18 @@
+package interpreter.node;
+
+import interpreter.eval.Environment;
+import interpreter.eval.Value;
+
+/** A literal, evaluated once when the tree was built. */
+final class ConstantNode extends Node {
+    private final Value value;
+
+    ConstantNode(Value value) {
+        this.value = value;
+    }
+
+    @Override
+    Value execute(Environment frame) {
+        return value;
+    }
+}
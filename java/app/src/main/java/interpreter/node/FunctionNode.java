@@ -0,0 +1,20 @@
+package interpreter.node;
+
+import interpreter.ast.FunctionLiteral;
+import interpreter.eval.Environment;
+import interpreter.eval.FunctionValue;
+import interpreter.eval.Value;
+
+/** A function literal, which closes over the frame it is executed in. */
+final class FunctionNode extends Node {
+    private final FunctionLiteral literal;
+
+    FunctionNode(FunctionLiteral literal) {
+        this.literal = literal;
+    }
+
+    @Override
+    Value execute(Environment frame) {
+        return FunctionValue.closure(literal, frame);
+    }
+}
@@ -0,0 +1,41 @@
+package interpreter.node;
+
+import interpreter.eval.Environment;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.Evaluator;
+import interpreter.eval.NullValue;
+import interpreter.eval.Value;
+
+final class IfNode extends Node {
+    private Node condition;
+    private final BlockNode consequence;
+    private final BlockNode alternative;
+
+    /** {@code alternative} is null for an {@code if} without an {@code else}. */
+    IfNode(Node condition, BlockNode consequence, BlockNode alternative) {
+        this.condition = adopt(condition);
+        this.consequence = adopt(consequence);
+        this.alternative = adopt(alternative);
+    }
+
+    @Override
+    Value execute(Environment frame) {
+        Value value = condition.execute(frame);
+        if (value instanceof ErrorValue) {
+            return value;
+        }
+        if (Evaluator.isTruthy(value)) {
+            return consequence.execute(frame);
+        }
+        return alternative != null ? alternative.execute(frame) : NullValue.NULL;
+    }
+
+    @Override
+    boolean replaceChild(Node child, Node replacement) {
+        if (condition != child) {
+            return false;
+        }
+        condition = replacement;
+        return true;
+    }
+}
@@ -0,0 +1,338 @@
+package interpreter.node;
+
+import interpreter.eval.BooleanValue;
+import interpreter.eval.Environment;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.Evaluator;
+import interpreter.eval.IntegerValue;
+import interpreter.eval.Value;
+import interpreter.token.Token;
+
+/**
+ * A binary operator. It starts out {@link Uninitialized}, and the first time it produces a value
+ * it replaces itself with a node specialized to the operator and the operand types it saw, such
+ * as {@link AddIntegers}, which checks the types with a cheap guard and does nothing else. When
+ * the guard fails the node replaces itself for good with the {@link Generic} one, which goes
+ * through {@link Evaluator#evalInfixExpression} every time. Errors never rewrite a node.
+ */
+abstract class InfixNode extends Node {
+    final Token operator;
+    Node left;
+    Node right;
+
+    private InfixNode(Token operator, Node left, Node right) {
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+    }
+
+    /** Takes over the operator and the operands of {@code node}, which it is to replace. */
+    private InfixNode(InfixNode node) {
+        this(node.operator, node.left, node.right);
+    }
+
+    static InfixNode create(Token operator, Node left, Node right) {
+        InfixNode node = new Uninitialized(operator, left, right);
+        node.adoptChildren();
+        return node;
+    }
+
+    @Override
+    final void adoptChildren() {
+        adopt(left);
+        adopt(right);
+    }
+
+    @Override
+    final boolean replaceChild(Node child, Node replacement) {
+        if (left == child) {
+            left = replacement;
+        } else if (right == child) {
+            right = replacement;
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gives up on the specialization, which did not fit the left operand, after evaluating the
+     * right one.
+     */
+    final Value generalize(Value left, Environment frame) {
+        if (left instanceof ErrorValue) {
+            return left;
+        }
+        Value right = this.right.execute(frame);
+        if (right instanceof ErrorValue) {
+            return right;
+        }
+        return generalize(left, right);
+    }
+
+    final Value generalize(Value left, Value right) {
+        if (right instanceof ErrorValue) {
+            return right;
+        }
+        replace(new Generic(this));
+        return Evaluator.evalInfixExpression(operator, left, right);
+    }
+
+    static final class Uninitialized extends InfixNode {
+        private Uninitialized(Token operator, Node left, Node right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value left = this.left.execute(frame);
+            if (left instanceof ErrorValue) {
+                return left;
+            }
+            Value right = this.right.execute(frame);
+            if (right instanceof ErrorValue) {
+                return right;
+            }
+            replace(specialize(left, right));
+            return Evaluator.evalInfixExpression(operator, left, right);
+        }
+
+        private InfixNode specialize(Value left, Value right) {
+            if (left instanceof IntegerValue && right instanceof IntegerValue) {
+                return switch (operator.type()) {
+                    case PLUS -> new AddIntegers(this);
+                    case MINUS -> new SubtractIntegers(this);
+                    case ASTERISK -> new MultiplyIntegers(this);
+                    case SLASH -> new DivideIntegers(this);
+                    case LT -> new LessIntegers(this);
+                    case GT -> new GreaterIntegers(this);
+                    case EQ -> new EqualIntegers(this);
+                    case NOT_EQ -> new NotEqualIntegers(this);
+                    default -> new Generic(this);
+                };
+            }
+            if (left instanceof BooleanValue && right instanceof BooleanValue) {
+                return switch (operator.type()) {
+                    case EQ -> new EqualBooleans(this);
+                    case NOT_EQ -> new NotEqualBooleans(this);
+                    default -> new Generic(this);
+                };
+            }
+            return new Generic(this);
+        }
+    }
+
+    static final class AddIntegers extends InfixNode {
+        private AddIntegers(InfixNode node) {
+            super(node);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value left = this.left.execute(frame);
+            if (!(left instanceof IntegerValue l)) {
+                return generalize(left, frame);
+            }
+            Value right = this.right.execute(frame);
+            if (!(right instanceof IntegerValue r)) {
+                return generalize(left, right);
+            }
+            return IntegerValue.of(l.value() + r.value());
+        }
+    }
+
+    static final class SubtractIntegers extends InfixNode {
+        private SubtractIntegers(InfixNode node) {
+            super(node);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value left = this.left.execute(frame);
+            if (!(left instanceof IntegerValue l)) {
+                return generalize(left, frame);
+            }
+            Value right = this.right.execute(frame);
+            if (!(right instanceof IntegerValue r)) {
+                return generalize(left, right);
+            }
+            return IntegerValue.of(l.value() - r.value());
+        }
+    }
+
+    static final class MultiplyIntegers extends InfixNode {
+        private MultiplyIntegers(InfixNode node) {
+            super(node);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value left = this.left.execute(frame);
+            if (!(left instanceof IntegerValue l)) {
+                return generalize(left, frame);
+            }
+            Value right = this.right.execute(frame);
+            if (!(right instanceof IntegerValue r)) {
+                return generalize(left, right);
+            }
+            return IntegerValue.of(l.value() * r.value());
+        }
+    }
+
+    static final class DivideIntegers extends InfixNode {
+        private DivideIntegers(InfixNode node) {
+            super(node);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value left = this.left.execute(frame);
+            if (!(left instanceof IntegerValue l)) {
+                return generalize(left, frame);
+            }
+            Value right = this.right.execute(frame);
+            if (!(right instanceof IntegerValue r)) {
+                return generalize(left, right);
+            }
+            if (r.value() == 0) {
+                return new ErrorValue("division by zero");
+            }
+            return IntegerValue.of(l.value() / r.value());
+        }
+    }
+
+    static final class LessIntegers extends InfixNode {
+        private LessIntegers(InfixNode node) {
+            super(node);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value left = this.left.execute(frame);
+            if (!(left instanceof IntegerValue l)) {
+                return generalize(left, frame);
+            }
+            Value right = this.right.execute(frame);
+            if (!(right instanceof IntegerValue r)) {
+                return generalize(left, right);
+            }
+            return BooleanValue.of(l.value() < r.value());
+        }
+    }
+
+    static final class GreaterIntegers extends InfixNode {
+        private GreaterIntegers(InfixNode node) {
+            super(node);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value left = this.left.execute(frame);
+            if (!(left instanceof IntegerValue l)) {
+                return generalize(left, frame);
+            }
+            Value right = this.right.execute(frame);
+            if (!(right instanceof IntegerValue r)) {
+                return generalize(left, right);
+            }
+            return BooleanValue.of(l.value() > r.value());
+        }
+    }
+
+    static final class EqualIntegers extends InfixNode {
+        private EqualIntegers(InfixNode node) {
+            super(node);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value left = this.left.execute(frame);
+            if (!(left instanceof IntegerValue l)) {
+                return generalize(left, frame);
+            }
+            Value right = this.right.execute(frame);
+            if (!(right instanceof IntegerValue r)) {
+                return generalize(left, right);
+            }
+            return BooleanValue.of(l.value() == r.value());
+        }
+    }
+
+    static final class NotEqualIntegers extends InfixNode {
+        private NotEqualIntegers(InfixNode node) {
+            super(node);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value left = this.left.execute(frame);
+            if (!(left instanceof IntegerValue l)) {
+                return generalize(left, frame);
+            }
+            Value right = this.right.execute(frame);
+            if (!(right instanceof IntegerValue r)) {
+                return generalize(left, right);
+            }
+            return BooleanValue.of(l.value() != r.value());
+        }
+    }
+
+    static final class EqualBooleans extends InfixNode {
+        private EqualBooleans(InfixNode node) {
+            super(node);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value left = this.left.execute(frame);
+            if (!(left instanceof BooleanValue l)) {
+                return generalize(left, frame);
+            }
+            Value right = this.right.execute(frame);
+            if (!(right instanceof BooleanValue r)) {
+                return generalize(left, right);
+            }
+            // Booleans are singletons, so identity is value equality.
+            return BooleanValue.of(l == r);
+        }
+    }
+
+    static final class NotEqualBooleans extends InfixNode {
+        private NotEqualBooleans(InfixNode node) {
+            super(node);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value left = this.left.execute(frame);
+            if (!(left instanceof BooleanValue l)) {
+                return generalize(left, frame);
+            }
+            Value right = this.right.execute(frame);
+            if (!(right instanceof BooleanValue r)) {
+                return generalize(left, right);
+            }
+            return BooleanValue.of(l != r);
+        }
+    }
+
+    /** Any operator over any operands; it is never replaced. */
+    static final class Generic extends InfixNode {
+        private Generic(InfixNode node) {
+            super(node);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value left = this.left.execute(frame);
+            if (left instanceof ErrorValue) {
+                return left;
+            }
+            Value right = this.right.execute(frame);
+            if (right instanceof ErrorValue) {
+                return right;
+            }
+            return Evaluator.evalInfixExpression(operator, left, right);
+        }
+    }
+}
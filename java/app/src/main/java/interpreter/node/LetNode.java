@@ -0,0 +1,40 @@
+package interpreter.node;
+
+import interpreter.ast.Identifier;
+import interpreter.eval.Environment;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.NullValue;
+import interpreter.eval.Value;
+
+final class LetNode extends Node {
+    private final Identifier identifier;
+    private Node value;
+
+    LetNode(Identifier identifier, Node value) {
+        this.identifier = identifier;
+        this.value = adopt(value);
+    }
+
+    @Override
+    Value execute(Environment frame) {
+        Value result = value.execute(frame);
+        if (result instanceof ErrorValue) {
+            return result;
+        }
+        if (identifier.isResolved()) {
+            frame.set(identifier.depth(), identifier.slot(), result);
+        } else {
+            frame.set(identifier.symbol(), identifier.token().literal(), result);
+        }
+        return NullValue.NULL;
+    }
+
+    @Override
+    boolean replaceChild(Node child, Node replacement) {
+        if (value != child) {
+            return false;
+        }
+        value = replacement;
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package interpreter.node;
+
+import interpreter.eval.Environment;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.ReturnValue;
+import interpreter.eval.Value;
+
+/**
+ * An executable node of a program tree. A node may replace itself in its parent with one that does
+ * the same job faster for the values it has seen, so the tree changes as it runs. Every node that
+ * has children adopts them and knows how to swap one out.
+ */
+abstract class Node {
+    private Node parent;
+
+    /**
+     * Evaluates this node. A {@link ReturnValue} or an {@link ErrorValue} stops the enclosing
+     * block, as it does in the evaluator.
+     */
+    abstract Value execute(Environment frame);
+
+    /** Makes this node the parent of {@code child}, which may be null, and returns it. */
+    final <T extends Node> T adopt(T child) {
+        if (child != null) {
+            ((Node) child).parent = this;
+        }
+        return child;
+    }
+
+    /**
+     * Replaces this node in its parent with {@code replacement} and returns the replacement. A
+     * node that a reentrant execution already replaced stays where it is out of the tree, and the
+     * replacement is only used for the evaluation in progress.
+     */
+    final <T extends Node> T replace(T replacement) {
+        if (parent != null && parent.replaceChild(this, replacement)) {
+            parent.adopt(replacement);
+            replacement.adoptChildren();
+        }
+        return replacement;
+    }
+
+    /**
+     * Adopts the children a replacement took over from the node it replaces. They keep their old
+     * parent until then, so a replacement that never makes it into the tree leaves them alone.
+     */
+    void adoptChildren() {}
+
+    /** Swaps {@code replacement} in for {@code child}, returning false if it is not a child. */
+    boolean replaceChild(Node child, Node replacement) {
+        return false;
+    }
+}
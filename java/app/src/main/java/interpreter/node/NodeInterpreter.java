@@ -0,0 +1,35 @@
+package interpreter.node;
+
+import interpreter.ast.FunctionLiteral;
+import interpreter.ast.Program;
+import interpreter.eval.Environment;
+import interpreter.eval.Evaluator;
+import interpreter.eval.Value;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Runs programs as trees of executable nodes that specialize themselves to the values flowing
+ * through them. An operator node that has only seen integers, say, replaces itself with one that
+ * checks for integers and computes the result directly, and gives that up for a generic node the
+ * first time the check fails; call sites cache the body of the function they call. Function
+ * bodies keep what they learned across calls and across programs, so a hot function pays for the
+ * dispatch on operators and operand types only while it warms up.
+ *
+ * <p>Results, errors and tail calls are those of the {@link Evaluator}. The bodies of every
+ * function literal the interpreter has called stay reachable from it. An interpreter is not
+ * thread-safe.
+ */
+public final class NodeInterpreter {
+    private final NodeTranslator translator = new NodeTranslator();
+
+    public Value eval(Program program, Environment environment) {
+        Validate.notNull(program, "program should not be null");
+        Validate.notNull(environment, "environment should not be null");
+        return translator.program(program).execute(environment);
+    }
+
+    /** Returns the nodes {@code literal}'s body runs as, translating them if need be. */
+    BlockNode body(FunctionLiteral literal) {
+        return translator.body(literal);
+    }
+}
@@ -0,0 +1,120 @@
+package interpreter.node;
+
+import interpreter.ast.BlockStatement;
+import interpreter.ast.BooleanLiteralExpression;
+import interpreter.ast.CallExpression;
+import interpreter.ast.Expression;
+import interpreter.ast.ExpressionStatement;
+import interpreter.ast.FunctionLiteral;
+import interpreter.ast.Identifier;
+import interpreter.ast.IfExpression;
+import interpreter.ast.InfixExpression;
+import interpreter.ast.IntegerLiteralExpression;
+import interpreter.ast.LetStatement;
+import interpreter.ast.PrefixExpression;
+import interpreter.ast.Program;
+import interpreter.ast.ReturnStatement;
+import interpreter.ast.Statement;
+import interpreter.eval.BooleanValue;
+import interpreter.eval.CallLoop;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.IntegerValue;
+import interpreter.eval.NullValue;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds node trees from the AST. Function bodies are translated the first time they are called,
+ * once per literal, so every closure of a literal shares its body and what it has specialized to.
+ * Tail positions are the ones the evaluator treats as such.
+ */
+final class NodeTranslator {
+    private final Map<FunctionLiteral, BlockNode> bodies = new IdentityHashMap<>();
+    private final CallLoop<BlockNode> calls = new CallLoop<>(BlockNode::execute);
+
+    ProgramNode program(Program program) {
+        return new ProgramNode(block(program.statements(), false));
+    }
+
+    BlockNode body(FunctionLiteral literal) {
+        BlockNode body = bodies.get(literal);
+        if (body == null) {
+            body = block(literal.body().statements(), true);
+            bodies.put(literal, body);
+        }
+        return body;
+    }
+
+    private BlockNode block(List<Statement> statements, boolean tail) {
+        Node[] nodes = new Node[statements.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = statement(statements.get(i), tail);
+        }
+        return new BlockNode(nodes);
+    }
+
+    private Node statement(Statement statement, boolean tail) {
+        return switch (statement) {
+            case ExpressionStatement expressionStatement ->
+                    tail && expressionStatement.expression() instanceof IfExpression ifExpression
+                            ? ifNode(ifExpression, true)
+                            : expression(expressionStatement.expression());
+            case LetStatement letStatement ->
+                    new LetNode(letStatement.identifier(), expression(letStatement.value()));
+            case ReturnStatement returnStatement ->
+                    tail && returnStatement.expression() instanceof CallExpression call
+                            ? callNode(call, true)
+                            : new ReturnNode(expression(returnStatement.expression()));
+            case Program program -> program(program);
+            case BlockStatement block -> block(block.statements(), tail);
+            default ->
+                    new ConstantNode(
+                            new ErrorValue("unknown statement: %s".formatted(statement)));
+        };
+    }
+
+    private Node expression(Expression expression) {
+        return switch (expression) {
+            case IntegerLiteralExpression integer ->
+                    new ConstantNode(IntegerValue.of(integer.value()));
+            case BooleanLiteralExpression bool -> new ConstantNode(BooleanValue.of(bool.value()));
+            case Identifier identifier ->
+                    identifier.isResolved()
+                            ? new ReadSlotNode(
+                                    identifier.depth(),
+                                    identifier.slot(),
+                                    identifier.token().literal())
+                            : new ReadNameNode(identifier.symbol(), identifier.token().literal());
+            case PrefixExpression prefix ->
+                    PrefixNode.create(prefix.token(), expression(prefix.right()));
+            case InfixExpression infix ->
+                    InfixNode.create(
+                            infix.operator(), expression(infix.left()), expression(infix.right()));
+            case IfExpression ifExpression -> ifNode(ifExpression, false);
+            case FunctionLiteral function -> new FunctionNode(function);
+            case CallExpression call -> callNode(call, false);
+            case null -> new ConstantNode(NullValue.NULL);
+            default ->
+                    new ConstantNode(
+                            new ErrorValue("unknown expression: %s".formatted(expression)));
+        };
+    }
+
+    private IfNode ifNode(IfExpression ifExpression, boolean tail) {
+        BlockStatement alternative = ifExpression.alternative();
+        return new IfNode(
+                expression(ifExpression.condition()),
+                block(ifExpression.consequence().statements(), tail),
+                alternative != null ? block(alternative.statements(), tail) : null);
+    }
+
+    private CallNode callNode(CallExpression call, boolean tail) {
+        List<Expression> expressions = call.arguments();
+        Node[] arguments = new Node[expressions.size()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = expression(expressions.get(i));
+        }
+        return new CallNode(expression(call.function()), arguments, this, calls, tail);
+    }
+}
@@ -0,0 +1,126 @@
+package interpreter.node;
+
+import interpreter.eval.BooleanValue;
+import interpreter.eval.Environment;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.Evaluator;
+import interpreter.eval.IntegerValue;
+import interpreter.eval.Value;
+import interpreter.token.Token;
+
+/** A unary operator, which specializes itself the way an {@link InfixNode} does. */
+abstract class PrefixNode extends Node {
+    final Token operator;
+    Node right;
+
+    private PrefixNode(Token operator, Node right) {
+        this.operator = operator;
+        this.right = right;
+    }
+
+    private PrefixNode(PrefixNode node) {
+        this(node.operator, node.right);
+    }
+
+    static PrefixNode create(Token operator, Node right) {
+        PrefixNode node = new Uninitialized(operator, right);
+        node.adoptChildren();
+        return node;
+    }
+
+    @Override
+    final void adoptChildren() {
+        adopt(right);
+    }
+
+    @Override
+    final boolean replaceChild(Node child, Node replacement) {
+        if (right != child) {
+            return false;
+        }
+        right = replacement;
+        return true;
+    }
+
+    final Value generalize(Value right) {
+        if (right instanceof ErrorValue) {
+            return right;
+        }
+        replace(new Generic(this));
+        return Evaluator.evalPrefixExpression(operator, right);
+    }
+
+    static final class Uninitialized extends PrefixNode {
+        private Uninitialized(Token operator, Node right) {
+            super(operator, right);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value right = this.right.execute(frame);
+            if (right instanceof ErrorValue) {
+                return right;
+            }
+            PrefixNode specialized =
+                    switch (operator.type()) {
+                        case MINUS ->
+                                right instanceof IntegerValue
+                                        ? new NegateInteger(this)
+                                        : new Generic(this);
+                        case BANG ->
+                                right instanceof BooleanValue
+                                        ? new NotBoolean(this)
+                                        : new Generic(this);
+                        default -> new Generic(this);
+                    };
+            replace(specialized);
+            return Evaluator.evalPrefixExpression(operator, right);
+        }
+    }
+
+    static final class NegateInteger extends PrefixNode {
+        private NegateInteger(PrefixNode node) {
+            super(node);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value right = this.right.execute(frame);
+            if (!(right instanceof IntegerValue r)) {
+                return generalize(right);
+            }
+            return IntegerValue.of(-r.value());
+        }
+    }
+
+    static final class NotBoolean extends PrefixNode {
+        private NotBoolean(PrefixNode node) {
+            super(node);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value right = this.right.execute(frame);
+            if (!(right instanceof BooleanValue r)) {
+                return generalize(right);
+            }
+            return BooleanValue.of(!r.value());
+        }
+    }
+
+    /** Any operator over any operand; it is never replaced. */
+    static final class Generic extends PrefixNode {
+        private Generic(PrefixNode node) {
+            super(node);
+        }
+
+        @Override
+        Value execute(Environment frame) {
+            Value right = this.right.execute(frame);
+            if (right instanceof ErrorValue) {
+                return right;
+            }
+            return Evaluator.evalPrefixExpression(operator, right);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package interpreter.node;
+
+import interpreter.eval.Environment;
+import interpreter.eval.ReturnValue;
+import interpreter.eval.Value;
+
+/** A whole program: a block whose {@code return} ends the program with the returned value. */
+final class ProgramNode extends Node {
+    private final BlockNode block;
+
+    ProgramNode(BlockNode block) {
+        this.block = adopt(block);
+    }
+
+    @Override
+    Value execute(Environment frame) {
+        Value result = block.execute(frame);
+        return result instanceof ReturnValue returnValue ? returnValue.value() : result;
+    }
+
+    BlockNode block() {
+        return block;
+    }
+}
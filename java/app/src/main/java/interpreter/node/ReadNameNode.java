@@ -0,0 +1,22 @@
+package interpreter.node;
+
+import interpreter.eval.Environment;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.Value;
+
+/** Looks an unresolved identifier up by name. */
+final class ReadNameNode extends Node {
+    private final int symbol;
+    private final String name;
+
+    ReadNameNode(int symbol, String name) {
+        this.symbol = symbol;
+        this.name = name;
+    }
+
+    @Override
+    Value execute(Environment frame) {
+        Value value = frame.get(symbol, name);
+        return value != null ? value : new ErrorValue("identifier not found: %s".formatted(name));
+    }
+}
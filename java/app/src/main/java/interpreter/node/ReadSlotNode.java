@@ -0,0 +1,24 @@
+package interpreter.node;
+
+import interpreter.eval.Environment;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.Value;
+
+/** Reads a resolved identifier from its frame slot. */
+final class ReadSlotNode extends Node {
+    private final int depth;
+    private final int slot;
+    private final String name;
+
+    ReadSlotNode(int depth, int slot, String name) {
+        this.depth = depth;
+        this.slot = slot;
+        this.name = name;
+    }
+
+    @Override
+    Value execute(Environment frame) {
+        Value value = frame.get(depth, slot);
+        return value != null ? value : new ErrorValue("identifier not found: %s".formatted(name));
+    }
+}
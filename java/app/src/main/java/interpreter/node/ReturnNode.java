@@ -0,0 +1,29 @@
+package interpreter.node;
+
+import interpreter.eval.Environment;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.ReturnValue;
+import interpreter.eval.Value;
+
+final class ReturnNode extends Node {
+    private Node value;
+
+    ReturnNode(Node value) {
+        this.value = adopt(value);
+    }
+
+    @Override
+    Value execute(Environment frame) {
+        Value result = value.execute(frame);
+        return result instanceof ErrorValue ? result : new ReturnValue(result);
+    }
+
+    @Override
+    boolean replaceChild(Node child, Node replacement) {
+        if (value != child) {
+            return false;
+        }
+        value = replacement;
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package interpreter.repl;
+
+import interpreter.ast.Program;
+import interpreter.ast.Resolver;
+import interpreter.closure.ClosureCompiler;
+import interpreter.eval.Environment;
+import interpreter.eval.Value;
+
+/** Resolves each program like {@link EvaluatorEngine}, compiles it into closures and runs it. */
+public class ClosureEngine implements Engine {
+    private final ClosureCompiler compiler = new ClosureCompiler();
+    private final Resolver resolver = new Resolver();
+    private final Environment environment = new Environment();
+
+    @Override
+    public Value execute(Program program) {
+        return compiler.compile(resolver.resolve(program).program()).run(environment);
+    }
+}
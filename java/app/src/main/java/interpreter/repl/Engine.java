@@ -0,0 +1,9 @@
+package interpreter.repl;
+
+import interpreter.ast.Program;
+import interpreter.eval.Value;
+
+/** Executes parsed programs, keeping global bindings between calls. */
+public interface Engine {
+    Value execute(Program program);
+}
@@ -0,0 +1,34 @@
+package interpreter.repl;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+public enum EngineType {
+    EVAL(EvaluatorEngine::new),
+    VM(VmEngine::new),
+    NODE(NodeEngine::new),
+    JVM(JvmEngine::new),
+    CLOSURE(ClosureEngine::new);
+
+    private final Supplier<Engine> factory;
+
+    EngineType(Supplier<Engine> factory) {
+        this.factory = factory;
+    }
+
+    public Engine create() {
+        return factory.get();
+    }
+
+    public static EngineType fromName(String name) {
+        return Arrays.stream(values())
+                .filter(type -> type.name().equals(name.toUpperCase(Locale.ROOT)))
+                .findFirst()
+                .orElseThrow(
+                        () ->
+                                new IllegalArgumentException(
+                                        "unknown engine %s, expected one of %s"
+                                                .formatted(name, Arrays.toString(values()))));
+    }
+}
@@ -0,0 +1,23 @@
+package interpreter.repl;
+
+import interpreter.ast.Program;
+import interpreter.ast.Resolver;
+import interpreter.eval.Environment;
+import interpreter.eval.Evaluator;
+import interpreter.eval.Value;
+
+/**
+ * Evaluates each program after resolving its names against the globals of the programs before it,
+ * so every variable access is a slot in one long-lived global frame. Names the resolver could not
+ * bind fail at run time, when and if they are evaluated.
+ */
+public class EvaluatorEngine implements Engine {
+    private final Evaluator evaluator = new Evaluator();
+    private final Resolver resolver = new Resolver();
+    private final Environment environment = new Environment();
+
+    @Override
+    public Value execute(Program program) {
+        return evaluator.eval(resolver.resolve(program).program(), environment);
+    }
+}
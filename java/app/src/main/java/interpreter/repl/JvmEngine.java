@@ -0,0 +1,22 @@
+package interpreter.repl;
+
+import interpreter.ast.Program;
+import interpreter.compiler.CompileException;
+import interpreter.compiler.Scope;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.Value;
+import interpreter.jvm.JvmCompiler;
+
+public class JvmEngine implements Engine {
+    private final JvmCompiler compiler = new JvmCompiler();
+    private final Value[] globals = new Value[Scope.MAX_SLOTS];
+
+    @Override
+    public Value execute(Program program) {
+        try {
+            return compiler.compile(program).run(globals);
+        } catch (CompileException e) {
+            return new ErrorValue(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package interpreter.repl;
+
+import interpreter.ast.Program;
+import interpreter.ast.Resolver;
+import interpreter.eval.Environment;
+import interpreter.eval.Value;
+import interpreter.node.NodeInterpreter;
+
+/**
+ * Resolves each program like {@link EvaluatorEngine} and runs it on self-specializing nodes, which
+ * keep what the functions defined in earlier programs specialized to.
+ */
+public class NodeEngine implements Engine {
+    private final NodeInterpreter interpreter = new NodeInterpreter();
+    private final Resolver resolver = new Resolver();
+    private final Environment environment = new Environment();
+
+    @Override
+    public Value execute(Program program) {
+        return interpreter.eval(resolver.resolve(program).program(), environment);
+    }
+}
@@ -1,28 +1,56 @@
 package interpreter.repl;
 
+import interpreter.ast.Parser;
+import interpreter.eval.ErrorValue;
 import interpreter.lexer.Lexer;
-import interpreter.token.Token;
-import interpreter.token.TokenType;
-import java.util.ArrayList;
-import java.util.List;
+import interpreter.lexer.LineIndex;
+import interpreter.lexer.SymbolTable;
 import java.util.Scanner;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
 
+@RequiredArgsConstructor
 public class Repl {
     private static final String PROMPT = ">> ";
 
+    private final Engine engine;
+    /** Shared by every line, so a name keeps its symbol id across the session. */
+    private final SymbolTable symbols = new SymbolTable();
+
+    public Repl() {
+        this(EngineType.EVAL.create());
+    }
+
     public void start() {
         Scanner scanner = new Scanner(System.in);
         System.out.print(PROMPT);
-        while (scanner.hasNext()) {
-            String userInput = scanner.next();
-            Lexer lexer = new Lexer(userInput);
-            List<Token> tokens = new ArrayList<>();
-            Token token = lexer.nextToken();
-            while (!token.type().equals(TokenType.EOF)) {
-                tokens.add(token);
-                token = lexer.nextToken();
-            }
-            System.out.println(tokens);
+        while (scanner.hasNextLine()) {
+            System.out.println(handle(scanner.nextLine()));
+            System.out.print(PROMPT);
+        }
+    }
+
+    /** Lexes, parses and executes one line of input and returns what the REPL prints for it. */
+    public String handle(String userInput) {
+        Parser parser = Parser.build(new Lexer(userInput, symbols));
+        var program = parser.parseProgram();
+        if (!parser.getDiagnostics().isEmpty()) {
+            LineIndex lines = LineIndex.of(userInput);
+            return parser.getDiagnostics().stream()
+                    .map(
+                            diagnostic ->
+                                    "\t%s: %s"
+                                            .formatted(
+                                                    lines.position(diagnostic.offset()),
+                                                    diagnostic.message()))
+                    .collect(Collectors.joining(System.lineSeparator()));
+        }
+        try {
+            return engine.execute(program).inspect();
+        } catch (StackOverflowError e) {
+            // Parsing bounds nesting but not the height of operator chains, which every engine
+            // walks recursively.
+            return new ErrorValue("program is nested too deeply to run").inspect();
         }
     }
 }
@@ -0,0 +1,22 @@
+package interpreter.repl;
+
+import interpreter.ast.Program;
+import interpreter.compiler.CompileException;
+import interpreter.compiler.Compiler;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.Value;
+import interpreter.vm.Vm;
+
+public class VmEngine implements Engine {
+    private final Compiler compiler = new Compiler();
+    private final Vm vm = new Vm();
+
+    @Override
+    public Value execute(Program program) {
+        try {
+            return vm.run(compiler.compile(program));
+        } catch (CompileException e) {
+            return new ErrorValue(e.getMessage());
+        }
+    }
+}
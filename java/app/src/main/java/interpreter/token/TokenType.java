@@ -9,12 +9,17 @@ public enum TokenType {
     INT,
 
     // Operators
+    AND,
     ASSIGN,
     ASTERISK,
     BANG,
     GT,
+    GT_EQ,
     LT,
+    LT_EQ,
     MINUS,
+    OR,
+    PERCENT,
     PLUS,
     SLASH,
 
@@ -1,6 +1,10 @@
 package interpreter.utils;
 
+import interpreter.token.Token;
 import interpreter.token.TokenType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
 import java.util.Map;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -17,7 +21,127 @@ public class TokenUtil {
                     "return", TokenType.RETURN,
                     "true", TokenType.TRUE);
 
+    private static final Map<TokenType, String> FIXED_LITERALS = new EnumMap<>(TokenType.class);
+
+    static {
+        FIXED_LITERALS.put(TokenType.EOF, String.valueOf('\0'));
+        FIXED_LITERALS.put(TokenType.AND, "&&");
+        FIXED_LITERALS.put(TokenType.ASSIGN, "=");
+        FIXED_LITERALS.put(TokenType.ASTERISK, "*");
+        FIXED_LITERALS.put(TokenType.BANG, "!");
+        FIXED_LITERALS.put(TokenType.GT, ">");
+        FIXED_LITERALS.put(TokenType.GT_EQ, ">=");
+        FIXED_LITERALS.put(TokenType.LT, "<");
+        FIXED_LITERALS.put(TokenType.LT_EQ, "<=");
+        FIXED_LITERALS.put(TokenType.MINUS, "-");
+        FIXED_LITERALS.put(TokenType.OR, "||");
+        FIXED_LITERALS.put(TokenType.PERCENT, "%");
+        FIXED_LITERALS.put(TokenType.PLUS, "+");
+        FIXED_LITERALS.put(TokenType.SLASH, "/");
+        FIXED_LITERALS.put(TokenType.COMMA, ",");
+        FIXED_LITERALS.put(TokenType.LBRACE, "{");
+        FIXED_LITERALS.put(TokenType.LPAREN, "(");
+        FIXED_LITERALS.put(TokenType.RBRACE, "}");
+        FIXED_LITERALS.put(TokenType.RPAREN, ")");
+        FIXED_LITERALS.put(TokenType.SEMICOLON, ";");
+        FIXED_LITERALS.put(TokenType.EQ, "==");
+        FIXED_LITERALS.put(TokenType.NOT_EQ, "!=");
+        KEYWORDS.forEach((literal, type) -> FIXED_LITERALS.put(type, literal));
+    }
+
+    private static final Token[] FIXED_TOKENS = new Token[TokenType.values().length];
+
+    static {
+        FIXED_LITERALS.forEach(
+                (type, literal) -> FIXED_TOKENS[type.ordinal()] = new Token(type, literal));
+    }
+
+    private static final byte[] FN = ascii("fn");
+    private static final byte[] IF = ascii("if");
+    private static final byte[] LET = ascii("let");
+    private static final byte[] ELSE = ascii("else");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] RETURN = ascii("return");
+
     public static TokenType getTypeForIdentifier(String identifier) {
         return KEYWORDS.getOrDefault(identifier, TokenType.IDENT);
     }
+
+    /**
+     * Same as {@link #getTypeForIdentifier(String)} for the identifier at {@code [start, end)} of
+     * {@code input}, without cutting it out of the input first.
+     */
+    public static TokenType getTypeForIdentifier(String input, int start, int end) {
+        return switch (end - start) {
+            case 2 ->
+                    switch (input.charAt(start)) {
+                        case 'f' -> matches(input, start, "fn", TokenType.FUNCTION);
+                        case 'i' -> matches(input, start, "if", TokenType.IF);
+                        default -> TokenType.IDENT;
+                    };
+            case 3 -> matches(input, start, "let", TokenType.LET);
+            case 4 ->
+                    switch (input.charAt(start)) {
+                        case 'e' -> matches(input, start, "else", TokenType.ELSE);
+                        case 't' -> matches(input, start, "true", TokenType.TRUE);
+                        default -> TokenType.IDENT;
+                    };
+            case 5 -> matches(input, start, "false", TokenType.FALSE);
+            case 6 -> matches(input, start, "return", TokenType.RETURN);
+            default -> TokenType.IDENT;
+        };
+    }
+
+    private static TokenType matches(String input, int start, String keyword, TokenType type) {
+        return input.regionMatches(start, keyword, 0, keyword.length()) ? type : TokenType.IDENT;
+    }
+
+    /**
+     * Same as {@link #getTypeForIdentifier(String)} for the UTF-8 identifier at bytes {@code
+     * [start, end)} of {@code input}. Keywords are ASCII, so an identifier with multibyte
+     * characters in it is never one.
+     */
+    public static TokenType getTypeForIdentifier(ByteBuffer input, int start, int end) {
+        return switch (end - start) {
+            case 2 ->
+                    switch (input.get(start)) {
+                        case 'f' -> matches(input, start, FN, TokenType.FUNCTION);
+                        case 'i' -> matches(input, start, IF, TokenType.IF);
+                        default -> TokenType.IDENT;
+                    };
+            case 3 -> matches(input, start, LET, TokenType.LET);
+            case 4 ->
+                    switch (input.get(start)) {
+                        case 'e' -> matches(input, start, ELSE, TokenType.ELSE);
+                        case 't' -> matches(input, start, TRUE, TokenType.TRUE);
+                        default -> TokenType.IDENT;
+                    };
+            case 5 -> matches(input, start, FALSE, TokenType.FALSE);
+            case 6 -> matches(input, start, RETURN, TokenType.RETURN);
+            default -> TokenType.IDENT;
+        };
+    }
+
+    private static byte[] ascii(String keyword) {
+        return keyword.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static TokenType matches(ByteBuffer input, int start, byte[] keyword, TokenType type) {
+        for (int i = 0; i < keyword.length; i++) {
+            if (input.get(start + i) != keyword[i]) {
+                return TokenType.IDENT;
+            }
+        }
+        return type;
+    }
+
+    /**
+     * Returns the shared token instance for types whose literal never varies (punctuation,
+     * operators, keywords and {@code EOF}), or {@code null} for identifiers, integers and illegal
+     * input.
+     */
+    public static Token fixedToken(TokenType type) {
+        return FIXED_TOKENS[type.ordinal()];
+    }
 }
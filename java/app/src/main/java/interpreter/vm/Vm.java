@@ -0,0 +1,168 @@
+package interpreter.vm;
+
+import interpreter.code.Bytecode;
+import interpreter.code.Opcodes;
+import interpreter.compiler.Scope;
+import interpreter.eval.BooleanValue;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.IntegerValue;
+import interpreter.eval.NullValue;
+import interpreter.eval.Value;
+import java.util.Arrays;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Stack-based virtual machine for {@link Bytecode}. The operand stack and the globals are allocated
+ * once per VM and reused by every {@link #run(Bytecode)}; the stack only grows when a program needs
+ * more than {@link #INITIAL_STACK_SIZE} slots. Globals survive between runs the same way they do in
+ * a REPL session.
+ */
+public class Vm {
+    public static final int INITIAL_STACK_SIZE = 2048;
+
+    private Value[] stack = new Value[INITIAL_STACK_SIZE];
+    private final Value[] globals = new Value[Scope.MAX_SLOTS];
+
+    /**
+     * Runs {@code bytecode} to completion and returns the value of the last expression statement,
+     * the value of the first top-level {@code return}, or an {@link ErrorValue} on a runtime error.
+     */
+    public Value run(Bytecode bytecode) {
+        Validate.notNull(bytecode, "bytecode should not be null");
+        if (bytecode.maxStackDepth() > stack.length) {
+            stack = new Value[bytecode.maxStackDepth()];
+        }
+        try {
+            return execute(bytecode);
+        } finally {
+            // Don't keep the values of the last run reachable through dead stack slots.
+            Arrays.fill(stack, 0, bytecode.maxStackDepth(), null);
+        }
+    }
+
+    private Value execute(Bytecode bytecode) {
+        final byte[] code = bytecode.instructions();
+        final Value[] constants = bytecode.constants();
+        final Value[] stack = this.stack;
+        Value lastPopped = NullValue.NULL;
+        int sp = 0;
+        int ip = 0;
+
+        while (ip < code.length) {
+            byte opcode = code[ip++];
+            switch (opcode) {
+                case Opcodes.CONSTANT -> {
+                    stack[sp++] = constants[Bytecode.readUnsignedShort(code, ip)];
+                    ip += 2;
+                }
+                case Opcodes.POP -> lastPopped = stack[--sp];
+                case Opcodes.TRUE -> stack[sp++] = BooleanValue.TRUE;
+                case Opcodes.FALSE -> stack[sp++] = BooleanValue.FALSE;
+                case Opcodes.NULL -> stack[sp++] = NullValue.NULL;
+                case Opcodes.ADD,
+                        Opcodes.SUB,
+                        Opcodes.MUL,
+                        Opcodes.DIV,
+                        Opcodes.EQUAL,
+                        Opcodes.NOT_EQUAL,
+                        Opcodes.GREATER_THAN,
+                        Opcodes.LESS_THAN -> {
+                    Value right = stack[--sp];
+                    Value left = stack[sp - 1];
+                    Value result =
+                            left instanceof IntegerValue l && right instanceof IntegerValue r
+                                    ? integerOperation(opcode, l.value(), r.value())
+                                    : operation(opcode, left, right);
+                    if (result instanceof ErrorValue) {
+                        return result;
+                    }
+                    stack[sp - 1] = result;
+                }
+                case Opcodes.MINUS -> {
+                    if (!(stack[sp - 1] instanceof IntegerValue integer)) {
+                        return new ErrorValue(
+                                "unknown operator: -%s".formatted(stack[sp - 1].type()));
+                    }
+                    stack[sp - 1] = IntegerValue.of(-integer.value());
+                }
+                case Opcodes.BANG -> stack[sp - 1] = BooleanValue.of(!isTruthy(stack[sp - 1]));
+                case Opcodes.SET_GLOBAL -> {
+                    globals[Bytecode.readUnsignedShort(code, ip)] = stack[--sp];
+                    ip += 2;
+                }
+                case Opcodes.GET_GLOBAL -> {
+                    int slot = Bytecode.readUnsignedShort(code, ip);
+                    Value value = globals[slot];
+                    if (value == null) {
+                        // The let that defines the slot compiled but its run failed before the set.
+                        return new ErrorValue(
+                                "identifier not found: %s".formatted(bytecode.globalNames()[slot]));
+                    }
+                    stack[sp++] = value;
+                    ip += 2;
+                }
+                case Opcodes.RETURN_VALUE -> {
+                    return stack[--sp];
+                }
+                default ->
+                        throw new IllegalStateException(
+                                "unknown opcode %d at %d".formatted(opcode, ip - 1));
+            }
+        }
+        return lastPopped;
+    }
+
+    private static Value integerOperation(byte opcode, int left, int right) {
+        return switch (opcode) {
+            case Opcodes.ADD -> IntegerValue.of(left + right);
+            case Opcodes.SUB -> IntegerValue.of(left - right);
+            case Opcodes.MUL -> IntegerValue.of(left * right);
+            case Opcodes.DIV ->
+                    right == 0 ? new ErrorValue("division by zero") : IntegerValue.of(left / right);
+            case Opcodes.EQUAL -> BooleanValue.of(left == right);
+            case Opcodes.NOT_EQUAL -> BooleanValue.of(left != right);
+            case Opcodes.GREATER_THAN -> BooleanValue.of(left > right);
+            case Opcodes.LESS_THAN -> BooleanValue.of(left < right);
+            default -> throw new IllegalStateException("not a binary opcode: " + opcode);
+        };
+    }
+
+    private static Value operation(byte opcode, Value left, Value right) {
+        if (left.type() != right.type()) {
+            return new ErrorValue(
+                    "type mismatch: %s %s %s"
+                            .formatted(left.type(), symbolOf(opcode), right.type()));
+        }
+        return switch (opcode) {
+            // Booleans and null are singletons, so identity is value equality.
+            case Opcodes.EQUAL -> BooleanValue.of(left == right);
+            case Opcodes.NOT_EQUAL -> BooleanValue.of(left != right);
+            default ->
+                    new ErrorValue(
+                            "unknown operator: %s %s %s"
+                                    .formatted(left.type(), symbolOf(opcode), right.type()));
+        };
+    }
+
+    private static boolean isTruthy(Value value) {
+        return switch (value.type()) {
+            case BOOLEAN -> value == BooleanValue.TRUE;
+            case NULL -> false;
+            default -> true;
+        };
+    }
+
+    private static String symbolOf(byte opcode) {
+        return switch (opcode) {
+            case Opcodes.ADD -> "+";
+            case Opcodes.SUB -> "-";
+            case Opcodes.MUL -> "*";
+            case Opcodes.DIV -> "/";
+            case Opcodes.EQUAL -> "==";
+            case Opcodes.NOT_EQUAL -> "!=";
+            case Opcodes.GREATER_THAN -> ">";
+            case Opcodes.LESS_THAN -> "<";
+            default -> Opcodes.nameOf(opcode);
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package interpreter.ast;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+import interpreter.lexer.Lexer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class AstImageTest {
+    @TempDir Path directory;
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "",
+                "let x = 5; let y = -x * (2147483647 + 1); return x != y;",
+                "if (a < b) { a } else { !true }; if (false) { 1 }",
+                "let adder = fn(a, b) { fn(c) { a + b + c } }; adder(1, 2)(3); fn() {}()",
+                "let 名前 = 1; 名前 == 名前",
+                "let = 5; 1 +;"
+            })
+    void testImageDecodesToTheParsedProgram(String source) {
+        var program = Parser.build(new Lexer(source)).parseProgram();
+
+        var decoded = AstImage.decode(ByteBuffer.wrap(AstImage.encode(program, source)), source);
+
+        assertThat(decoded).contains(program);
+        // Records ignore symbols in equality, but names are interned in the lexer's order.
+        assertThat(decoded.orElseThrow().toString()).isEqualTo(program.toString());
+    }
+
+    @Test
+    void testImageOfAnotherSourceIsStale() {
+        String source = "let x = 1;";
+        byte[] image = AstImage.encode(Parser.parse(source).program(), source);
+
+        assertThat(AstImage.decode(ByteBuffer.wrap(image), "let x = 2;")).isEmpty();
+    }
+
+    @Test
+    void testCorruptImagesAreStale() {
+        String source = "let f = fn(x) { if (x > 1) { return f(x - 1); } x }; f(10);";
+        byte[] image = AstImage.encode(Parser.parse(source).program(), source);
+
+        for (int length = 0; length < image.length; length++) {
+            var truncated = ByteBuffer.wrap(Arrays.copyOf(image, length));
+            assertThat(AstImage.decode(truncated, source)).isEmpty();
+        }
+        byte[] newerVersion = image.clone();
+        newerVersion[7]++;
+        assertThat(AstImage.decode(ByteBuffer.wrap(newerVersion), source)).isEmpty();
+        byte[] trailing = Arrays.copyOf(image, image.length + 1);
+        assertThat(AstImage.decode(ByteBuffer.wrap(trailing), source)).isEmpty();
+    }
+
+    @Test
+    void testAlteredImagesDecodeOrAreStale() {
+        String source = "let f = fn(x) { if (x > 1) { return f(-x); } !x }; f(10)(1, true);";
+        byte[] image = AstImage.encode(Parser.parse(source).program(), source);
+
+        for (int i = 0; i < image.length; i++) {
+            for (int value = Byte.MIN_VALUE; value <= Byte.MAX_VALUE; value++) {
+                byte[] altered = image.clone();
+                altered[i] = (byte) value;
+                assertThatCode(() -> AstImage.decode(ByteBuffer.wrap(altered), source))
+                        .doesNotThrowAnyException();
+            }
+        }
+    }
+
+    @Test
+    void testLoadMapsTheWrittenImage() throws IOException {
+        String source = "let a = 1; let b = fn(x) { x * a }; b(2)";
+        var program = Parser.parse(source).program();
+        Path image = directory.resolve("script.img");
+
+        assertThat(AstImage.load(image, source)).isEmpty();
+        AstImage.write(image, program, source);
+
+        assertThat(AstImage.load(image, source)).contains(program);
+        assertThat(directory.toFile().list()).containsExactly("script.img");
+    }
+
+    @Test
+    void testLoadOrParseRewritesStaleImages() throws IOException {
+        Path script = directory.resolve("script.monkey");
+        Path image = directory.resolve("script.img");
+        Files.writeString(script, "let x = 1; x");
+
+        var parsed = AstImage.loadOrParse(script, image);
+        var loaded = AstImage.loadOrParse(script, image);
+        Files.writeString(script, "let x = 2; x");
+        var reparsed = AstImage.loadOrParse(script, image);
+
+        assertThat(loaded).isEqualTo(parsed);
+        assertThat(reparsed.program()).isEqualTo(Parser.parse("let x = 2; x").program());
+        assertThat(AstImage.load(image, "let x = 2; x")).contains(reparsed.program());
+    }
+
+    @Test
+    void testLongOperatorChainsAreWrittenAndLoaded() throws IOException {
+        Path script = directory.resolve("chain.monkey");
+        Path image = directory.resolve("chain.img");
+        String source = "let x = 1" + " + 1".repeat(200_000) + ";";
+        Files.writeString(script, source);
+
+        var parsed = AstImage.loadOrParse(script, image);
+        var loaded = AstImage.load(image, source);
+
+        assertThat(parsed.hasErrors()).isFalse();
+        assertThat(loaded).isPresent();
+        // Comparing the trees would recurse as deep as they are, so count the operators instead.
+        Expression value = ((LetStatement) loaded.get().statements().getFirst()).value();
+        int operators = 0;
+        while (value instanceof InfixExpression infix) {
+            operators++;
+            value = infix.left();
+        }
+        assertThat(operators).isEqualTo(200_000);
+    }
+
+    @Test
+    void testProgramsWithErrorsAreNotWritten() throws IOException {
+        Path script = directory.resolve("broken.monkey");
+        Path image = directory.resolve("broken.img");
+        Files.writeString(script, "let = 1;");
+
+        var result = AstImage.loadOrParse(script, image);
+
+        assertThat(result.hasErrors()).isTrue();
+        assertThat(image).doesNotExist();
+    }
+}
@@ -0,0 +1,116 @@
+package interpreter.ast;
+
+import static interpreter.ast.ParserTestHelpers.booleanLiteralExpressionOf;
+import static interpreter.ast.ParserTestHelpers.integerLiteralExpressionOf;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import interpreter.eval.Environment;
+import interpreter.eval.Evaluator;
+import interpreter.lexer.Lexer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ConstantFolderTest {
+
+    private static Stream<Arguments> foldedExpressions() {
+        return Stream.of(
+                Arguments.of("2 * 3", integerLiteralExpressionOf(6), 2),
+                Arguments.of("!true", booleanLiteralExpressionOf(false), 1),
+                Arguments.of("!5", booleanLiteralExpressionOf(false), 1),
+                Arguments.of("-(2 - 5) * 4 + 1", integerLiteralExpressionOf(13), 7),
+                Arguments.of("1 < 2 == true", booleanLiteralExpressionOf(true), 4),
+                Arguments.of("2147483647 + 1", integerLiteralExpressionOf(Integer.MIN_VALUE), 2),
+                Arguments.of("(a + b) * 1", expression("a + b"), 2),
+                Arguments.of("0 + a / b - 0", expression("a / b"), 4),
+                Arguments.of("-(-(a * b))", expression("a * b"), 2),
+                Arguments.of("!!(a < b)", expression("a < b"), 2),
+                Arguments.of("a + (2 * 3)", expression("a + 6"), 2));
+    }
+
+    @ParameterizedTest
+    @MethodSource("interpreter.ast.ConstantFolderTest#foldedExpressions")
+    void testFolds(String input, Expression expected, int eliminatedNodes) {
+        var result = ConstantFolder.fold(parse(input));
+
+        assertThat(((ExpressionStatement) result.program().statements().get(0)).expression())
+                .isEqualTo(expected);
+        assertThat(result.eliminatedNodes()).isEqualTo(eliminatedNodes);
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "1 / 0",
+                "-true",
+                "true + 1",
+                "true < false",
+                "a * 1",
+                "a + 0",
+                "true * 1",
+                "--a",
+                "!!a",
+                "!!(a + 1)"
+            })
+    void testKeepsWhatCouldChangeTheResult(String input) {
+        Program program = parse(input);
+
+        var result = ConstantFolder.fold(program);
+
+        assertThat(result.program()).isSameAs(program);
+        assertThat(result.eliminatedNodes()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "let a = 5; let b = true; a * 1 + 0",
+                "let b = true; b * 1",
+                "let a = 3; -(-a) * (10 / (2 - 2))",
+                "let b = false; !!(b == !true)",
+                "return 2 * 3 + 1; 5",
+                "let a = 2147483647; a + 1 * 1",
+                "let f = fn(x) { if (x > 1 - 1) { x * 1 } else { -(-x) } }; f(2) + f(0 - 3)"
+            })
+    void testEvaluatesTheSame(String input) {
+        Program program = parse(input);
+
+        var folded = ConstantFolder.fold(program).program();
+
+        assertThat(new Evaluator().eval(folded, new Environment()))
+                .isEqualTo(new Evaluator().eval(program, new Environment()));
+    }
+
+    @Test
+    void testFoldsInsideStatements() {
+        var result = ConstantFolder.fold(parse("let a = 1 + 2; return a * (4 - 3);"));
+
+        assertThat(result.program()).isEqualTo(parse("let a = 3; return a * 1;"));
+        assertThat(result.eliminatedNodes()).isEqualTo(4);
+    }
+
+    @Test
+    void testFoldsInsideFunctions() {
+        var result =
+                ConstantFolder.fold(
+                        parse("let f = fn(a) { if (1 < 2) { return a * (2 + 3); } }; f(4 - 1)"));
+
+        assertThat(result.program())
+                .isEqualTo(parse("let f = fn(a) { if (true) { return a * 5; } }; f(3)"));
+        assertThat(result.eliminatedNodes()).isEqualTo(6);
+    }
+
+    private static Expression expression(String input) {
+        return ((ExpressionStatement) parse(input).statements().get(0)).expression();
+    }
+
+    private static Program parse(String input) {
+        var parser = Parser.build(new Lexer(input));
+        var program = parser.parseProgram();
+        assertThat(parser.getErrors()).isEmpty();
+        return program;
+    }
+}
@@ -0,0 +1,103 @@
+package interpreter.ast;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import interpreter.lexer.Lexer;
+import interpreter.token.TokenType;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class FlatAstTest {
+
+    @ParameterizedTest
+    @MethodSource("interpreter.ast.OperatorPrecedenceTestCases#testCases")
+    void testRoundTrip(String input, List<ExpressionStatement> ignored) {
+        var program = Parser.build(new Lexer(input)).parseProgram();
+
+        assertThat(FlatAst.of(program).toProgram()).isEqualTo(program);
+    }
+
+    @Test
+    void testRoundTripWithStatementsAndErrors() {
+        var program =
+                Parser.build(new Lexer("let x = 5; return x + -y != true; a;; ) let = 1;"))
+                        .parseProgram();
+
+        assertThat(FlatAst.of(program).toProgram()).isEqualTo(program);
+    }
+
+    @Test
+    void testView() {
+        var ast = FlatAst.of(Parser.build(new Lexer("let x = 1 + y; return true;")).parseProgram());
+
+        int root = ast.root();
+        assertThat(ast.kind(root)).isEqualTo(NodeKind.PROGRAM);
+        assertThat(ast.token(root)).isNull();
+        assertThat(ast.childCount(root)).isEqualTo(2);
+
+        int let = ast.child(root, 0);
+        assertThat(ast.kind(let)).isEqualTo(NodeKind.LET);
+        assertThat(ast.literal(ast.left(let))).isEqualTo("x");
+
+        int sum = ast.right(let);
+        assertThat(ast.kind(sum)).isEqualTo(NodeKind.INFIX);
+        assertThat(ast.tokenType(sum)).isEqualTo(TokenType.PLUS);
+        assertThat(ast.intValue(ast.left(sum))).isEqualTo(1);
+        assertThat(ast.kind(ast.right(sum))).isEqualTo(NodeKind.IDENTIFIER);
+
+        int ret = ast.child(root, 1);
+        assertThat(ast.kind(ret)).isEqualTo(NodeKind.RETURN);
+        assertThat(ast.booleanValue(ast.left(ret))).isTrue();
+        assertThat(ast.nodeCount()).isEqualTo(8);
+    }
+
+    @Test
+    void testViewOfFunctions() {
+        var program =
+                Parser.build(new Lexer("fn(a, b) { if (a) { b } }(1, 2);")).parseProgram();
+        var ast = FlatAst.of(program);
+
+        int call = ast.left(ast.child(ast.root(), 0));
+        assertThat(ast.kind(call)).isEqualTo(NodeKind.CALL);
+        assertThat(ast.childCount(call)).isEqualTo(2);
+        assertThat(ast.intValue(ast.child(call, 1))).isEqualTo(2);
+
+        int function = ast.left(call);
+        assertThat(ast.kind(function)).isEqualTo(NodeKind.FUNCTION);
+        assertThat(ast.childCount(function)).isEqualTo(2);
+        assertThat(ast.literal(ast.child(function, 1))).isEqualTo("b");
+
+        int body = ast.left(function);
+        assertThat(ast.kind(body)).isEqualTo(NodeKind.BLOCK);
+        int ifNode = ast.left(ast.child(body, 0));
+        assertThat(ast.kind(ifNode)).isEqualTo(NodeKind.IF);
+        assertThat(ast.literal(ast.left(ifNode))).isEqualTo("a");
+        assertThat(ast.kind(ast.child(ifNode, 0))).isEqualTo(NodeKind.BLOCK);
+        assertThat(ast.child(ifNode, 1)).isEqualTo(FlatAst.NONE);
+        assertThat(ast.toProgram()).isEqualTo(program);
+    }
+
+    @Test
+    void testEmptyExpressionStatement() {
+        var ast = FlatAst.of(Parser.build(new Lexer(")")).parseProgram());
+
+        int statement = ast.child(ast.root(), 0);
+        assertThat(ast.kind(statement)).isEqualTo(NodeKind.EXPRESSION_STATEMENT);
+        assertThat(ast.left(statement)).isEqualTo(FlatAst.NONE);
+    }
+
+    @Test
+    void testTokensAreShared() {
+        var ast = FlatAst.of(Parser.build(new Lexer("x + x; x")).parseProgram());
+
+        var statements = ast.toProgram().statements();
+        var first = (InfixExpression) ((ExpressionStatement) statements.get(0)).expression();
+        var second = (Identifier) ((ExpressionStatement) statements.get(1)).expression();
+
+        assertThat(((Identifier) first.left()).token())
+                .isSameAs(((Identifier) first.right()).token())
+                .isSameAs(second.token());
+    }
+}
@@ -4,6 +4,7 @@ import static interpreter.ast.ParserTestHelpers.ASTERISK_TOKEN;
 import static interpreter.ast.ParserTestHelpers.BANG_TOKEN;
 import static interpreter.ast.ParserTestHelpers.EQ_TOKEN;
 import static interpreter.ast.ParserTestHelpers.GT_TOKEN;
+import static interpreter.ast.ParserTestHelpers.LPAREN_TOKEN;
 import static interpreter.ast.ParserTestHelpers.LT_TOKEN;
 import static interpreter.ast.ParserTestHelpers.MINUS_TOKEN;
 import static interpreter.ast.ParserTestHelpers.NOT_EQ_TOKEN;
@@ -306,6 +307,45 @@ public final class OperatorPrecedenceTestCases {
                                                 new InfixExpression(
                                                         booleanLiteralExpressionOf(true),
                                                         EQ_TOKEN,
-                                                        booleanLiteralExpressionOf(true)))))));
+                                                        booleanLiteralExpressionOf(true)))))),
+                Arguments.of(
+                        "a + add(b * c) + d",
+                        // ((a + add((b * c))) + d)
+                        List.of(
+                                new ExpressionStatement(
+                                        identifierTokenOf("d"),
+                                        new InfixExpression(
+                                                new InfixExpression(
+                                                        identifierOf("a"),
+                                                        PLUS_TOKEN,
+                                                        new CallExpression(
+                                                                identifierOf("add"),
+                                                                LPAREN_TOKEN,
+                                                                List.of(
+                                                                        new InfixExpression(
+                                                                                identifierOf("b"),
+                                                                                TIMES_TOKEN,
+                                                                                identifierOf(
+                                                                                        "c"))))),
+                                                PLUS_TOKEN,
+                                                identifierOf("d"))))),
+                Arguments.of(
+                        "-f(a, 1)(b)",
+                        // (-f(a, 1)(b))
+                        List.of(
+                                new ExpressionStatement(
+                                        RPAREN_TOKEN,
+                                        new PrefixExpression(
+                                                MINUS_TOKEN,
+                                                new CallExpression(
+                                                        new CallExpression(
+                                                                identifierOf("f"),
+                                                                LPAREN_TOKEN,
+                                                                List.of(
+                                                                        identifierOf("a"),
+                                                                        integerLiteralExpressionOf(
+                                                                                1))),
+                                                        LPAREN_TOKEN,
+                                                        List.of(identifierOf("b"))))))));
     }
 }
@@ -0,0 +1,52 @@
+package interpreter.ast;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import interpreter.lexer.Lexer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParseAllTest {
+    @TempDir Path directory;
+
+    @Test
+    void testResultsFollowInputOrder() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String source =
+                    i % 7 == 0 ? "let = %d;".formatted(i) : "let x = %d * 2;".formatted(i);
+            Path path = directory.resolve("script" + i + ".monkey");
+            Files.writeString(path, source);
+            paths.add(path);
+            sources.add(source);
+        }
+
+        var results = Parser.parseAll(paths, 4);
+
+        assertThat(results).extracting(ParsedFile::path).isEqualTo(paths);
+        for (int i = 0; i < sources.size(); i++) {
+            var parser = Parser.build(new Lexer(sources.get(i)));
+            var program = parser.parseProgram();
+            assertThat(results.get(i).result().program()).isEqualTo(program);
+            assertThat(results.get(i).result().errors()).isEqualTo(parser.getErrors());
+            assertThat(results.get(i).result().hasErrors()).isEqualTo(i % 7 == 0);
+        }
+    }
+
+    @Test
+    void testUnreadableFileFailsTheBatch() throws IOException {
+        Path present = directory.resolve("present.monkey");
+        Files.writeString(present, "1;");
+
+        assertThatThrownBy(() -> Parser.parseAll(List.of(present, directory.resolve("missing"))))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+}
@@ -0,0 +1,59 @@
+package interpreter.ast;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import interpreter.lexer.Lexer;
+import org.junit.jupiter.api.Test;
+
+class ParseCacheTest {
+
+    @Test
+    void testRepeatedSourceIsParsedOnce() {
+        var cache = ParseCache.create(1_000_000);
+
+        var first = cache.parse("let x = 5; x * 2;");
+        var second = cache.parse("let x = 5; x * 2;");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.program())
+                .isEqualTo(Parser.build(new Lexer("let x = 5; x * 2;")).parseProgram());
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testErrorsAreCached() {
+        var cache = ParseCache.create(1_000_000);
+
+        var result = cache.parse("let = 5;");
+
+        assertThat(result.hasErrors()).isTrue();
+        assertThat(result.errors())
+                .containsExactly("expecting next token to be IDENT, got ASSIGN instead");
+        assertThat(cache.parse("let = 5;")).isSameAs(result);
+    }
+
+    @Test
+    void testSourcesHeavierThanTheBoundAreEvicted() {
+        var cache = ParseCache.create(8);
+
+        var first = cache.parse("let answer = 42;");
+        var second = cache.parse("let answer = 42;");
+
+        assertThat(second).isNotSameAs(first).isEqualTo(first);
+        assertThat(cache.stats().evictionCount()).isEqualTo(2);
+        assertThat(cache.stats().hitCount()).isZero();
+    }
+
+    @Test
+    void testResultsAreImmutable() {
+        var result = ParseCache.create(1_000).parse("1; 2;");
+
+        assertThatThrownBy(() -> result.program().statements().clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> result.errors().add("error"))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
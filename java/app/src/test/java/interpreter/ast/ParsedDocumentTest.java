@@ -0,0 +1,90 @@
+package interpreter.ast;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import interpreter.lexer.Lexer;
+import interpreter.lexer.SourcePosition;
+import interpreter.lexer.TextEdit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ParsedDocumentTest {
+    private static final String SOURCE =
+            """
+            let x = 5;
+            let y = x * 2;
+            return x + y;
+            x == y;
+            """;
+
+    static Stream<Arguments> edits() {
+        return Stream.of(
+                Arguments.of(TextEdit.insert(0, "let z = 1;\n")),
+                Arguments.of(TextEdit.insert(SOURCE.length(), "z;")),
+                Arguments.of(new TextEdit(8, 1, "50")),
+                Arguments.of(TextEdit.delete(9, 1)),
+                Arguments.of(TextEdit.insert(19, "(")),
+                Arguments.of(new TextEdit(11, 14, "")),
+                Arguments.of(TextEdit.insert(40, "let")),
+                Arguments.of(new TextEdit(0, SOURCE.length(), "1 + 2")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("interpreter.ast.ParsedDocumentTest#edits")
+    void testEditMatchesFullParse(TextEdit edit) {
+        var document = ParsedDocument.parse(SOURCE).edit(edit);
+
+        var parser = Parser.build(new Lexer(edit.apply(SOURCE)));
+        var expected = parser.parseProgram();
+
+        assertThat(document.source()).isEqualTo(edit.apply(SOURCE));
+        assertThat(document.program()).isEqualTo(expected);
+        assertThat(document.errors()).isEqualTo(parser.getErrors());
+        assertThat(document.diagnostics()).isEqualTo(parser.getDiagnostics());
+    }
+
+    @Test
+    void testDiagnosticPositionsFollowEdits() {
+        var document = ParsedDocument.parse(SOURCE + "let = 1;\n");
+
+        var edited = document.edit(TextEdit.insert(0, "let z = 1;\n\n"));
+
+        assertThat(document.diagnostics()).hasSize(1);
+        assertThat(document.position(document.diagnostics().get(0)))
+                .isEqualTo(new SourcePosition(5, 5));
+        assertThat(edited.diagnostics().get(0).offset())
+                .isEqualTo(document.diagnostics().get(0).offset() + 12);
+        assertThat(edited.position(edited.diagnostics().get(0)))
+                .isEqualTo(new SourcePosition(7, 5));
+    }
+
+    @Test
+    void testUnchangedStatementsAreReused() {
+        var document = ParsedDocument.parse(SOURCE);
+
+        var edited = document.edit(new TextEdit(8, 1, "50"));
+
+        var before = document.program().statements();
+        var after = edited.program().statements();
+        assertThat(after.get(0)).isNotSameAs(before.get(0));
+        assertThat(after.get(1)).isSameAs(before.get(1));
+        assertThat(after.get(2)).isSameAs(before.get(2));
+        assertThat(after.get(3)).isSameAs(before.get(3));
+    }
+
+    @Test
+    void testEditsChain() {
+        var document =
+                ParsedDocument.parse(SOURCE)
+                        .edit(TextEdit.insert(0, "let"))
+                        .edit(TextEdit.delete(0, 3))
+                        .edit(TextEdit.insert(SOURCE.length(), "y"));
+
+        assertThat(document.errors()).isEmpty();
+        assertThat(document.program())
+                .isEqualTo(Parser.build(new Lexer(SOURCE + "y")).parseProgram());
+    }
+}
@@ -11,11 +11,13 @@ import static interpreter.ast.ParserTestHelpers.PLUS_TOKEN;
 import static interpreter.ast.ParserTestHelpers.SLASH_TOKEN;
 import static interpreter.ast.ParserTestHelpers.TRUE_TOKEN;
 import static interpreter.ast.ParserTestHelpers.booleanLiteralExpressionOf;
+import static interpreter.ast.ParserTestHelpers.identifierOf;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.InstanceOfAssertFactories.LIST;
 import static org.assertj.core.api.InstanceOfAssertFactories.collection;
 
 import interpreter.lexer.Lexer;
+import interpreter.lexer.TokenSource;
 import interpreter.token.Token;
 import interpreter.token.TokenType;
 import java.util.List;
@@ -24,6 +26,7 @@ import org.assertj.core.api.InstanceOfAssertFactories;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
 class ParserTest {
@@ -53,13 +56,16 @@ class ParserTest {
                         List.of(
                                 new LetStatement(
                                         new Token(TokenType.LET, "let"),
-                                        new Identifier(new Token(TokenType.IDENT, "x"))),
+                                        new Identifier(new Token(TokenType.IDENT, "x")),
+                                        integerLiteralExpressionOf(5)),
                                 new LetStatement(
                                         new Token(TokenType.LET, "let"),
-                                        new Identifier(new Token(TokenType.IDENT, "y"))),
+                                        new Identifier(new Token(TokenType.IDENT, "y")),
+                                        integerLiteralExpressionOf(10)),
                                 new LetStatement(
                                         new Token(TokenType.LET, "let"),
-                                        new Identifier(new Token(TokenType.IDENT, "foobar")))));
+                                        new Identifier(new Token(TokenType.IDENT, "foobar")),
+                                        integerLiteralExpressionOf(838383))));
     }
 
     @Test
@@ -85,9 +91,15 @@ class ParserTest {
                 .hasSize(3)
                 .isEqualTo(
                         List.of(
-                                new ReturnStatement(new Token(TokenType.RETURN, "return"), null),
-                                new ReturnStatement(new Token(TokenType.RETURN, "return"), null),
-                                new ReturnStatement(new Token(TokenType.RETURN, "return"), null)));
+                                new ReturnStatement(
+                                        new Token(TokenType.RETURN, "return"),
+                                        integerLiteralExpressionOf(5)),
+                                new ReturnStatement(
+                                        new Token(TokenType.RETURN, "return"),
+                                        integerLiteralExpressionOf(10)),
+                                new ReturnStatement(
+                                        new Token(TokenType.RETURN, "return"),
+                                        integerLiteralExpressionOf(993322))));
     }
 
     @Test
@@ -327,6 +339,325 @@ class ParserTest {
                 .isEqualTo(expectedStatements);
     }
 
+    @ParameterizedTest
+    @MethodSource("interpreter.ast.OperatorPrecedenceTestCases#testCases")
+    void testIterativeOperatorPrecedence(
+            String input, List<ExpressionStatement> expectedStatements) {
+        var options = ParserOptions.DEFAULT.withExpressionMode(ExpressionMode.ITERATIVE);
+        var parser = Parser.build(new Lexer(input), options);
+
+        var actual = parser.parseProgram();
+
+        assertThat(parser.getErrors()).isEmpty();
+        assertThat(actual.statements()).isEqualTo(expectedStatements);
+    }
+
+    @Test
+    void testRegisteredOperators() {
+        var registry =
+                OperatorRegistry.standard()
+                        .withInfixOperator(TokenType.PERCENT, Precedence.PRODUCT)
+                        .withInfixOperator(TokenType.LT_EQ, Precedence.LESSGREATER);
+        var parser = Parser.build(new Lexer("a + b % c <= d"), registry);
+
+        var actual = parser.parseProgram();
+
+        assertThat(parser.getErrors()).isEmpty();
+        assertThat(actual.statements())
+                .containsExactly(
+                        new ExpressionStatement(
+                                new Token(TokenType.IDENT, "d"),
+                                new InfixExpression(
+                                        new InfixExpression(
+                                                identifierOf("a"),
+                                                PLUS_TOKEN,
+                                                new InfixExpression(
+                                                        identifierOf("b"),
+                                                        new Token(TokenType.PERCENT, "%"),
+                                                        identifierOf("c"))),
+                                        new Token(TokenType.LT_EQ, "<="),
+                                        identifierOf("d"))));
+    }
+
+    @Test
+    void testRightAssociativeOperator() {
+        var or = new Token(TokenType.OR, "||");
+        var registry =
+                OperatorRegistry.standard()
+                        .withInfixOperator(TokenType.OR, Precedence.EQUALS, Associativity.RIGHT);
+        var parser = Parser.build(new Lexer("a || b || c"), registry);
+
+        var actual = parser.parseProgram();
+
+        assertThat(parser.getErrors()).isEmpty();
+        assertThat(actual.statements())
+                .containsExactly(
+                        new ExpressionStatement(
+                                new Token(TokenType.IDENT, "c"),
+                                new InfixExpression(
+                                        identifierOf("a"),
+                                        or,
+                                        new InfixExpression(
+                                                identifierOf("b"), or, identifierOf("c")))));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExpressionMode.class)
+    void testIfExpression(ExpressionMode mode) {
+        var parser =
+                Parser.build(
+                        new Lexer("if (x < y) { x } else { let z = y; z }"),
+                        ParserOptions.DEFAULT.withExpressionMode(mode));
+
+        var actual = parser.parseProgram();
+
+        assertThat(parser.getErrors()).isEmpty();
+        var lbrace = new Token(TokenType.LBRACE, "{");
+        assertThat(actual.statements())
+                .containsExactly(
+                        new ExpressionStatement(
+                                new Token(TokenType.RBRACE, "}"),
+                                new IfExpression(
+                                        new Token(TokenType.IF, "if"),
+                                        new InfixExpression(
+                                                identifierOf("x"), LT_TOKEN, identifierOf("y")),
+                                        new BlockStatement(
+                                                lbrace,
+                                                List.of(
+                                                        new ExpressionStatement(
+                                                                new Token(TokenType.IDENT, "x"),
+                                                                identifierOf("x")))),
+                                        new BlockStatement(
+                                                lbrace,
+                                                List.of(
+                                                        new LetStatement(
+                                                                new Token(TokenType.LET, "let"),
+                                                                identifierOf("z"),
+                                                                identifierOf("y")),
+                                                        new ExpressionStatement(
+                                                                new Token(TokenType.IDENT, "z"),
+                                                                identifierOf("z")))))));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExpressionMode.class)
+    void testFunctionLiteral(ExpressionMode mode) {
+        var parser =
+                Parser.build(
+                        new Lexer("let f = fn(x, y) { return x + y; }; fn() {}"),
+                        ParserOptions.DEFAULT.withExpressionMode(mode));
+
+        var actual = parser.parseProgram();
+
+        assertThat(parser.getErrors()).isEmpty();
+        var fn = new Token(TokenType.FUNCTION, "fn");
+        var lbrace = new Token(TokenType.LBRACE, "{");
+        assertThat(actual.statements())
+                .containsExactly(
+                        new LetStatement(
+                                new Token(TokenType.LET, "let"),
+                                identifierOf("f"),
+                                new FunctionLiteral(
+                                        fn,
+                                        List.of(identifierOf("x"), identifierOf("y")),
+                                        new BlockStatement(
+                                                lbrace,
+                                                List.of(
+                                                        new ReturnStatement(
+                                                                new Token(
+                                                                        TokenType.RETURN, "return"),
+                                                                new InfixExpression(
+                                                                        identifierOf("x"),
+                                                                        PLUS_TOKEN,
+                                                                        identifierOf("y"))))))),
+                        new ExpressionStatement(
+                                new Token(TokenType.RBRACE, "}"),
+                                new FunctionLiteral(
+                                        fn, List.of(), new BlockStatement(lbrace, List.of()))));
+    }
+
+    @Test
+    void testUnregisteredOperatorIsAnError() {
+        var parser = Parser.build(new Lexer("a % b"));
+
+        parser.parseProgram();
+
+        assertThat(parser.getErrors())
+                .containsExactly("no prefix parse function found for type: PERCENT");
+    }
+
+    @Test
+    void testRegistryIsCopyOnWrite() {
+        var standard = OperatorRegistry.standard();
+
+        var extended = standard.withInfixOperator(TokenType.PERCENT, Precedence.PRODUCT);
+
+        assertThat(standard.slot(TokenType.PERCENT).infix()).isNull();
+        assertThat(extended.slot(TokenType.PERCENT).precedence()).isEqualTo(Precedence.PRODUCT);
+        assertThat(extended.without(TokenType.PLUS).slot(TokenType.PLUS).infix()).isNull();
+        assertThat(standard.slot(TokenType.PLUS).infix()).isNotNull();
+    }
+
+    @Test
+    void testDiagnostics() {
+        var parser = Parser.build(new Lexer("let = 5; let y 3;"));
+
+        parser.parseProgram();
+
+        assertThat(parser.getDiagnostics())
+                .containsExactly(
+                        Diagnostic.unexpectedToken(1, 4, TokenType.IDENT, TokenType.ASSIGN),
+                        Diagnostic.unexpectedToken(6, 15, TokenType.ASSIGN, TokenType.INT));
+        assertThat(parser.getErrors())
+                .containsExactly(
+                        "expecting next token to be IDENT, got ASSIGN instead",
+                        "expecting next token to be ASSIGN, got INT instead");
+    }
+
+    @ParameterizedTest
+    @MethodSource("interpreter.ast.ParserTest#recoveryTests")
+    void testRecoversAtNextStatement(String input, String expectedError) {
+        var parser = Parser.build(new Lexer(input));
+
+        var actual = parser.parseProgram();
+
+        assertThat(parser.getErrors()).containsExactly(expectedError);
+        assertThat(actual.statements())
+                .last()
+                .isEqualTo(
+                        new ReturnStatement(
+                                new Token(TokenType.RETURN, "return"), identifierOf("ok")));
+    }
+
+    static Stream<Arguments> recoveryTests() {
+        return Stream.of(
+                Arguments.of(
+                        "1 +; return ok;", "no prefix parse function found for type: SEMICOLON"),
+                Arguments.of(
+                        "5 + + 5;;; return ok;", "no prefix parse function found for type: PLUS"),
+                Arguments.of("-;return ok", "no prefix parse function found for type: SEMICOLON"),
+                Arguments.of(
+                        "(1 2 3); return ok;",
+                        "expecting next token to be RPAREN, got INT instead"),
+                Arguments.of(
+                        "let x = 99999999999; return ok;",
+                        "could not parse 99999999999 as integer"),
+                Arguments.of(
+                        "let f = fn(x) { let = 1; if (x) { x; }; }; return ok;",
+                        "expecting next token to be IDENT, got ASSIGN instead"),
+                Arguments.of(
+                        "if (x) { fn(a b) { a } } else { 1 }; return ok;",
+                        "expecting next token to be RPAREN, got IDENT instead"),
+                Arguments.of(
+                        "f(1, 2; return ok;",
+                        "expecting next token to be RPAREN, got SEMICOLON instead"));
+    }
+
+    @Test
+    void testTruncatedInputTerminates() {
+        for (String input :
+                List.of(
+                        "let x = 5",
+                        "let x =",
+                        "let x",
+                        "let",
+                        "return",
+                        "1 +",
+                        "(",
+                        "fn(",
+                        "fn(x) {",
+                        "if (x) { 1",
+                        "if (x) { 1 } else",
+                        "f(1,")) {
+            var parser = Parser.build(new Lexer(input));
+
+            parser.parseProgram();
+
+            assertThat(parser.getDiagnostics()).hasSizeLessThanOrEqualTo(1);
+        }
+    }
+
+    @Test
+    void testMaxErrors() {
+        var options = ParserOptions.DEFAULT.withMaxErrors(3);
+        var parser = Parser.build(new Lexer(");".repeat(1000)), options);
+
+        parser.parseProgram();
+
+        assertThat(parser.getDiagnostics())
+                .hasSize(3)
+                .allMatch(diagnostic -> diagnostic.code() == DiagnosticCode.NO_PREFIX_PARSE_FN);
+    }
+
+    @Test
+    void testIterativeModeParsesDeepNesting() {
+        int depth = 100_000;
+        var options =
+                ParserOptions.DEFAULT
+                        .withExpressionMode(ExpressionMode.ITERATIVE)
+                        .withMaxDepth(2 * depth + 1);
+        var parser =
+                Parser.build(new Lexer("-(".repeat(depth) + "1" + ")".repeat(depth)), options);
+
+        var program = parser.parseProgram();
+
+        assertThat(parser.getErrors()).isEmpty();
+        var expression = ((ExpressionStatement) program.statements().get(0)).expression();
+        int prefixes = 0;
+        while (expression instanceof PrefixExpression prefix) {
+            prefixes++;
+            expression = prefix.right();
+        }
+        assertThat(prefixes).isEqualTo(depth);
+        assertThat(expression).isEqualTo(integerLiteralExpressionOf(1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExpressionMode.class)
+    void testMaxDepth(ExpressionMode mode) {
+        var options = ParserOptions.DEFAULT.withExpressionMode(mode).withMaxDepth(3);
+        var parser = Parser.build(new Lexer("((1)); (((1))); 1 + -1;"), options);
+
+        var program = parser.parseProgram();
+
+        assertThat(parser.getDiagnostics())
+                .containsExactly(Diagnostic.nestingTooDeep(9, 10, TokenType.INT));
+        assertThat(program.statements())
+                .last()
+                .extracting(statement -> ((ExpressionStatement) statement).expression())
+                .isInstanceOf(InfixExpression.class);
+    }
+
+    @Test
+    void testStatementsMatchParseProgram() {
+        String input = "let x = 5; 1 +; return x * (2 + 3); ); x;";
+        var expected = Parser.build(new Lexer(input));
+        var program = expected.parseProgram();
+
+        var parser = Parser.build(new Lexer(input));
+
+        assertThat(parser.statements().toList()).isEqualTo(program.statements());
+        assertThat(parser.getDiagnostics()).isEqualTo(expected.getDiagnostics());
+    }
+
+    @Test
+    void testStatementsAreLazy() {
+        int[] produced = {0};
+        TokenSource endless =
+                () ->
+                        produced[0]++ % 2 == 0
+                                ? new Token(TokenType.INT, "1")
+                                : new Token(TokenType.SEMICOLON, ";");
+
+        var statements = Parser.build(endless).statements().limit(3).toList();
+
+        var one =
+                new ExpressionStatement(
+                        new Token(TokenType.INT, "1"), integerLiteralExpressionOf(1));
+        assertThat(statements).containsExactly(one, one, one);
+        assertThat(produced[0]).isLessThan(10);
+    }
+
     private static IntegerLiteralExpression integerLiteralExpressionOf(Integer val) {
         return new IntegerLiteralExpression(new Token(TokenType.INT, val.toString()), val);
     }
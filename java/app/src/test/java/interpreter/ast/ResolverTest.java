@@ -0,0 +1,173 @@
+package interpreter.ast;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import interpreter.lexer.Lexer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ResolverTest {
+
+    @Test
+    void testBindsNamesToSlots() {
+        var result = new Resolver().resolve(parse("let a = 1; let b = a + 2; let a = b; a * b;"));
+
+        assertThat(result.diagnostics()).isEmpty();
+        assertThat(identifiers(result.program()))
+                .extracting(identifier -> identifier.token().literal() + "@" + identifier.slot())
+                .containsExactly("a@0", "b@1", "a@0", "a@0", "b@1", "a@0", "b@1");
+        assertThat(identifiers(result.program())).allMatch(identifier -> identifier.depth() == 0);
+    }
+
+    @Test
+    void testReportsUnresolvedIdentifiers() {
+        var result = new Resolver().resolve(parse("x + 1; let x = 2; let y = y; x;"));
+
+        assertThat(result.diagnostics())
+                .containsExactly(
+                        Diagnostic.unresolvedIdentifier("x"), Diagnostic.unresolvedIdentifier("y"));
+        assertThat(result.errors())
+                .containsExactly("identifier not found: x", "identifier not found: y");
+        assertThat(identifiers(result.program()))
+                .extracting(Identifier::isResolved)
+                .containsExactly(false, true, true, false, true);
+    }
+
+    @Test
+    void testGlobalsOutliveACall() {
+        var resolver = new Resolver();
+
+        resolver.resolve(parse("let a = 1; let b = 2;"));
+        var result = resolver.resolve(parse("let c = b; a;"));
+
+        assertThat(result.diagnostics()).isEmpty();
+        assertThat(identifiers(result.program()))
+                .extracting(Identifier::slot)
+                .containsExactly(2, 1, 0);
+        assertThat(resolver.globalCount()).isEqualTo(3);
+    }
+
+    @Test
+    void testFunctionsGetTheirOwnFrames() {
+        var program =
+                parse("let a = 1; let f = fn(x) { let y = x + a; fn() { y + b } }; let b = 2;");
+
+        var result = new Resolver().resolve(program);
+
+        assertThat(result.diagnostics()).isEmpty();
+        assertThat(identifiers(result.program()))
+                .extracting(
+                        identifier ->
+                                identifier.token().literal()
+                                        + "@"
+                                        + identifier.depth()
+                                        + ":"
+                                        + identifier.slot())
+                .containsExactly(
+                        "a@0:0",
+                        "f@0:1",
+                        "x@0:0",
+                        "y@0:1",
+                        "x@0:0",
+                        "a@1:0",
+                        "y@1:1",
+                        "b@2:2",
+                        "b@0:2");
+    }
+
+    @Test
+    void testFunctionCanCallItself() {
+        var result =
+                new Resolver()
+                        .resolve(parse("let f = fn(n) { if (n) { return f(n - 1); } n }; f(3);"));
+
+        assertThat(result.diagnostics()).isEmpty();
+        assertThat(identifiers(result.program()))
+                .filteredOn(identifier -> identifier.token().literal().equals("f"))
+                .extracting(Identifier::depth, Identifier::slot)
+                .containsExactly(tuple(0, 0), tuple(1, 0), tuple(0, 0));
+    }
+
+    @Test
+    void testNestedFunctionSeesLaterLocalsOfEnclosingFunction() {
+        var program =
+                parse(
+                        "let f = fn() { let g = fn() { h() }; let h = fn() { 7 }; g() };"
+                                + " let h = 1; f();");
+
+        var result = new Resolver().resolve(program);
+
+        assertThat(result.diagnostics()).isEmpty();
+        assertThat(identifiers(result.program()))
+                .extracting(
+                        identifier ->
+                                identifier.token().literal()
+                                        + "@"
+                                        + identifier.depth()
+                                        + ":"
+                                        + identifier.slot())
+                .containsExactly(
+                        "f@0:0", "g@0:0", "h@1:1", "h@0:1", "g@0:0", "h@0:1", "f@0:0");
+    }
+
+    private static List<Identifier> identifiers(Program program) {
+        List<Identifier> identifiers = new ArrayList<>();
+        for (Statement statement : program.statements()) {
+            collect(statement, identifiers);
+        }
+        return identifiers;
+    }
+
+    private static void collect(Statement statement, List<Identifier> identifiers) {
+        switch (statement) {
+            case LetStatement let -> {
+                identifiers.add(let.identifier());
+                collect(let.value(), identifiers);
+            }
+            case ExpressionStatement expression -> collect(expression.expression(), identifiers);
+            case ReturnStatement ret -> collect(ret.expression(), identifiers);
+            case BlockStatement block -> {
+                for (Statement inner : block.statements()) {
+                    collect(inner, identifiers);
+                }
+            }
+            default -> {}
+        }
+    }
+
+    private static void collect(Expression expression, List<Identifier> identifiers) {
+        switch (expression) {
+            case Identifier identifier -> identifiers.add(identifier);
+            case PrefixExpression prefix -> collect(prefix.right(), identifiers);
+            case InfixExpression infix -> {
+                collect(infix.left(), identifiers);
+                collect(infix.right(), identifiers);
+            }
+            case IfExpression ifExpression -> {
+                collect(ifExpression.condition(), identifiers);
+                collect(ifExpression.consequence(), identifiers);
+                if (ifExpression.alternative() != null) {
+                    collect(ifExpression.alternative(), identifiers);
+                }
+            }
+            case FunctionLiteral function -> {
+                identifiers.addAll(function.parameters());
+                collect(function.body(), identifiers);
+            }
+            case CallExpression call -> {
+                collect(call.function(), identifiers);
+                call.arguments().forEach(argument -> collect(argument, identifiers));
+            }
+            default -> {}
+        }
+    }
+
+    private static Program parse(String input) {
+        var parser = Parser.build(new Lexer(input));
+        var program = parser.parseProgram();
+        assertThat(parser.getErrors()).isEmpty();
+        return program;
+    }
+}
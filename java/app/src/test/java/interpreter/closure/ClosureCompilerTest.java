@@ -0,0 +1,89 @@
+package interpreter.closure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import interpreter.ast.Parser;
+import interpreter.ast.Program;
+import interpreter.ast.Resolver;
+import interpreter.eval.Environment;
+import interpreter.eval.Evaluator;
+import interpreter.eval.IntegerValue;
+import interpreter.lexer.Lexer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ClosureCompilerTest {
+    private final Resolver resolver = new Resolver();
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "(5 + 10 * 2 + 15 / 3) * 2 + -10",
+                "2147483647 + 1",
+                "!!5 == true",
+                "(1 < 2) != (2 > 1)",
+                "5 + true; 5;",
+                "-true",
+                "true + false;",
+                "10 / 0",
+                "let a = 5; let b = a * 2; let a = a + b; a * b",
+                "9; return 2 * 5; 9;",
+                "x; let x = 1;",
+                "if (1) { if (true) { return 10; } return 1; }; 2",
+                "if (false) { 10 }",
+                "if (1 > 2) { y } else { 20 }",
+                "5(1)",
+                "fn(x) { x }(1, 2)",
+                "fn() { y }()",
+                "let adder = fn(a) { fn(b) { a + b } }; adder(2)(40)",
+                "let f = fn() { g() }; let g = fn() { 7 }; f()",
+                "let fib = fn(n) { if (n < 2) { return n; } fib(n - 1) + fib(n - 2) }; fib(15)",
+                "let make = fn(n, get) { if (n == 0) { return get; }"
+                        + " return make(n - 1, fn() { n }); }; make(3, 0)()",
+                "let f = fn(a, b) { a == b }; f(1, 1); f(true, true); f(1, false)",
+                "let f = fn(a, b) { a / b }; f(6, 3) + f(6, 0)",
+                "let f = fn(a) { -a }; f(1); f(true)",
+                "fn(x, y) { x }"
+            })
+    void testEvaluatesLikeTheEvaluator(String input) {
+        var program = Parser.build(new Lexer(input)).parseProgram();
+        var resolved = new Resolver().resolve(program).program();
+
+        assertThat(new ClosureCompiler().compile(program).run(new Environment()).inspect())
+                .isEqualTo(new Evaluator().eval(program, new Environment()).inspect());
+        assertThat(new ClosureCompiler().compile(resolved).run(new Environment()).inspect())
+                .isEqualTo(new Evaluator().eval(resolved, new Environment()).inspect());
+    }
+
+    @Test
+    void testFunctionsOutliveTheirProgram() {
+        var compiler = new ClosureCompiler();
+        var environment = new Environment();
+
+        compiler.compile(resolve("let add = fn(a, b) { a + b };")).run(environment);
+
+        assertThat(compiler.compile(resolve("add(40, 2)")).run(environment).inspect())
+                .isEqualTo("42");
+        assertThat(compiler.compile(resolve("add(true, 2)")).run(environment).inspect())
+                .isEqualTo("ERROR: type mismatch: BOOLEAN + INTEGER");
+    }
+
+    @Test
+    void testTailCallsRunInConstantStack() {
+        var program =
+                resolve(
+                        "let loop = fn(n, acc) { if (n == 0) { return acc; }"
+                                + " return loop(n - 1, acc + 1); }; loop(1000000, 0)");
+
+        assertThat(new ClosureCompiler().compile(program).run(new Environment()))
+                .isEqualTo(IntegerValue.of(1_000_000));
+    }
+
+    private Program resolve(String input) {
+        var parser = Parser.build(new Lexer(input));
+        var program = parser.parseProgram();
+        assertThat(parser.getErrors()).isEmpty();
+        return resolver.resolve(program).program();
+    }
+}
@@ -0,0 +1,194 @@
+package interpreter.eval;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import interpreter.ast.Parser;
+import interpreter.ast.Resolver;
+import interpreter.lexer.Lexer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class EvaluatorTest {
+
+    private static Stream<Arguments> integerExpressions() {
+        return Stream.of(
+                Arguments.of("5", 5),
+                Arguments.of("-10", -10),
+                Arguments.of("5 + 5 + 5 + 5 - 10", 10),
+                Arguments.of("2 * 2 * 2 * 2 * 2", 32),
+                Arguments.of("-50 + 100 + -50", 0),
+                Arguments.of("20 + 2 * -10", 0),
+                Arguments.of("50 / 2 * 2 + 10", 60),
+                Arguments.of("3 * (3 * 3) + 10", 37),
+                Arguments.of("(5 + 10 * 2 + 15 / 3) * 2 + -10", 50),
+                Arguments.of("2147483647 + 1", Integer.MIN_VALUE));
+    }
+
+    @ParameterizedTest
+    @MethodSource("interpreter.eval.EvaluatorTest#integerExpressions")
+    void testIntegerExpressions(String input, int expected) {
+        assertThat(eval(input)).isEqualTo(IntegerValue.of(expected));
+    }
+
+    private static Stream<Arguments> booleanExpressions() {
+        return Stream.of(
+                Arguments.of("true", true),
+                Arguments.of("1 < 2", true),
+                Arguments.of("1 > 2", false),
+                Arguments.of("1 == 1", true),
+                Arguments.of("1 != 1", false),
+                Arguments.of("true == false", false),
+                Arguments.of("(1 < 2) == true", true),
+                Arguments.of("!true", false),
+                Arguments.of("!5", false),
+                Arguments.of("!!5", true));
+    }
+
+    @ParameterizedTest
+    @MethodSource("interpreter.eval.EvaluatorTest#booleanExpressions")
+    void testBooleanExpressions(String input, boolean expected) {
+        assertThat(eval(input)).isSameAs(BooleanValue.of(expected));
+    }
+
+    private static Stream<Arguments> statements() {
+        return Stream.of(
+                Arguments.of("let a = 5; a;", 5),
+                Arguments.of("let a = 5 * 5; a;", 25),
+                Arguments.of("let a = 5; let b = a; let c = a + b + 5; c;", 15),
+                Arguments.of("return 10; 9;", 10),
+                Arguments.of("9; return 2 * 5; 9;", 10));
+    }
+
+    @ParameterizedTest
+    @MethodSource("interpreter.eval.EvaluatorTest#statements")
+    void testStatements(String input, int expected) {
+        assertThat(eval(input)).isEqualTo(IntegerValue.of(expected));
+    }
+
+    private static Stream<Arguments> errors() {
+        return Stream.of(
+                Arguments.of("5 + true;", "type mismatch: INTEGER + BOOLEAN"),
+                Arguments.of("5 + true; 5;", "type mismatch: INTEGER + BOOLEAN"),
+                Arguments.of("-true", "unknown operator: -BOOLEAN"),
+                Arguments.of("true + false;", "unknown operator: BOOLEAN + BOOLEAN"),
+                Arguments.of("foobar", "identifier not found: foobar"),
+                Arguments.of("10 / 0", "division by zero"),
+                Arguments.of("5(1)", "not a function: INTEGER"),
+                Arguments.of("fn(x) { x }(1, 2)", "wrong number of arguments: want=1, got=2"),
+                Arguments.of("fn(x) { x + true }(1)", "type mismatch: INTEGER + BOOLEAN"),
+                Arguments.of("fn() { y }()", "identifier not found: y"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("interpreter.eval.EvaluatorTest#errors")
+    void testErrors(String input, String expectedMessage) {
+        assertThat(eval(input)).isEqualTo(new ErrorValue(expectedMessage));
+    }
+
+    private static Stream<Arguments> functions() {
+        return Stream.of(
+                Arguments.of("if (1 < 2) { 10 } else { 20 }", "10"),
+                Arguments.of("if (1 > 2) { 10 } else { 20 }", "20"),
+                Arguments.of("if (false) { 10 }", "null"),
+                Arguments.of("if (1) { if (true) { return 10; } return 1; }; 2", "10"),
+                Arguments.of("let add = fn(a, b) { a + b }; add(2, add(3, 4))", "9"),
+                Arguments.of("fn(x) { return x * 2; x }(21)", "42"),
+                Arguments.of("let adder = fn(a) { fn(b) { a + b } }; adder(2)(40)", "42"),
+                Arguments.of("let f = fn() { g() }; let g = fn() { 7 }; f()", "7"),
+                Arguments.of(
+                        "let fib = fn(n) { if (n < 2) { return n; } fib(n - 1) + fib(n - 2) };"
+                                + " fib(15)",
+                        "610"),
+                Arguments.of(
+                        "let make = fn(n, get) { if (n == 0) { return get; }"
+                                + " return make(n - 1, fn() { n }); }; make(3, 0)()",
+                        "1"),
+                Arguments.of(
+                        "let f = fn() { let g = fn() { h() }; let h = fn() { 7 }; g() }; f()",
+                        "7"),
+                Arguments.of(
+                        "let f = fn(n) { let even = fn(n) { if (n == 0) { return true; }"
+                                + " odd(n - 1) }; let odd = fn(n) { if (n == 0) { return false; }"
+                                + " even(n - 1) }; even(n) }; f(7)",
+                        "false"),
+                Arguments.of("fn(x, y) { x }", "fn(x, y) {...}"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("interpreter.eval.EvaluatorTest#functions")
+    void testFunctions(String input, String expected) {
+        assertThat(eval(input).inspect()).isEqualTo(expected);
+        assertThat(evalResolved(input).inspect()).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "let loop = fn(n, acc) { if (n == 0) { return acc; }"
+                        + " return loop(n - 1, acc + 1); }; loop(1000000, 0)",
+                "let even = fn(n) { if (n == 0) { return 1000000; } else { return odd(n - 1); } };"
+                        + " let odd = fn(n) { if (n == 0) { return 0; } return even(n - 1); };"
+                        + " even(1000000)"
+            })
+    void testTailCallsRunInConstantStack(String input) {
+        assertThat(eval(input)).isEqualTo(IntegerValue.of(1_000_000));
+        assertThat(evalResolved(input)).isEqualTo(IntegerValue.of(1_000_000));
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "let a = 5; let b = a * 2; let a = a + b; a * b",
+                "let a = 1; foobar",
+                "x; let x = 1;",
+                "let x = x;",
+                "return 1; y",
+                "let a = 10 / 0; a",
+                "let a = 1; let f = fn(b) { let c = a + b; fn() { c * 2 } }; f(20)()",
+                "let f = fn(n) { if (n > 0) { return f(n - 1); } h }; f(3)"
+            })
+    void testResolvedProgramsEvaluateTheSame(String input) {
+        var program = Parser.build(new Lexer(input)).parseProgram();
+
+        var resolved = new Resolver().resolve(program).program();
+
+        assertThat(new Evaluator().eval(resolved, new Environment()))
+                .isEqualTo(new Evaluator().eval(program, new Environment()));
+    }
+
+    @Test
+    void testEnvironmentAcrossSymbolTables() {
+        var environment = new Environment();
+        var evaluator = new Evaluator();
+
+        // Both programs intern their names from id 0, so "b" reuses the id "a" was cached under.
+        evaluator.eval(Parser.build(new Lexer("let a = 1;")).parseProgram(), environment);
+        evaluator.eval(Parser.build(new Lexer("let b = 2;")).parseProgram(), environment);
+        var result =
+                evaluator.eval(Parser.build(new Lexer("a * 10 + b")).parseProgram(), environment);
+
+        assertThat(result).isEqualTo(IntegerValue.of(12));
+    }
+
+    @Test
+    void testSmallIntegersAreShared() {
+        assertThat(IntegerValue.of(42)).isSameAs(IntegerValue.of(42));
+    }
+
+    private static Value eval(String input) {
+        var parser = Parser.build(new Lexer(input));
+        var program = parser.parseProgram();
+        assertThat(parser.getErrors()).isEmpty();
+        return new Evaluator().eval(program, new Environment());
+    }
+
+    private static Value evalResolved(String input) {
+        var program = Parser.build(new Lexer(input)).parseProgram();
+        var resolved = new Resolver().resolve(program).program();
+        return new Evaluator().eval(resolved, new Environment());
+    }
+}
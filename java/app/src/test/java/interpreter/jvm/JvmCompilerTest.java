@@ -0,0 +1,134 @@
+package interpreter.jvm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import interpreter.ast.Parser;
+import interpreter.ast.Program;
+import interpreter.compiler.CompileException;
+import interpreter.compiler.Scope;
+import interpreter.eval.Environment;
+import interpreter.eval.Evaluator;
+import interpreter.eval.Value;
+import interpreter.lexer.Lexer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class JvmCompilerTest {
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "",
+                "5",
+                "-10",
+                "--5",
+                "!-5",
+                "5 + 5 + 5 + 5 - 10",
+                "(5 + 10 * 2 + 15 / 3) * 2 + -10",
+                "2147483647 + 1",
+                "1 < 2 == true",
+                "1 > 2 != false",
+                "!(1 < 2) == !true",
+                "!5",
+                "!!true",
+                "true == false",
+                "let a = 5; let b = a * 2; a + b;",
+                "let a = 1; let b = a + 1; let a = b * 3; let c = a < b; c",
+                "let a = 1; let a = true; a == true",
+                "let a = 1; let b = a; let a = false; !a == (b > 0)",
+                "let a = 5;",
+                "return 10; 9;",
+                "let a = 1; return a; let b = 2;",
+                "5 + true;",
+                "let x = 5 + true; 1",
+                "-true",
+                "true + false;",
+                "1 < true",
+                "10 / 0",
+                "let a = 0; 10 / a"
+            })
+    void testMatchesEvaluator(String input) {
+        var program = parse(input);
+
+        var expected = new Evaluator().eval(program, new Environment());
+        var actual = new JvmCompiler().compile(program).run(new Value[Scope.MAX_SLOTS]);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void testGlobalsSurviveBetweenRuns() {
+        var compiler = new JvmCompiler();
+        var globals = new Value[Scope.MAX_SLOTS];
+
+        compiler.compile(parse("let a = 40; let b = true;")).run(globals);
+
+        assertThat(compiler.compile(parse("a + 2")).run(globals).inspect()).isEqualTo("42");
+        assertThat(compiler.compile(parse("b == true")).run(globals).inspect()).isEqualTo("true");
+        assertThat(compiler.compile(parse("a + b")).run(globals).inspect())
+                .isEqualTo("ERROR: type mismatch: INTEGER + BOOLEAN");
+    }
+
+    @Test
+    void testBindingsBeforeAnErrorAreKept() {
+        var compiler = new JvmCompiler();
+        var globals = new Value[Scope.MAX_SLOTS];
+
+        var result = compiler.compile(parse("let a = 1; let b = a / 0; let c = 3;")).run(globals);
+
+        assertThat(result.inspect()).isEqualTo("ERROR: division by zero");
+        assertThat(compiler.compile(parse("a")).run(globals).inspect()).isEqualTo("1");
+        assertThat(compiler.compile(parse("c")).run(globals).inspect())
+                .isEqualTo("ERROR: identifier not found: c");
+    }
+
+    @Test
+    void testLongProgramsAreSplitAcrossMethods() {
+        var source = new StringBuilder("let a = 0;");
+        for (int i = 0; i < 1000; i++) {
+            source.append(" let a = a * 3 + ").append(i).append(" / 7;");
+        }
+        var program = parse(source.append(" a").toString());
+
+        var expected = new Evaluator().eval(program, new Environment());
+        var actual = new JvmCompiler().compile(program).run(new Value[Scope.MAX_SLOTS]);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void testCompiledProgramsAreCached() {
+        var compiler = new JvmCompiler(2);
+
+        var first = compiler.compile(parse("1 + 2"));
+        compiler.compile(parse("3"));
+
+        assertThat(compiler.compile(parse("1 + 2"))).isSameAs(first);
+        compiler.compile(parse("4"));
+        assertThat(compiler.cachedPrograms()).isEqualTo(2);
+        assertThat(compiler.compile(parse("1 + 2"))).isSameAs(first);
+    }
+
+    @Test
+    void testUnknownIdentifierFailsToCompile() {
+        assertThatThrownBy(() -> new JvmCompiler().compile(parse("foobar")))
+                .isInstanceOf(CompileException.class)
+                .hasMessage("identifier not found: foobar");
+    }
+
+    @Test
+    void testFunctionsFailToCompile() {
+        assertThatThrownBy(() -> new JvmCompiler().compile(parse("fn(x) { x }(1)")))
+                .isInstanceOf(CompileException.class)
+                .hasMessage("unsupported expression: CallExpression");
+    }
+
+    private static Program parse(String input) {
+        var parser = Parser.build(new Lexer(input));
+        var program = parser.parseProgram();
+        assertThat(parser.getErrors()).isEmpty();
+        return program;
+    }
+}
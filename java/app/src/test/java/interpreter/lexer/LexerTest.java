@@ -4,9 +4,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import interpreter.token.Token;
 import interpreter.token.TokenType;
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class LexerTest {
 
@@ -121,4 +124,104 @@ class LexerTest {
                     assertThat(actual.literal()).isEqualTo(pair.getRight());
                 });
     }
+
+    @Test
+    void testKeywordLookalikesAreIdentifiers() {
+        String input = "lets f fnn iff elses tru falsey returned";
+
+        Lexer lexer = new Lexer(input);
+
+        for (String literal : input.split(" ")) {
+            assertThat(lexer.nextToken()).isEqualTo(new Token(TokenType.IDENT, literal));
+        }
+        assertThat(lexer.nextToken().type()).isEqualTo(TokenType.EOF);
+    }
+
+    @Test
+    void testUnicodeSlowPath() {
+        String input = "été\u2003x_y ٣٤ 1_0 %";
+
+        List<Token> expected =
+                List.of(
+                        new Token(TokenType.IDENT, "été"),
+                        new Token(TokenType.IDENT, "x_y"),
+                        new Token(TokenType.INT, "٣٤"),
+                        new Token(TokenType.ILLEGAL, "1_0"),
+                        new Token(TokenType.ILLEGAL, "%"),
+                        new Token(TokenType.EOF, String.valueOf('\0')));
+
+        Lexer lexer = new Lexer(input);
+
+        expected.forEach(token -> assertThat(lexer.nextToken()).isEqualTo(token));
+    }
+
+    @Test
+    void testFixedTokensAreShared() {
+        Lexer lexer = new Lexer("let x = (x); let");
+
+        Token let = lexer.nextToken();
+        lexer.nextToken();
+        Token assign = lexer.nextToken();
+        Token lparen = lexer.nextToken();
+        lexer.nextToken();
+        lexer.nextToken();
+        lexer.nextToken();
+
+        assertThat(lexer.nextToken()).isSameAs(let);
+        assertThat(new Lexer("=(").nextToken()).isSameAs(assign);
+        assertThat(lparen).isEqualTo(new Token(TokenType.LPAREN, "("));
+    }
+
+    @Test
+    void testComparisonAndLogicalOperators() {
+        String input = "a % b <= c >= d && e || f & g | h";
+        List<Token> expected =
+                List.of(
+                        new Token(TokenType.IDENT, "a"),
+                        new Token(TokenType.PERCENT, "%"),
+                        new Token(TokenType.IDENT, "b"),
+                        new Token(TokenType.LT_EQ, "<="),
+                        new Token(TokenType.IDENT, "c"),
+                        new Token(TokenType.GT_EQ, ">="),
+                        new Token(TokenType.IDENT, "d"),
+                        new Token(TokenType.AND, "&&"),
+                        new Token(TokenType.IDENT, "e"),
+                        new Token(TokenType.OR, "||"),
+                        new Token(TokenType.IDENT, "f"),
+                        new Token(TokenType.ILLEGAL, "&"),
+                        new Token(TokenType.IDENT, "g"),
+                        new Token(TokenType.ILLEGAL, "|"),
+                        new Token(TokenType.IDENT, "h"),
+                        new Token(TokenType.EOF, "\0"));
+
+        Lexer lexer = new Lexer(input);
+
+        expected.forEach(token -> assertThat(lexer.nextToken()).isEqualTo(token));
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "abcdefghijklmnopqrstuvwxyz_ABCDEFGHIJKLMNOPQRSTUVWXYZ",
+                "\t\n\u000B\f\r\u001C\u001D\u001E\u001F ",
+                "0123456789_",
+                "word@word[word`word{word\u001Bx\u007Fy",
+                "longidentifierwithéinsideit 1234567890123456789٣٤ \u2003\u3000 耀x"
+            })
+    void testVectorRunScannerMatchesScalar(String run) {
+        String input = (run + " ;").repeat(300);
+
+        assertThat(tokens(new Lexer(input, 0, new VectorRunScanner(input))))
+                .isEqualTo(tokens(new Lexer(input, 0, RunScanner.SCALAR)));
+    }
+
+    private static List<Token> tokens(Lexer lexer) {
+        List<Token> tokens = new ArrayList<>();
+        Token token;
+        do {
+            token = lexer.nextToken();
+            tokens.add(token);
+        } while (token.type() != TokenType.EOF);
+        return tokens;
+    }
 }
@@ -0,0 +1,117 @@
+package interpreter.lexer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import interpreter.ast.Parser;
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ReaderLexerTest {
+    private static final String INPUT =
+            """
+            let five = 5;
+            let add = fn(x, y) { x + y; };
+            !-/*5; 5 <= 10 >= 5 && a || b;
+            10 == 10; 10 != 9; été 1_000 & |
+            """;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 7, ReaderLexer.DEFAULT_CHUNK_SIZE})
+    void testMatchesLexer(int chunkSize) {
+        var lexer = new Lexer(INPUT);
+        var readerLexer = new ReaderLexer(new StringReader(INPUT), chunkSize);
+
+        List<Token> expected = new ArrayList<>();
+        List<Token> actual = new ArrayList<>();
+        List<Integer> expectedOffsets = new ArrayList<>();
+        List<Integer> actualOffsets = new ArrayList<>();
+        do {
+            expected.add(lexer.nextToken());
+            expectedOffsets.add(lexer.tokenOffset());
+            actual.add(readerLexer.nextToken());
+            actualOffsets.add(readerLexer.tokenOffset());
+        } while (expected.get(expected.size() - 1).type() != TokenType.EOF);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actualOffsets).isEqualTo(expectedOffsets);
+        assertThat(readerLexer.nextToken().type()).isEqualTo(TokenType.EOF);
+    }
+
+    @Test
+    void testInternsIntoTheGivenTable() {
+        var symbols = new SymbolTable();
+        var readerLexer = new ReaderLexer(new StringReader("let five = five;"), 4, symbols);
+
+        readerLexer.nextToken();
+        Token first = readerLexer.nextToken();
+        readerLexer.nextToken();
+
+        assertThat(readerLexer.nextToken()).isSameAs(first);
+        assertThat(readerLexer.symbol()).isEqualTo(symbols.find("five"));
+    }
+
+    @Test
+    void testWithoutTableInternsNothing() {
+        var lexer = new Lexer(INPUT);
+        var readerLexer = new ReaderLexer(new StringReader(INPUT), 3, null);
+
+        Token token;
+        do {
+            token = readerLexer.nextToken();
+            assertThat(token).isEqualTo(lexer.nextToken());
+            assertThat(readerLexer.symbol()).isEqualTo(SymbolTable.NONE);
+        } while (token.type() != TokenType.EOF);
+    }
+
+    @Test
+    void testChannel() {
+        var channel =
+                Channels.newChannel(
+                        new ByteArrayInputStream("let é = 1;".getBytes(StandardCharsets.UTF_8)));
+        var readerLexer = ReaderLexer.of(channel, StandardCharsets.UTF_8);
+
+        readerLexer.nextToken();
+
+        assertThat(readerLexer.nextToken()).isEqualTo(new Token(TokenType.IDENT, "é"));
+    }
+
+    @Test
+    void testParsesFromReader() {
+        var expected = Parser.build(new Lexer(INPUT)).parseProgram().statements();
+
+        var parser = Parser.build(new ReaderLexer(new StringReader(INPUT), 4));
+
+        assertThat(parser.statements().toList()).isEqualTo(expected);
+    }
+
+    @Test
+    void testReadFailure() {
+        Reader failing =
+                new Reader() {
+                    @Override
+                    public int read(char[] buffer, int offset, int length) throws IOException {
+                        throw new IOException("disk on fire");
+                    }
+
+                    @Override
+                    public void close() {}
+                };
+
+        assertThatThrownBy(() -> new ReaderLexer(failing).nextToken())
+                .isInstanceOf(UncheckedIOException.class)
+                .hasRootCauseMessage("disk on fire");
+    }
+}
@@ -0,0 +1,79 @@
+package interpreter.lexer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class SymbolTableTest {
+
+    @Test
+    void testInternsRangesIntoDenseIds() {
+        var symbols = new SymbolTable();
+        String source = "foo bar foo foobar";
+
+        assertThat(symbols.intern(source, 0, 3)).isEqualTo(0);
+        assertThat(symbols.intern(source, 4, 7)).isEqualTo(1);
+        assertThat(symbols.intern(source, 8, 11)).isEqualTo(0);
+        assertThat(symbols.intern(source, 12, 18)).isEqualTo(2);
+        assertThat(symbols.intern("bar")).isEqualTo(1);
+        assertThat(symbols.size()).isEqualTo(3);
+        assertThat(symbols.name(2)).isEqualTo("foobar");
+        assertThat(symbols.token(0)).isEqualTo(new Token(TokenType.IDENT, "foo"));
+        assertThat(symbols.find("baz")).isEqualTo(SymbolTable.NONE);
+    }
+
+    @Test
+    void testGrows() {
+        var symbols = new SymbolTable();
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(symbols.intern("name" + i)).isEqualTo(i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(symbols.find("name" + i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void testInternsUtf8Bytes() {
+        var symbols = new SymbolTable();
+        ByteBuffer bytes = ByteBuffer.wrap("abc été".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(symbols.intern(bytes, 0, 3)).isEqualTo(symbols.intern("abc"));
+        assertThat(symbols.intern(bytes, 4, bytes.limit())).isEqualTo(symbols.intern("été"));
+        assertThat(symbols.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testLexersShareOneTokenPerName() {
+        var symbols = new SymbolTable();
+        var first = new Lexer("let x = y;", symbols);
+        var second = new Lexer("x + y", symbols);
+
+        first.nextToken();
+        Token x = first.nextToken();
+        int id = first.symbol();
+        first.nextToken();
+        assertThat(first.symbol()).isEqualTo(SymbolTable.NONE);
+
+        assertThat(second.nextToken()).isSameAs(x);
+        assertThat(second.symbol()).isEqualTo(id);
+    }
+
+    @Test
+    void testCopyKeepsIds() {
+        var symbols = new SymbolTable();
+        symbols.intern("a");
+        var copy = symbols.copy();
+
+        copy.intern("b");
+
+        assertThat(copy.find("a")).isZero();
+        assertThat(symbols.find("b")).isEqualTo(SymbolTable.NONE);
+    }
+}
@@ -0,0 +1,167 @@
+package interpreter.lexer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import interpreter.ast.Parser;
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TokenBufferTest {
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "",
+                "let five = 5;\nlet ten = 10;\nlet add = fn(x, y) { x + y; };",
+                "!-/*5; 5 < 10 > 5; 10 == 10; 10 != 9;",
+                "if (5 < 10) { return true; } else { return false; }",
+                "a % b",
+                "1_000 été",
+                "a\0b"
+            })
+    void testMatchesLexer(String input) {
+        var buffer = TokenBuffer.lex(input);
+
+        var lexer = new Lexer(input);
+        List<Token> expected = new ArrayList<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            expected.add(lexer.nextToken());
+        }
+        List<Token> actual = new ArrayList<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            actual.add(buffer.token(i));
+        }
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(buffer.type(buffer.size() - 1)).isEqualTo(TokenType.EOF);
+    }
+
+    @Test
+    void testOffsets() {
+        var buffer = TokenBuffer.lex("let foo == 42;");
+
+        assertThat(buffer.size()).isEqualTo(6);
+        assertThat(buffer.type(1)).isEqualTo(TokenType.IDENT);
+        assertThat(buffer.start(1)).isEqualTo(4);
+        assertThat(buffer.length(1)).isEqualTo(3);
+        assertThat(buffer.type(2)).isEqualTo(TokenType.EQ);
+        assertThat(buffer.end(2)).isEqualTo(10);
+        assertThat(buffer.literal(3)).isEqualTo("42");
+        assertThat(buffer.start(5)).isEqualTo(14);
+        assertThat(buffer.literal(5)).isEqualTo(String.valueOf('\0'));
+    }
+
+    @Test
+    void testPositions() {
+        var buffer = TokenBuffer.lex("let a = 1;\n\n  a +\r\n b;\n");
+
+        assertThat(buffer.lineIndex().lineCount()).isEqualTo(5);
+        assertThat(buffer.position(0)).isEqualTo(new SourcePosition(1, 1));
+        assertThat(buffer.position(4)).isEqualTo(new SourcePosition(1, 10));
+        assertThat(buffer.position(5)).isEqualTo(new SourcePosition(3, 3));
+        assertThat(buffer.position(7)).isEqualTo(new SourcePosition(4, 2));
+        assertThat(buffer.position(buffer.size() - 1)).isEqualTo(new SourcePosition(5, 1));
+        assertThat(buffer.lineIndex()).isSameAs(buffer.lineIndex());
+    }
+
+    @Test
+    void testParserOverBufferMatchesParserOverLexer() {
+        String input = "let x = 5 * (3 + -y); return !x == false; a + b * c; let = 1;";
+
+        var fromLexer = Parser.build(new Lexer(input));
+        var fromBuffer = Parser.build(TokenBuffer.lex(input));
+
+        assertThat(fromBuffer.parseProgram()).isEqualTo(fromLexer.parseProgram());
+        assertThat(fromBuffer.getErrors()).isEqualTo(fromLexer.getErrors());
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "0:0:let ",
+                "4:3:bar",
+                "6:0:d",
+                "7:1:!",
+                "8:2:",
+                "9:0:\n",
+                "20:0:;",
+                "13:2:12"
+            })
+    void testRelexMatchesFullLex(String spec) {
+        String[] parts = spec.split(":", 3);
+        var edit =
+                new TextEdit(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), parts[2]);
+        var source = "let foo = 1 <= 42; x";
+        var buffer = TokenBuffer.lex(source);
+
+        var relexed = buffer.relex(edit);
+
+        var expected = TokenBuffer.lex(edit.apply(source));
+        assertThat(relexed.tokens().size()).isEqualTo(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(relexed.tokens().token(i)).isEqualTo(expected.token(i));
+            assertThat(relexed.tokens().start(i)).isEqualTo(expected.start(i));
+        }
+        assertThat(relexed.tokens().source()).isEqualTo(edit.apply(source));
+    }
+
+    @Test
+    void testRelexStopsAtResync() {
+        var buffer = TokenBuffer.lex("let a = 1; let b = 2; let c = 3;");
+
+        var relexed = buffer.relex(new TextEdit(19, 1, "20"));
+
+        assertThat(relexed.firstChanged()).isEqualTo(8);
+        assertThat(relexed.newResume()).isEqualTo(9);
+        assertThat(relexed.oldResume()).isEqualTo(9);
+        assertThat(relexed.tokens().literal(8)).isEqualTo("20");
+        assertThat(relexed.tokens().start(10)).isEqualTo(buffer.start(10) + 1);
+    }
+
+    @Test
+    void testParallelLexMatchesLex() {
+        String source =
+                "let five = 5;\n  let add = fn(x, y) { x + y; };\t!-/*5; 10 != 9;été x_1 "
+                        .repeat(5_000);
+
+        var parallel = TokenBuffer.lex(source, 4);
+
+        assertSameTokens(parallel, TokenBuffer.lex(source));
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "2,11", // inside an identifier, then inside a number
+                "8", // between the two characters of ==
+                "1,2,3,4,5", // several chunks inside one token
+                "15,16", // a chunk that lies within whitespace
+                "17,18" // on and after a \0, which lexes as an EOF of its own
+            })
+    void testParallelLexRecoversFromWrongSplits(String splits) {
+        String source = "letter == 1234;  \0x;";
+        int[] inner = Arrays.stream(splits.split(",")).mapToInt(Integer::parseInt).toArray();
+        int[] bounds = new int[inner.length + 2];
+        System.arraycopy(inner, 0, bounds, 1, inner.length);
+        bounds[bounds.length - 1] = source.length();
+
+        var parallel = TokenBuffer.lex(source, bounds, 2);
+
+        assertSameTokens(parallel, TokenBuffer.lex(source));
+    }
+
+    private static void assertSameTokens(TokenBuffer actual, TokenBuffer expected) {
+        assertThat(actual.size()).isEqualTo(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.type(i)).isEqualTo(expected.type(i));
+            assertThat(actual.start(i)).isEqualTo(expected.start(i));
+            assertThat(actual.length(i)).isEqualTo(expected.length(i));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package interpreter.lexer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class Utf8LexerTest {
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "",
+                "let five = 5;\nlet ten = 10;\nlet add = fn(x, y) { x + y; };",
+                "!-/*5; 5 <= 10 >= 5; 10 == 10; 10 != 9; a && b || c & d | e",
+                "if (5 < 10) { return true; } else { return false; }",
+                "été x_y ٣٤ 1_0 % 日本語",
+                "a\0b"
+            })
+    void testMatchesLexer(String input) {
+        var lexer = new Lexer(input);
+        var utf8Lexer = new Utf8Lexer(utf8(input));
+
+        int size = TokenBuffer.lex(input).size();
+        List<Token> expected = new ArrayList<>();
+        List<Token> actual = new ArrayList<>();
+        for (int i = 0; i <= size; i++) {
+            expected.add(lexer.nextToken());
+            actual.add(utf8Lexer.nextToken());
+        }
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void testByteOffsets() {
+        var lexer = new Utf8Lexer(utf8("é = 1"));
+
+        assertThat(lexer.nextToken()).isEqualTo(new Token(TokenType.IDENT, "é"));
+        assertThat(lexer.getTokenStart()).isEqualTo(0);
+        assertThat(lexer.getTokenEnd()).isEqualTo(2);
+        lexer.nextToken();
+        assertThat(lexer.getTokenStart()).isEqualTo(3);
+    }
+
+    @Test
+    void testSupplementaryLetterIsPartOfIdentifier() {
+        var lexer = new Utf8Lexer(utf8("x𝒳 😀"));
+
+        assertThat(lexer.nextToken()).isEqualTo(new Token(TokenType.IDENT, "x𝒳"));
+        assertThat(lexer.nextToken()).isEqualTo(new Token(TokenType.ILLEGAL, "😀"));
+        assertThat(lexer.nextToken().type()).isEqualTo(TokenType.EOF);
+    }
+
+    @Test
+    void testMalformedBytesAreIllegal() {
+        byte[] input = {'a', (byte) 0xC3, ' ', (byte) 0xFF, (byte) 0xE2, (byte) 0x82, ';'};
+        var lexer = new Utf8Lexer(ByteBuffer.wrap(input));
+
+        List<TokenType> types = new ArrayList<>();
+        Token token;
+        do {
+            token = lexer.nextToken();
+            types.add(token.type());
+        } while (token.type() != TokenType.EOF);
+
+        assertThat(types)
+                .containsExactly(
+                        TokenType.IDENT,
+                        TokenType.ILLEGAL,
+                        TokenType.ILLEGAL,
+                        TokenType.ILLEGAL,
+                        TokenType.ILLEGAL,
+                        TokenType.SEMICOLON,
+                        TokenType.EOF);
+    }
+
+    @Test
+    void testMap(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("script");
+        Files.writeString(file, "let größe = 42;");
+
+        var lexer = Utf8Lexer.map(file);
+
+        lexer.nextToken();
+        assertThat(lexer.nextToken()).isEqualTo(new Token(TokenType.IDENT, "größe"));
+    }
+
+    private static ByteBuffer utf8(String input) {
+        return ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8));
+    }
+}
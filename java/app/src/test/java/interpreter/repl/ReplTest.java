@@ -0,0 +1,19 @@
+package interpreter.repl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class ReplTest {
+
+    @ParameterizedTest
+    @EnumSource(EngineType.class)
+    void testDeepOperatorChainIsAnErrorNotACrash(EngineType type) {
+        var repl = new Repl(type.create());
+
+        assertThat(repl.handle("1" + " + 1".repeat(200_000)))
+                .isEqualTo("ERROR: program is nested too deeply to run");
+        assertThat(repl.handle("let a = 2; a * 21")).isEqualTo("42");
+    }
+}
@@ -0,0 +1,118 @@
+package interpreter.vm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import interpreter.ast.Parser;
+import interpreter.ast.Program;
+import interpreter.code.Opcodes;
+import interpreter.compiler.CompileException;
+import interpreter.compiler.Compiler;
+import interpreter.eval.Environment;
+import interpreter.eval.ErrorValue;
+import interpreter.eval.Evaluator;
+import interpreter.lexer.Lexer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class VmTest {
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "5",
+                "-10",
+                "5 + 5 + 5 + 5 - 10",
+                "(5 + 10 * 2 + 15 / 3) * 2 + -10",
+                "2147483647 + 1",
+                "1 < 2 == true",
+                "1 > 2 != false",
+                "!5",
+                "!!true",
+                "true == false",
+                "let a = 5; let b = a * 2; a + b;",
+                "let a = 5;",
+                "return 10; 9;",
+                "5 + true;",
+                "-true",
+                "true + false;",
+                "1 < true",
+                "10 / 0"
+            })
+    void testMatchesEvaluator(String input) {
+        var program = parse(input);
+
+        var expected = new Evaluator().eval(program, new Environment());
+        var actual = new Vm().run(new Compiler().compile(program));
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void testGlobalsSurviveBetweenRuns() {
+        var compiler = new Compiler();
+        var vm = new Vm();
+
+        vm.run(compiler.compile(parse("let a = 40;")));
+        var actual = vm.run(compiler.compile(parse("a + 2")));
+
+        assertThat(actual.inspect()).isEqualTo("42");
+    }
+
+    @Test
+    void testConstantsAreDeduplicated() {
+        var bytecode = new Compiler().compile(parse("1 + 1 + 1 * 2"));
+
+        assertThat(bytecode.constants()).hasSize(2);
+        assertThat(bytecode.instructions()[0]).isEqualTo(Opcodes.CONSTANT);
+        assertThat(bytecode.maxStackDepth()).isEqualTo(2);
+    }
+
+    @Test
+    void testUnknownIdentifierFailsToCompile() {
+        assertThatThrownBy(() -> new Compiler().compile(parse("foobar")))
+                .isInstanceOf(CompileException.class)
+                .hasMessage("identifier not found: foobar");
+    }
+
+    @Test
+    void testFunctionsFailToCompile() {
+        assertThatThrownBy(() -> new Compiler().compile(parse("fn(x) { x }(1)")))
+                .isInstanceOf(CompileException.class)
+                .hasMessage("unsupported expression: CallExpression");
+    }
+
+    @Test
+    void testGlobalOfAFailedRunIsNotFound() {
+        var compiler = new Compiler();
+        var vm = new Vm();
+
+        var failed = vm.run(compiler.compile(parse("let x = 1 / 0;")));
+
+        assertThat(failed).isEqualTo(new ErrorValue("division by zero"));
+        assertThat(vm.run(compiler.compile(parse("x;"))))
+                .isEqualTo(new ErrorValue("identifier not found: x"));
+        assertThat(vm.run(compiler.compile(parse("x + 1;"))))
+                .isEqualTo(new ErrorValue("identifier not found: x"));
+    }
+
+    @Test
+    void testFailedCompileDefinesNothing() {
+        var compiler = new Compiler();
+
+        assertThatThrownBy(() -> compiler.compile(parse("let y = 5; z;")))
+                .isInstanceOf(CompileException.class)
+                .hasMessage("identifier not found: z");
+        assertThatThrownBy(() -> compiler.compile(parse("y;")))
+                .isInstanceOf(CompileException.class)
+                .hasMessage("identifier not found: y");
+    }
+
+    private static Program parse(String input) {
+        var parser = Parser.build(new Lexer(input));
+        var program = parser.parseProgram();
+        assertThat(parser.getErrors()).isEmpty();
+        return program;
+    }
+}
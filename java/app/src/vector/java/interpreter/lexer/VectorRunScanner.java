@@ -0,0 +1,107 @@
+package interpreter.lexer;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Classifies a whole vector of characters per step with the incubating Vector API: 16 characters
+ * on AVX2, 32 on AVX-512. Characters are compared as signed shorts, so everything from {@code
+ * U+8000} up is negative and, like the rest of non-ASCII, ends a run for the scalar loop to take
+ * over.
+ *
+ * <p>A {@code String}'s characters cannot be loaded into a vector directly, so the scanner copies
+ * them into a small window as the lexer moves forward. Copying the whole source up front costs
+ * more than the vectors save; the window stays in cache and is refilled about once per {@value
+ * #WINDOW} characters.
+ */
+final class VectorRunScanner implements RunScanner {
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final int WINDOW = 4096;
+
+    private final String source;
+    private final char[] window = new char[WINDOW];
+    private int windowStart;
+    private int windowEnd;
+
+    VectorRunScanner(String source) {
+        this.source = source;
+    }
+
+    /** Returns whether the preferred species is wide enough to beat the scalar loops. */
+    static boolean isAccelerated() {
+        return SPECIES.vectorBitSize() >= 256;
+    }
+
+    @Override
+    public int whitespaceEnd(int from) {
+        int index = from;
+        ShortVector v;
+        while ((v = load(index)) != null) {
+            var whitespace =
+                    v.compare(VectorOperators.EQ, (short) ' ')
+                            .or(between(v, '\t', '\r'))
+                            .or(between(v, '\u001C', '\u001F'));
+            if (!whitespace.allTrue()) {
+                return index + whitespace.not().firstTrue();
+            }
+            index += SPECIES.length();
+        }
+        return index;
+    }
+
+    @Override
+    public int wordEnd(int from) {
+        int index = from;
+        ShortVector v;
+        while ((v = load(index)) != null) {
+            // Setting bit 5 folds upper case onto lower case without bringing anything else into
+            // a-z.
+            var word =
+                    between(v.or((short) 0x20), 'a', 'z')
+                            .or(v.compare(VectorOperators.EQ, (short) '_'));
+            if (!word.allTrue()) {
+                return index + word.not().firstTrue();
+            }
+            index += SPECIES.length();
+        }
+        return index;
+    }
+
+    @Override
+    public int numberEnd(int from) {
+        int index = from;
+        ShortVector v;
+        while ((v = load(index)) != null) {
+            var number = between(v, '0', '9').or(v.compare(VectorOperators.EQ, (short) '_'));
+            if (!number.allTrue()) {
+                return index + number.not().firstTrue();
+            }
+            index += SPECIES.length();
+        }
+        return index;
+    }
+
+    /**
+     * Loads the characters at {@code [index, index + lanes)}, moving the window up to {@code
+     * index} first if they are not all in it, or returns null when the source ends before them.
+     */
+    private ShortVector load(int index) {
+        int end = index + SPECIES.length();
+        if (end > windowEnd || index < windowStart) {
+            if (end > source.length()) {
+                return null;
+            }
+            windowStart = index;
+            windowEnd = Math.min(source.length(), index + WINDOW);
+            source.getChars(windowStart, windowEnd, window, 0);
+        }
+        return ShortVector.fromCharArray(SPECIES, window, index - windowStart);
+    }
+
+    private static VectorMask<Short> between(ShortVector v, char low, char high) {
+        return v.compare(VectorOperators.GE, (short) low)
+                .and(v.compare(VectorOperators.LE, (short) high));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * JMH benchmarks for the interpreter.
+ *
+ *   ./gradlew :jmh:jmh                     run every benchmark (with the gc profiler)
+ *   ./gradlew :jmh:jmh -PjmhIncludes=Lexer run the benchmarks matching a regex
+ *   ./gradlew :jmh:jmhCheckBaseline        run them and fail on regressions against baseline.json
+ *   ./gradlew :jmh:jmhUpdateBaseline       run them and record the results as the new baseline
+ *
+ * Baselines are machine specific; record and compare them on the same hardware. The check fails
+ * until a baseline has been recorded, and for every benchmark that ran without an entry in it.
+ */
+
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.2"
+    id("com.diffplug.spotless") version "7.0.2"
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    jmhImplementation(project(":app"))
+    jmhImplementation("org.apache.commons:commons-lang3:3.17.0")
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+spotless {
+    java {
+      googleJavaFormat("1.25.2").aosp().reflowLongStrings()
+    }
+}
+
+val jmhResults = layout.buildDirectory.file("results/jmh/results.json")
+val jmhBaseline = layout.projectDirectory.file("baseline.json")
+
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    resultsFile.set(jmhResults)
+    findProperty("jmhIncludes")?.let { includes.set(listOf(it.toString())) }
+}
+
+/** Identifies a result by method and parameters, e.g. `...LexerBenchmark.nextToken:size=HUGE`. */
+fun benchmarkKey(result: Map<*, *>): String {
+    val params = (result["params"] as Map<*, *>?)
+        ?.entries
+        ?.sortedBy { it.key.toString() }
+        ?.joinToString(",") { "${it.key}=${it.value}" }
+    val benchmark = result["benchmark"].toString()
+    return if (params.isNullOrEmpty()) benchmark else "$benchmark:$params"
+}
+
+fun readResults(): Map<String, Map<String, Any?>> {
+    val results = JsonSlurper().parse(jmhResults.get().asFile) as List<*>
+    return results.filterIsInstance<Map<*, *>>().associate { result ->
+        val primary = result["primaryMetric"] as Map<*, *>
+        val secondary = result["secondaryMetrics"] as Map<*, *>? ?: emptyMap<String, Any>()
+        val allocation = secondary.entries
+            .firstOrNull { it.key.toString().endsWith("gc.alloc.rate.norm") }
+            ?.value as Map<*, *>?
+        benchmarkKey(result) to mapOf(
+            "mode" to result["mode"],
+            "score" to primary["score"],
+            "unit" to primary["scoreUnit"],
+            "allocatedBytesPerOp" to allocation?.get("score"),
+        )
+    }
+}
+
+tasks.register("jmhUpdateBaseline") {
+    group = "benchmark"
+    description = "Runs the benchmarks and records their results in baseline.json."
+    dependsOn(tasks.named("jmh"))
+    doLast {
+        val results = readResults()
+        val baseline = mapOf(
+            "tolerance" to 0.10,
+            "benchmarks" to results.toSortedMap(),
+        )
+        jmhBaseline.asFile.writeText(JsonOutput.prettyPrint(JsonOutput.toJson(baseline)) + "\n")
+        logger.lifecycle("Recorded ${results.size} benchmarks in ${jmhBaseline.asFile}")
+    }
+}
+
+tasks.register("jmhCheckBaseline") {
+    group = "verification"
+    description = "Runs the benchmarks and fails if any regressed against baseline.json."
+    dependsOn(tasks.named("jmh"))
+    doLast {
+        val baselineFile = jmhBaseline.asFile
+        // A missing or blank file, or one without benchmarks, means nothing has been recorded.
+        val baseline = baselineFile.takeIf { it.isFile && it.readText().isNotBlank() }
+            ?.let { JsonSlurper().parse(it) as? Map<*, *> }
+        val expected = baseline?.get("benchmarks") as? Map<*, *>
+        if (baseline == null || expected.isNullOrEmpty()) {
+            throw GradleException(
+                "no baseline recorded in $baselineFile; " +
+                    "run jmhUpdateBaseline on the benchmark machine"
+            )
+        }
+        val tolerance =
+            (findProperty("jmhTolerance") ?: baseline["tolerance"] ?: 0.10).toString().toDouble()
+        val regressions = mutableListOf<String>()
+
+        readResults().forEach { (key, actual) ->
+            val reference = expected[key] as Map<*, *>?
+            if (reference == null) {
+                regressions += "$key: no baseline recorded"
+                return@forEach
+            }
+            val score = (actual["score"] as Number).toDouble()
+            val referenceScore = (reference["score"] as Number).toDouble()
+            // Throughput should not drop; every other JMH mode reports time, which should not grow.
+            val slower = if (actual["mode"] == "thrpt") {
+                score < referenceScore * (1 - tolerance)
+            } else {
+                score > referenceScore * (1 + tolerance)
+            }
+            if (slower) {
+                regressions += "$key: ${"%.2f".format(score)} ${actual["unit"]}, " +
+                    "baseline ${"%.2f".format(referenceScore)}"
+            }
+
+            val allocated = (actual["allocatedBytesPerOp"] as Number?)?.toDouble()
+            val referenceAllocated = (reference["allocatedBytesPerOp"] as Number?)?.toDouble()
+            // Allow a few bytes of noise so benchmarks that allocate nothing don't flap.
+            if (allocated != null && referenceAllocated != null &&
+                allocated > referenceAllocated * (1 + tolerance) + 16
+            ) {
+                regressions += "$key: allocates ${"%.0f".format(allocated)} B/op, " +
+                    "baseline ${"%.0f".format(referenceAllocated)} B/op"
+            }
+        }
+
+        if (regressions.isNotEmpty()) {
+            throw GradleException(
+                "Benchmarks regressed by more than ${tolerance * 100}% or have no baseline:\n" +
+                    regressions.joinToString("\n")
+            )
+        }
+        logger.lifecycle("No benchmark regressed by more than ${tolerance * 100}%")
+    }
+}
@@ -0,0 +1,64 @@
+package interpreter.benchmark;
+
+import interpreter.ast.AstImage;
+import interpreter.ast.ParseResult;
+import interpreter.ast.Parser;
+import interpreter.ast.Program;
+import interpreter.lexer.Lexer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Starting up from a script file: reading and parsing it, against loading the {@link AstImage}
+ * written for it by an earlier run. Both read the script, which loading needs to tell a stale
+ * image from a fresh one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AstImageBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    private InputSize size;
+
+    private Path script;
+    private Path image;
+
+    @Setup
+    public void setUp() throws IOException {
+        script = Files.createTempFile("ast-image", ".monkey");
+        image = Files.createTempFile("ast-image", ".img");
+        Files.writeString(script, size.source());
+        Files.delete(image);
+        if (AstImage.loadOrParse(script, image).hasErrors()) {
+            throw new IllegalStateException("benchmark input does not parse");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(script);
+        Files.deleteIfExists(image);
+    }
+
+    @Benchmark
+    public Program readAndParse() throws IOException {
+        return Parser.build(new Lexer(Files.readString(script))).parseProgram();
+    }
+
+    @Benchmark
+    public ParseResult readAndLoad() throws IOException {
+        return AstImage.loadOrParse(script, image);
+    }
+}
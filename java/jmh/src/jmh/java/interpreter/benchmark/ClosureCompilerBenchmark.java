@@ -0,0 +1,70 @@
+package interpreter.benchmark;
+
+import interpreter.ast.Program;
+import interpreter.ast.Resolver;
+import interpreter.closure.ClosureCompiler;
+import interpreter.closure.ClosureProgram;
+import interpreter.eval.Environment;
+import interpreter.eval.Evaluator;
+import interpreter.eval.Value;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The resolved programs of {@link EvaluatorBenchmark} compiled into closures up front, against the
+ * evaluator walking the same trees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ClosureCompilerBenchmark {
+
+    @Param({"10", "1000"})
+    private int iterations;
+
+    private Program arithmetic;
+    private Program tailCalls;
+    private ClosureProgram compiledArithmetic;
+    private ClosureProgram compiledTailCalls;
+    private final Evaluator evaluator = new Evaluator();
+
+    @Setup
+    public void setUp() {
+        arithmetic = resolve(EvaluatorBenchmark.arithmeticLoop(iterations));
+        tailCalls = resolve(EvaluatorBenchmark.tailCallLoop(iterations));
+        var compiler = new ClosureCompiler();
+        compiledArithmetic = compiler.compile(arithmetic);
+        compiledTailCalls = compiler.compile(tailCalls);
+    }
+
+    @Benchmark
+    public Value evalArithmeticLoop() {
+        return evaluator.eval(arithmetic, new Environment());
+    }
+
+    @Benchmark
+    public Value runArithmeticLoop() {
+        return compiledArithmetic.run(new Environment());
+    }
+
+    @Benchmark
+    public Value evalTailCallLoop() {
+        return evaluator.eval(tailCalls, new Environment());
+    }
+
+    @Benchmark
+    public Value runTailCallLoop() {
+        return compiledTailCalls.run(new Environment());
+    }
+
+    private static Program resolve(String source) {
+        return new Resolver().resolve(EvaluatorBenchmark.parse(source)).program();
+    }
+}
@@ -0,0 +1,66 @@
+package interpreter.benchmark;
+
+import interpreter.ast.ConstantFolder;
+import interpreter.ast.Parser;
+import interpreter.ast.Program;
+import interpreter.eval.Environment;
+import interpreter.eval.Evaluator;
+import interpreter.eval.Value;
+import interpreter.lexer.Lexer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Evaluation of a program full of constant subtrees, as generated code tends to be, before and
+ * after {@link ConstantFolder}, plus the cost of the pass itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConstantFolderBenchmark {
+
+    @Param({"1000"})
+    private int statements;
+
+    private Program program;
+    private Program folded;
+    private final Evaluator evaluator = new Evaluator();
+
+    @Setup
+    public void setUp() {
+        StringBuilder source = new StringBuilder("let acc = 0;\n");
+        for (int n = 0; n < statements; n++) {
+            source.append("let acc = acc * 1 + (2 * 3 - %d) / 2 + 0;\n".formatted(n % 7))
+                    .append("let flag = !!(acc > 10 * 10) == !false;\n");
+        }
+        var parser = Parser.build(new Lexer(source.toString()));
+        program = parser.parseProgram();
+        if (!parser.getErrors().isEmpty()) {
+            throw new IllegalStateException(
+                    "benchmark input does not parse: " + parser.getErrors());
+        }
+        folded = ConstantFolder.fold(program).program();
+    }
+
+    @Benchmark
+    public Value evalOriginal() {
+        return evaluator.eval(program, new Environment());
+    }
+
+    @Benchmark
+    public Value evalFolded() {
+        return evaluator.eval(folded, new Environment());
+    }
+
+    @Benchmark
+    public Program fold() {
+        return ConstantFolder.fold(program).program();
+    }
+}
@@ -0,0 +1,85 @@
+package interpreter.benchmark;
+
+import interpreter.ast.Parser;
+import interpreter.ast.Program;
+import interpreter.ast.Resolver;
+import interpreter.eval.Environment;
+import interpreter.eval.Evaluator;
+import interpreter.eval.Value;
+import interpreter.lexer.Lexer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Throughput of the tree-walking evaluator on arithmetic-heavy programs. The language has no loop
+ * construct yet, so each program is an unrolled chain of {@code let} statements that keeps feeding
+ * the previous results back into integer arithmetic and comparisons. The same number of steps as a
+ * tail-recursive function measures calls, which run in one reused frame once resolved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EvaluatorBenchmark {
+
+    @Param({"10", "1000"})
+    private int iterations;
+
+    private Program program;
+    private Program tailCalls;
+    private final Evaluator evaluator = new Evaluator();
+
+    @Setup
+    public void setUp() {
+        program = parse(arithmeticLoop(iterations));
+        tailCalls = new Resolver().resolve(parse(tailCallLoop(iterations))).program();
+    }
+
+    @Benchmark
+    public Value evalArithmeticLoop() {
+        return evaluator.eval(program, new Environment());
+    }
+
+    @Benchmark
+    public Value evalTailCallLoop() {
+        return evaluator.eval(tailCalls, new Environment());
+    }
+
+    static Program parse(String source) {
+        var parser = Parser.build(new Lexer(source));
+        var parsed = parser.parseProgram();
+        if (!parser.getErrors().isEmpty()) {
+            throw new IllegalStateException(
+                    "benchmark input does not parse: " + parser.getErrors());
+        }
+        return parsed;
+    }
+
+    static String arithmeticLoop(int iterations) {
+        StringBuilder source = new StringBuilder("let acc = 1; let i = 0;\n");
+        for (int n = 0; n < iterations; n++) {
+            source.append("let i = i + 1;\n")
+                    .append("let acc = (acc * 31 + i * 7 - (i / 3)) / 2 + 5000;\n")
+                    .append("let check = acc > i == !(i < 0);\n");
+        }
+        return source.append("acc;\n").toString();
+    }
+
+    static String tailCallLoop(int iterations) {
+        return """
+                let loop = fn(i, acc) {
+                    if (i == %d) { return acc; }
+                    let i = i + 1;
+                    return loop(i, (acc * 31 + i * 7 - (i / 3)) / 2 + 5000);
+                };
+                loop(0, 1);
+                """
+                .formatted(iterations);
+    }
+}
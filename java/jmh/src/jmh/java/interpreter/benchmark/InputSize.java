@@ -0,0 +1,18 @@
+package interpreter.benchmark;
+
+/** Generated program sizes shared by the lexer, parser and pipeline benchmarks. */
+public enum InputSize {
+    SMALL(10),
+    MEDIUM(1_000),
+    HUGE(100_000);
+
+    private final int statements;
+
+    InputSize(int statements) {
+        this.statements = statements;
+    }
+
+    String source() {
+        return SourceGenerator.generate(statements);
+    }
+}
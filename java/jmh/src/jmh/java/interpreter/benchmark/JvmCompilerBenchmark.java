@@ -0,0 +1,57 @@
+package interpreter.benchmark;
+
+import interpreter.ast.Program;
+import interpreter.eval.Environment;
+import interpreter.eval.Evaluator;
+import interpreter.eval.Value;
+import interpreter.jvm.CompiledProgram;
+import interpreter.jvm.JvmCompiler;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The programs of {@link EvaluatorBenchmark} compiled to a JVM class up front, against the
+ * evaluator interpreting them, and the cost of compiling one, which a long-running service only
+ * pays once per program.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JvmCompilerBenchmark {
+
+    @Param({"10", "1000"})
+    private int iterations;
+
+    private Program program;
+    private CompiledProgram compiled;
+    private final Evaluator evaluator = new Evaluator();
+    private final Value[] globals = new Value[interpreter.compiler.Scope.MAX_SLOTS];
+
+    @Setup
+    public void setUp() {
+        program = EvaluatorBenchmark.parse(EvaluatorBenchmark.arithmeticLoop(iterations));
+        compiled = new JvmCompiler().compile(program);
+    }
+
+    @Benchmark
+    public Value evalArithmeticLoop() {
+        return evaluator.eval(program, new Environment());
+    }
+
+    @Benchmark
+    public Value runArithmeticLoop() {
+        return compiled.run(globals);
+    }
+
+    @Benchmark
+    public CompiledProgram compileArithmeticLoop() {
+        return new JvmCompiler().compile(program);
+    }
+}
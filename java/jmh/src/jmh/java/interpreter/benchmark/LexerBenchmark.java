@@ -0,0 +1,53 @@
+package interpreter.benchmark;
+
+import interpreter.lexer.Lexer;
+import interpreter.lexer.TokenBuffer;
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Throughput of draining a whole generated source through {@link Lexer#nextToken()}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LexerBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    private InputSize size;
+
+    private String source;
+
+    @Setup
+    public void setUp() {
+        source = size.source();
+    }
+
+    @Benchmark
+    public void nextToken(Blackhole blackhole) {
+        Lexer lexer = new Lexer(source);
+        Token token;
+        do {
+            token = lexer.nextToken();
+            blackhole.consume(token);
+        } while (token.type() != TokenType.EOF);
+    }
+
+    @Benchmark
+    public TokenBuffer tokenBuffer() {
+        return TokenBuffer.lex(source);
+    }
+
+    @Benchmark
+    public TokenBuffer parallelTokenBuffer() {
+        return TokenBuffer.lex(source, Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,55 @@
+package interpreter.benchmark;
+
+import interpreter.lexer.Lexer;
+import interpreter.lexer.TokenSource;
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Table-driven {@link Lexer} against the {@link BaselineLexer} it replaced, on the same input. Run
+ * with {@code -prof gc} to compare allocation per token as well as throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LexerFastPathBenchmark {
+
+    @Param({"1000"})
+    private int statements;
+
+    private String source;
+
+    @Setup
+    public void setUp() {
+        source = SourceGenerator.generate(statements);
+    }
+
+    @Benchmark
+    public int baselineLexer() {
+        return drain(new BaselineLexer(source));
+    }
+
+    @Benchmark
+    public int tableDrivenLexer() {
+        return drain(new Lexer(source));
+    }
+
+    private static int drain(TokenSource lexer) {
+        int tokens = 0;
+        Token token;
+        do {
+            token = lexer.nextToken();
+            tokens++;
+        } while (token.type() != TokenType.EOF);
+        return tokens;
+    }
+}
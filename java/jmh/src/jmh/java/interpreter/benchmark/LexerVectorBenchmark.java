@@ -0,0 +1,78 @@
+package interpreter.benchmark;
+
+import interpreter.lexer.Lexer;
+import interpreter.lexer.TokenBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link Lexer} with and without the Vector API run scanner, on inputs dominated by long runs.
+ * Both benchmarks run the same code; only the {@code vector} fork loads {@code
+ * jdk.incubator.vector}, so {@code scalar} also measures the fallback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LexerVectorBenchmark {
+    private static final int LENGTH = 1 << 20;
+
+    /** The kind of run each input is made of. */
+    public enum Shape {
+        IDENTIFIERS,
+        INDENTATION,
+        NUMBERS,
+        TYPICAL;
+
+        String source() {
+            var random = new Random(42);
+            var source = new StringBuilder(LENGTH + 100);
+            while (source.length() < LENGTH) {
+                switch (this) {
+                    case IDENTIFIERS ->
+                            source.append("let a_rather_long_identifier_name_")
+                                    .append((char) ('a' + random.nextInt(26)))
+                                    .append(" = another_long_identifier_for_a_value;\n");
+                    case INDENTATION -> source.append("\n").append(" ".repeat(40)).append("x;");
+                    case NUMBERS -> {
+                        for (int i = 0; i < 8; i++) {
+                            source.append(random.nextLong(1_000_000_000_000_000_000L)).append(", ");
+                        }
+                        source.append('\n');
+                    }
+                    case TYPICAL -> source.append(SourceGenerator.generate(10));
+                }
+            }
+            return source.toString();
+        }
+    }
+
+    @Param({"IDENTIFIERS", "INDENTATION", "NUMBERS", "TYPICAL"})
+    private Shape shape;
+
+    private String source;
+
+    @Setup
+    public void setUp() {
+        source = shape.source();
+    }
+
+    @Benchmark
+    public TokenBuffer scalar() {
+        return TokenBuffer.lex(source);
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public TokenBuffer vector() {
+        return TokenBuffer.lex(source);
+    }
+}
@@ -0,0 +1,80 @@
+package interpreter.benchmark;
+
+import interpreter.ast.Program;
+import interpreter.ast.Resolver;
+import interpreter.eval.Environment;
+import interpreter.eval.Evaluator;
+import interpreter.eval.Value;
+import interpreter.node.NodeInterpreter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The self-specializing node interpreter against the evaluator on the same resolved programs: the
+ * tail-recursive loop of {@link EvaluatorBenchmark}, and a doubly recursive Fibonacci, which makes
+ * calls that are not tail calls. The interpreter is shared across invocations, so its function
+ * bodies stay specialized, as they would in a long-running session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class NodeInterpreterBenchmark {
+
+    @Param({"10", "1000"})
+    private int iterations;
+
+    private Program tailCalls;
+    private Program fibonacci;
+    private final Evaluator evaluator = new Evaluator();
+    private final NodeInterpreter interpreter = new NodeInterpreter();
+
+    @Setup
+    public void setUp() {
+        tailCalls = resolve(EvaluatorBenchmark.tailCallLoop(iterations));
+        fibonacci = resolve(fibonacci(iterations));
+    }
+
+    @Benchmark
+    public Value evalTailCallLoop() {
+        return evaluator.eval(tailCalls, new Environment());
+    }
+
+    @Benchmark
+    public Value nodeTailCallLoop() {
+        return interpreter.eval(tailCalls, new Environment());
+    }
+
+    @Benchmark
+    public Value evalFibonacci() {
+        return evaluator.eval(fibonacci, new Environment());
+    }
+
+    @Benchmark
+    public Value nodeFibonacci() {
+        return interpreter.eval(fibonacci, new Environment());
+    }
+
+    private static Program resolve(String source) {
+        return new Resolver().resolve(EvaluatorBenchmark.parse(source)).program();
+    }
+
+    /** Computes the Fibonacci number whose recursion makes about {@code iterations} calls. */
+    static String fibonacci(int iterations) {
+        int n = (int) Math.round(Math.log(iterations) / Math.log((1 + Math.sqrt(5)) / 2));
+        return """
+                let fib = fn(n) {
+                    if (n < 2) { return n; }
+                    fib(n - 1) + fib(n - 2)
+                };
+                fib(%d);
+                """
+                .formatted(n);
+    }
+}
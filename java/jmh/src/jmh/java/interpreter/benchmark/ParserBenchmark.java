@@ -0,0 +1,53 @@
+package interpreter.benchmark;
+
+import interpreter.ast.Parser;
+import interpreter.ast.Program;
+import interpreter.lexer.Lexer;
+import interpreter.lexer.TokenBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Throughput of {@link Parser#parseProgram()}, both streaming straight from a {@link Lexer} and
+ * over a {@link TokenBuffer} lexed outside the measured region.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ParserBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    private InputSize size;
+
+    private String source;
+    private TokenBuffer tokens;
+
+    @Setup
+    public void setUp() {
+        source = size.source();
+        tokens = TokenBuffer.lex(source);
+        var parser = Parser.build(tokens);
+        parser.parseProgram();
+        if (!parser.getErrors().isEmpty()) {
+            throw new IllegalStateException(
+                    "benchmark input does not parse: " + parser.getErrors());
+        }
+    }
+
+    @Benchmark
+    public Program parseFromLexer() {
+        return Parser.build(new Lexer(source)).parseProgram();
+    }
+
+    @Benchmark
+    public Program parseFromTokenBuffer() {
+        return Parser.build(tokens).parseProgram();
+    }
+}
@@ -0,0 +1,52 @@
+package interpreter.benchmark;
+
+import interpreter.ast.Parser;
+import interpreter.lexer.Lexer;
+import interpreter.repl.Repl;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The REPL path end to end: every line of a generated program goes through its own {@link Lexer}
+ * and {@link Parser}, as {@link Repl#handle(String)} does, with and without execution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PipelineBenchmark {
+
+    @Param({"SMALL", "MEDIUM"})
+    private InputSize size;
+
+    private String[] lines;
+
+    @Setup
+    public void setUp() {
+        lines = size.source().split("\n");
+    }
+
+    @Benchmark
+    public void lexAndParse(Blackhole blackhole) {
+        for (String line : lines) {
+            Parser parser = Parser.build(new Lexer(line));
+            blackhole.consume(parser.parseProgram());
+            blackhole.consume(parser.getDiagnostics());
+        }
+    }
+
+    @Benchmark
+    public void replHandle(Blackhole blackhole) {
+        Repl repl = new Repl();
+        for (String line : lines) {
+            blackhole.consume(repl.handle(line));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package interpreter.benchmark;
+
+import java.util.Random;
+
+/** Builds deterministic, syntactically valid Monkey programs of a given number of statements. */
+final class SourceGenerator {
+    private static final String[] OPERATORS = {"+", "-", "*", "/", "<", ">", "==", "!="};
+    private static final String[] NAMES = {
+        "alpha", "beta", "gamma", "delta", "result", "counter", "total_sum", "x", "y", "z"
+    };
+
+    private SourceGenerator() {}
+
+    static String generate(int statements) {
+        Random random = new Random(statements);
+        StringBuilder source = new StringBuilder(statements * 40);
+        for (int i = 0; i < statements; i++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            switch (random.nextInt(3)) {
+                case 0 -> source.append("let ").append(name).append(" = ");
+                case 1 -> source.append("return ");
+                default -> source.append("    ");
+            }
+            appendExpression(source, random, 3);
+            source.append(";\n");
+        }
+        return source.toString();
+    }
+
+    private static void appendExpression(StringBuilder source, Random random, int depth) {
+        if (depth == 0) {
+            switch (random.nextInt(3)) {
+                case 0 -> source.append(random.nextInt(100_000));
+                case 1 -> source.append(NAMES[random.nextInt(NAMES.length)]);
+                default -> source.append(random.nextBoolean());
+            }
+            return;
+        }
+        switch (random.nextInt(4)) {
+            case 0 -> {
+                source.append(random.nextBoolean() ? "-" : "!");
+                appendExpression(source, random, depth - 1);
+            }
+            case 1 -> {
+                source.append('(');
+                appendExpression(source, random, depth - 1);
+                source.append(')');
+            }
+            default -> {
+                appendExpression(source, random, depth - 1);
+                source.append(' ')
+                        .append(OPERATORS[random.nextInt(OPERATORS.length)])
+                        .append(' ');
+                appendExpression(source, random, depth - 1);
+            }
+        }
+    }
+}
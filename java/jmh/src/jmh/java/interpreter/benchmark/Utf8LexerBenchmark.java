@@ -0,0 +1,76 @@
+package interpreter.benchmark;
+
+import interpreter.lexer.Lexer;
+import interpreter.lexer.TokenSource;
+import interpreter.lexer.Utf8Lexer;
+import interpreter.token.Token;
+import interpreter.token.TokenType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Lexing a script file by reading it into a {@code String} for {@link Lexer}, against mapping it
+ * for {@link Utf8Lexer}: a whole file, and only up to its first token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Utf8LexerBenchmark {
+
+    @Param({"100000"})
+    private int statements;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("utf8-lexer", ".txt");
+        Files.writeString(file, SourceGenerator.generate(statements));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int readAndLex() throws IOException {
+        return drain(new Lexer(Files.readString(file)));
+    }
+
+    @Benchmark
+    public int mapAndLex() throws IOException {
+        return drain(Utf8Lexer.map(file));
+    }
+
+    @Benchmark
+    public Token readFirstToken() throws IOException {
+        return new Lexer(Files.readString(file)).nextToken();
+    }
+
+    @Benchmark
+    public Token mapFirstToken() throws IOException {
+        return Utf8Lexer.map(file).nextToken();
+    }
+
+    private static int drain(TokenSource lexer) {
+        int tokens = 0;
+        Token token;
+        do {
+            token = lexer.nextToken();
+            tokens++;
+        } while (token.type() != TokenType.EOF);
+        return tokens;
+    }
+}
@@ -0,0 +1,49 @@
+package interpreter.benchmark;
+
+import interpreter.ast.Parser;
+import interpreter.code.Bytecode;
+import interpreter.compiler.Compiler;
+import interpreter.eval.Value;
+import interpreter.lexer.Lexer;
+import interpreter.vm.Vm;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Throughput of the bytecode VM on the same programs as {@link EvaluatorBenchmark}, compiled once
+ * up front the way a long-running service would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VmBenchmark {
+
+    @Param({"10", "1000"})
+    private int iterations;
+
+    private Bytecode bytecode;
+    private final Vm vm = new Vm();
+
+    @Setup
+    public void setUp() {
+        var parser = Parser.build(new Lexer(EvaluatorBenchmark.arithmeticLoop(iterations)));
+        var program = parser.parseProgram();
+        if (!parser.getErrors().isEmpty()) {
+            throw new IllegalStateException(
+                    "benchmark input does not parse: " + parser.getErrors());
+        }
+        bytecode = new Compiler().compile(program);
+    }
+
+    @Benchmark
+    public Value runArithmeticLoop() {
+        return vm.run(bytecode);
+    }
+}
@@ -11,4 +11,4 @@ plugins {
 }
 
 rootProject.name = "interpreter"
-include("app")
+include("app", "jmh")